@@ -0,0 +1,69 @@
+package com.geeksforless.fintech;
+
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import com.geeksforless.fintech.service.ledger.InMemoryLedgerService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application for the JMH benchmarks.
+ */
+public final class BenchmarkApplication {
+
+    /**
+     * The number of accounts saved per repository call while preparing the account set.
+     */
+    private static final int SAVE_CHUNK_SIZE = 1000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application on a random port with quiet logging.
+     *
+     * @param properties additional properties in {@code key=value} form, e.g. the transfer mode under test.
+     * @return the started application context, to be closed by the benchmark's tear-down.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(FintechApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN", "spring.main.banner-mode=off")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Saves the given number of accounts with the same balance, or opens them in the in-memory ledger
+     * when it is the account store.
+     *
+     * @return the IDs of the saved accounts in creation order.
+     */
+    public static long[] prepareAccounts(ConfigurableApplicationContext context, int count, Money balance) {
+        InMemoryLedgerService ledger = context.getBeanProvider(InMemoryLedgerService.class).getIfAvailable();
+        if (ledger != null) {
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = ledger.open(balance).getId();
+            }
+            return ids;
+        }
+
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        long[] ids = new long[count];
+        int saved = 0;
+        while (saved < count) {
+            List<Account> chunk = new ArrayList<>();
+            for (int i = saved; i < Math.min(saved + SAVE_CHUNK_SIZE, count); i++) {
+                chunk.add(new Account(null, balance));
+            }
+            for (Account account : accountRepository.saveAll(chunk)) {
+                ids[saved++] = account.getId();
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,360 @@
+package com.geeksforless.fintech;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.dto.AccountPageDto;
+import com.geeksforless.fintech.money.Money;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test of the transfer and read endpoints of a locally started {@link FintechApplication}.
+ * <p>
+ * The application is started in its own JVM and provisioned with {@code load.accounts} accounts of
+ * {@code load.balance} each through the bulk import. Requests then arrive at a fixed rate of {@code load.rate}
+ * per second for {@code load.seconds} (an open model: arrivals do not wait for earlier responses), a share of
+ * {@code load.readShare} of them reads of {@code GET /api/accounts/{id}} and the rest transfers of {@code 0.01}
+ * through {@code POST /api/accounts/transfer}. Accounts are picked with a Zipfian distribution of exponent
+ * {@code load.zipfExponent} over a random ranking of the accounts, so a few hot accounts take most of the traffic.
+ * The requests are drawn from a random generator seeded with {@code load.seed}, so a run with the same settings
+ * issues the same sequence of requests.
+ * </p>
+ * <p>
+ * Latencies are measured from the scheduled arrival of every request, so a server falling behind is not hidden
+ * by the load generator waiting for it, and recorded in HdrHistograms written to {@code load.reportDir}. Transfer
+ * outcomes are told apart by status code, and the 400s also by the error message in their body. Once all
+ * responses are in, the balances of all accounts are summed again and the run fails unless the total is unchanged.
+ * </p>
+ * <p>
+ * Run it with {@code ./gradlew loadTest}, optionally with {@code -PloadAccounts}, {@code -PloadRate},
+ * {@code -PloadSeconds}, {@code -PloadReadShare}, {@code -PloadZipfExponent}, {@code -PloadSeed} and
+ * {@code -PloadAppArgs="--transfer.mode=atomic ..."} for the properties of the application under test.
+ * </p>
+ */
+public final class LoadHarness {
+
+    private static final int PORT = 18090;
+    private static final int PAGE_SIZE = 1000;
+    private static final String TRANSFER_AMOUNT = "0.01";
+
+    /**
+     * The start of the body of a 400 answering a transfer the source account cannot cover, telling it apart
+     * from the other rejected transfers.
+     */
+    private static final String INSUFFICIENT_FUNDS_MESSAGE = "Not enough funds";
+
+    /**
+     * The highest latency tracked by the histograms, one minute in microseconds.
+     */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int accounts = Integer.getInteger("load.accounts", 100_000);
+        String balance = System.getProperty("load.balance", "1000.00");
+        double rate = Double.parseDouble(System.getProperty("load.rate", "2000"));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.seconds", 60));
+        double readShare = Double.parseDouble(System.getProperty("load.readShare", "0.9"));
+        double zipfExponent = Double.parseDouble(System.getProperty("load.zipfExponent", "1.0"));
+        long seed = Long.getLong("load.seed", 42);
+        Path reportDir = Path.of(System.getProperty("load.reportDir", "build/reports/load"));
+        String appArgs = System.getProperty("load.appArgs", "").trim();
+
+        Path accountsFile = Files.createTempFile("load-accounts", ".csv");
+        try (Writer writer = Files.newBufferedWriter(accountsFile)) {
+            writer.write("balance\n");
+            for (int i = 0; i < accounts; i++) {
+                writer.write(balance);
+                writer.write('\n');
+            }
+        }
+
+        Process server = startServer(accountsFile, appArgs);
+        try {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            awaitReady(httpClient);
+
+            List<AccountDetailsDto> before = listAccounts(httpClient);
+            Money totalBefore = total(before);
+            long[] ids = before.stream().mapToLong(AccountDetailsDto::getId).toArray();
+            System.out.printf("Load test: %d accounts holding %s, %.0f requests/s for %d s, %.0f%% reads, "
+                    + "Zipf exponent %.2f, seed %d%n", ids.length, totalBefore, rate, duration.toSeconds(),
+                    readShare * 100, zipfExponent, seed);
+
+            Result result = run(httpClient, new Zipf(ids, zipfExponent, seed), rate, duration, readShare, seed);
+            result.print(System.out, duration);
+            Files.createDirectories(reportDir);
+            result.write(reportDir);
+
+            Money totalAfter = total(listAccounts(httpClient));
+            if (totalAfter.compareTo(totalBefore) != 0) {
+                throw new IllegalStateException("Money was not conserved: " + totalBefore + " before, " + totalAfter + " after");
+            }
+            System.out.printf("Conservation invariant holds: %s before and after%n", totalAfter);
+        } finally {
+            server.destroy();
+            server.waitFor();
+            Files.deleteIfExists(accountsFile);
+        }
+    }
+
+    /**
+     * Issues the requests at their scheduled arrival times and waits for all the responses.
+     */
+    private static Result run(HttpClient httpClient, Zipf zipf, double rate, Duration duration, double readShare,
+                              long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Result result = new Result();
+        long intervalNanos = (long) (1_000_000_000 / rate);
+        long arrivals = (long) (rate * duration.toSeconds());
+        List<CompletableFuture<Void>> responses = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (long i = 0; i < arrivals; i++) {
+            long arrival = start + i * intervalNanos;
+            boolean read = random.nextDouble() < readShare;
+            HttpRequest request;
+            if (read) {
+                request = HttpRequest.newBuilder(uri("/api/accounts/" + zipf.next(random))).GET().build();
+            } else {
+                long from = zipf.next(random);
+                long to;
+                do {
+                    to = zipf.next(random);
+                } while (to == from);
+                String body = "{\"fromAccountId\":" + from + ",\"toAccountId\":" + to + ",\"amount\":" + TRANSFER_AMOUNT + "}";
+                request = HttpRequest.newBuilder(uri("/api/accounts/transfer"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+
+            LockSupport.parkNanos(arrival - System.nanoTime());
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .handle((response, failure) -> {
+                        long latencyNanos = System.nanoTime() - arrival;
+                        if (failure != null) {
+                            result.record(read, -1, "", latencyNanos);
+                        } else {
+                            result.record(read, response.statusCode(), response.body(), latencyNanos);
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return result;
+    }
+
+    private static Process startServer(Path accountsFile, String appArgs) throws IOException {
+        String classpath = System.getProperty("app.classpath");
+        if (classpath == null) {
+            throw new IllegalStateException("The classpath of the application is not set, run ./gradlew loadTest");
+        }
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-Xmx2g", "-cp", classpath,
+                FintechApplication.class.getName(), "--server.port=" + PORT, "--logging.level.root=WARN",
+                "--logging.level.com.geeksforless.fintech.service.AccountImportService=INFO",
+                "--spring.main.banner-mode=off", "--accounts.import.file=" + accountsFile));
+        if (!appArgs.isEmpty()) {
+            command.addAll(Arrays.asList(appArgs.split("\\s+")));
+        }
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    private static void awaitReady(HttpClient httpClient) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(300).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(uri("/actuator/health")).GET().build();
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("The application did not start within 300 s");
+    }
+
+    /**
+     * Lists the details of all accounts page by page.
+     */
+    private static List<AccountDetailsDto> listAccounts(HttpClient httpClient) throws IOException, InterruptedException {
+        List<AccountDetailsDto> accounts = new ArrayList<>();
+        Long afterId = 0L;
+        while (afterId != null) {
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/accounts?limit=" + PAGE_SIZE + "&afterId=" + afterId))
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Listing the accounts failed with " + response.statusCode());
+            }
+            AccountPageDto page = OBJECT_MAPPER.readValue(response.body(), AccountPageDto.class);
+            accounts.addAll(page.getAccounts());
+            afterId = page.getNextAfterId();
+        }
+        return accounts;
+    }
+
+    private static Money total(List<AccountDetailsDto> accounts) {
+        return accounts.stream().map(AccountDetailsDto::getBalance).reduce(Money.ZERO, Money::plus);
+    }
+
+    private static URI uri(String path) {
+        return URI.create("http://localhost:" + PORT + path);
+    }
+
+    /**
+     * Picks accounts with a Zipfian distribution: the account of rank {@code k} is picked with a probability
+     * proportional to {@code 1 / k^exponent}, the ranks being a random permutation of the accounts.
+     */
+    private static final class Zipf {
+
+        private final long[] ids;
+        private final double[] cumulative;
+
+        Zipf(long[] accountIds, double exponent, long seed) {
+            ids = accountIds.clone();
+            SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+            for (int i = ids.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                long id = ids[i];
+                ids[i] = ids[j];
+                ids[j] = id;
+            }
+            cumulative = new double[ids.length];
+            double sum = 0;
+            for (int rank = 0; rank < ids.length; rank++) {
+                sum += 1 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < ids.length; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        long next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return ids[Math.min(index >= 0 ? index : -index - 1, ids.length - 1)];
+        }
+    }
+
+    /**
+     * Latencies and outcomes of the requests of a run, by kind of request.
+     */
+    private static final class Result {
+
+        private final Histogram reads = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final Histogram transfers = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder readErrors = new LongAdder();
+        private final LongAdder transfersOk = new LongAdder();
+        private final LongAdder insufficientFunds = new LongAdder();
+        private final LongAdder badRequests = new LongAdder();
+        private final LongAdder notFound = new LongAdder();
+        private final LongAdder overloaded = new LongAdder();
+        private final LongAdder otherClientErrors = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder transferErrors = new LongAdder();
+
+        /**
+         * Records a response.
+         *
+         * @param status the HTTP status, or {@code -1} if the request failed without a response.
+         * @param body   the body of the response, empty if there is none.
+         */
+        void record(boolean read, int status, String body, long latencyNanos) {
+            long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS);
+            if (read) {
+                reads.recordValue(micros);
+                if (status != 200) {
+                    readErrors.increment();
+                }
+                return;
+            }
+            transfers.recordValue(micros);
+            if (status == 200) {
+                transfersOk.increment();
+            } else if (status == 400) {
+                (body.startsWith(INSUFFICIENT_FUNDS_MESSAGE) ? insufficientFunds : badRequests).increment();
+            } else if (status == 404) {
+                notFound.increment();
+            } else if (status == 429) {
+                overloaded.increment();
+            } else if (status >= 400 && status < 500) {
+                otherClientErrors.increment();
+            } else if (status == 503) {
+                shed.increment();
+            } else {
+                // 5xx other than 503 and requests without a response
+                transferErrors.increment();
+            }
+        }
+
+        void print(PrintStream out, Duration duration) {
+            long transferCount = transfers.getTotalCount();
+            out.printf("Reads: %d, %.1f/s, %d errors, p50=%.2f ms, p99=%.2f ms, p99.9=%.2f ms, max=%.2f ms%n",
+                    reads.getTotalCount(), reads.getTotalCount() / (double) duration.toSeconds(), readErrors.sum(),
+                    millis(reads, 50), millis(reads, 99), millis(reads, 99.9), reads.getMaxValue() / 1000.0);
+            out.printf("Transfers: %d, %.1f ok/s, p50=%.2f ms, p99=%.2f ms, p99.9=%.2f ms, max=%.2f ms%n",
+                    transferCount, transfersOk.sum() / (double) duration.toSeconds(),
+                    millis(transfers, 50), millis(transfers, 99), millis(transfers, 99.9), transfers.getMaxValue() / 1000.0);
+            out.printf("Transfer outcomes: %.2f%% ok, %.2f%% insufficient funds, %.2f%% other bad requests (400), "
+                            + "%.2f%% not found (404), %.2f%% overloaded after retries (429), %.2f%% other client errors "
+                            + "(4xx), %.2f%% shed (503), %.2f%% server errors (5xx or no response)%n",
+                    share(transfersOk, transferCount), share(insufficientFunds, transferCount),
+                    share(badRequests, transferCount), share(notFound, transferCount),
+                    share(overloaded, transferCount), share(otherClientErrors, transferCount),
+                    share(shed, transferCount), share(transferErrors, transferCount));
+            out.println("Transfer latency distribution (ms):");
+            transfers.outputPercentileDistribution(out, 1000.0);
+        }
+
+        /**
+         * Writes both histograms in the {@code .hgrm} percentile format, in milliseconds.
+         */
+        void write(Path dir) throws IOException {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve("reads.hgrm")))) {
+                reads.outputPercentileDistribution(out, 1000.0);
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve("transfers.hgrm")))) {
+                transfers.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        private static double share(LongAdder count, long total) {
+            return total == 0 ? 0 : count.sum() * 100.0 / total;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.geeksforless.fintech;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the servlet and the reactive variant of the account API under many concurrent clients.
+ * <p>
+ * Every variant is started in its own JVM with the same heap limit. Each run opens the given number of
+ * concurrent client connections that keep issuing account reads, with a share of transfers between the two
+ * seeded accounts, for a fixed duration. The benchmark reports throughput, latency percentiles and the
+ * server's resident memory and threads: the growth of the resident memory from the idle server to the peak
+ * of the run, divided by the number of connections, is the memory per connection.
+ * </p>
+ * <p>
+ * Run it with {@code ./gradlew reactiveBenchmark}, optionally with {@code -PbenchmarkClients=<counts>} (comma
+ * separated, {@code 1000,10000} by default), {@code -PbenchmarkSeconds=<seconds>} (20 by default) and
+ * {@code -PbenchmarkTransferShare=<0..1>} (0.1 by default). Memory and threads are read from {@code /proc},
+ * so they are only reported on Linux; 10,000 connections need a matching {@code ulimit -n}.
+ * </p>
+ */
+public final class ServletVsReactiveBenchmark {
+
+    /**
+     * The resolution of the latency histogram is one millisecond, latencies above its size are counted in the last bucket.
+     */
+    private static final int LATENCY_BUCKETS = 60_000;
+
+    private ServletVsReactiveBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] clientCounts = Arrays.stream(System.getProperty("benchmark.clients", "1000,10000").split(","))
+                .mapToInt(count -> Integer.parseInt(count.trim()))
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("benchmark.seconds", 20));
+        double transferShare = Double.parseDouble(System.getProperty("benchmark.transferShare", "0.1"));
+
+        List<Variant> variants = List.of(
+                new Variant("servlet", System.getProperty("servlet.classpath"),
+                        "com.geeksforless.fintech.FintechApplication", 18080),
+                new Variant("reactive", System.getProperty("reactive.classpath"),
+                        "com.geeksforless.fintech.reactive.ReactiveFintechApplication", 18081));
+
+        for (Variant variant : variants) {
+            for (int clients : clientCounts) {
+                Process server = variant.start();
+                try {
+                    awaitReady(variant);
+                    run(variant, server, clients, duration, transferShare);
+                } finally {
+                    server.destroy();
+                    server.waitFor();
+                }
+            }
+        }
+    }
+
+    private static void run(Variant variant, Process server, int clients, Duration duration, double transferShare)
+            throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        long idleRss = residentKilobytes(server);
+        AtomicLong peakRss = new AtomicLong(idleRss);
+        AtomicLong peakThreads = new AtomicLong(threads(server));
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        CompletableFuture<?>[] loops = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            loops[i] = loop(httpClient, variant, deadline, transferShare, requests, errors, latencies);
+        }
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(200);
+            peakRss.accumulateAndGet(residentKilobytes(server), Math::max);
+            peakThreads.accumulateAndGet(threads(server), Math::max);
+        }
+        CompletableFuture.allOf(loops).exceptionally(e -> null).join();
+
+        double seconds = duration.toNanos() / 1_000_000_000.0;
+        System.out.printf("%s, %d clients: %.1f requests/s, %d errors, p50=%d ms, p99=%d ms, "
+                        + "rss idle=%d MB, rss peak=%d MB, %.1f KB per connection, peak threads=%d%n",
+                variant.name(), clients, requests.sum() / seconds, errors.sum(),
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                idleRss / 1024, peakRss.get() / 1024, (peakRss.get() - idleRss) / (double) clients, peakThreads.get());
+    }
+
+    /**
+     * Issues requests one after the other on behalf of a single client until the deadline.
+     */
+    private static CompletableFuture<Void> loop(HttpClient httpClient, Variant variant, long deadline, double transferShare,
+                                                LongAdder requests, LongAdder errors, AtomicLongArray latencies) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request(variant, transferShare), HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure != null || response.statusCode() >= 500) {
+                        errors.increment();
+                    } else {
+                        requests.increment();
+                        int bucket = (int) Math.min((System.nanoTime() - start) / 1_000_000, LATENCY_BUCKETS - 1);
+                        latencies.incrementAndGet(bucket);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(httpClient, variant, deadline, transferShare, requests, errors, latencies));
+    }
+
+    private static HttpRequest request(Variant variant, double transferShare) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int account = 1 + random.nextInt(2);
+        if (random.nextDouble() < transferShare) {
+            String body = "{\"fromAccountId\":" + account + ",\"toAccountId\":" + (3 - account) + ",\"amount\":0.01}";
+            return HttpRequest.newBuilder(variant.uri("/api/accounts/transfer"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+        return HttpRequest.newBuilder(variant.uri("/api/accounts/" + account)).GET().build();
+    }
+
+    private static void awaitReady(Variant variant) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        long deadline = System.nanoTime() + Duration.ofSeconds(120).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(variant.uri("/api/accounts/1")).GET().build();
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet.
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(variant.name() + " did not start within 120 s");
+    }
+
+    private static long percentile(AtomicLongArray latencies, double percentile) {
+        long total = 0;
+        for (int i = 0; i < latencies.length(); i++) {
+            total += latencies.get(i);
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < latencies.length(); i++) {
+            seen += latencies.get(i);
+            if (seen >= rank && seen > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static long residentKilobytes(Process process) {
+        return procStatus(process, "VmRSS:");
+    }
+
+    private static long threads(Process process) {
+        return procStatus(process, "Threads:");
+    }
+
+    /**
+     * Reads a numeric field of {@code /proc/<pid>/status}, or {@code -1} where it is not available.
+     */
+    private static long procStatus(Process process, String field) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not on Linux or the process is gone.
+        }
+        return -1;
+    }
+
+    /**
+     * A variant of the API under test, started in its own JVM.
+     */
+    private record Variant(String name, String classpath, String mainClass, int port) {
+
+        Process start() throws IOException {
+            if (classpath == null) {
+                throw new IllegalStateException("The classpath of the " + name + " variant is not set, run ./gradlew reactiveBenchmark");
+            }
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            return new ProcessBuilder(java, "-Xmx512m", "-cp", classpath, mainClass,
+                    "--server.port=" + port, "--logging.level.root=WARN", "--spring.main.banner-mode=off")
+                    .inheritIO()
+                    .start();
+        }
+
+        URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.geeksforless.fintech.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geeksforless.fintech.mapper.AccountJsonWriter;
+import com.geeksforless.fintech.mapper.AccountMapper;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Time to write the listing of {@code GET /api/accounts} for {@code accountCount} accounts: the former path
+ * mapping every account to a DTO and serializing the list with Jackson, against {@link AccountJsonWriter}
+ * writing straight from the entities.
+ * <p>
+ * The accounts are held in memory and written to a discarding stream, so only the serialization is measured.
+ * Run with {@code -PjmhProfilers=gc} to compare the bytes allocated per listing.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AccountListBenchmark {
+
+    /**
+     * Discards everything written, unlike {@link OutputStream#nullOutputStream()} it stays usable once closed.
+     */
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Param({"10000", "1000000"})
+    public int accountCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AccountMapper accountMapper = new AccountMapper();
+    private final AccountJsonWriter accountJsonWriter = new AccountJsonWriter(objectMapper);
+    private List<Account> accounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        accounts = LongStream.rangeClosed(1, accountCount)
+                .mapToObj(id -> new Account(id, Money.ofMinorUnits(id * 37)))
+                .toList();
+    }
+
+    @Benchmark
+    public void dtoList() throws IOException {
+        objectMapper.writeValue(DISCARD, accounts.stream().map(accountMapper::toDto).toList());
+    }
+
+    @Benchmark
+    public void jsonWriter() throws IOException {
+        accountJsonWriter.writeArray(DISCARD, accounts::forEach);
+    }
+}
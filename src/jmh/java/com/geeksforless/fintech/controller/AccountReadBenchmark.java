@@ -0,0 +1,97 @@
+package com.geeksforless.fintech.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geeksforless.fintech.BenchmarkApplication;
+import com.geeksforless.fintech.mapper.AccountMapper;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Throughput of the account read path: mapping an account to its DTO and serializing it with Jackson,
+ * and the whole {@code GET /api/accounts/{id}} request through {@link MockMvc}.
+ * <p>
+ * The number of threads is set with {@code -PjmhThreads}; every request reads a random account
+ * out of {@code accountCount} accounts.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountReadBenchmark {
+
+    @Param({"1000", "10000"})
+    public int accountCount;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountMapper accountMapper;
+    private ObjectMapper objectMapper;
+    private MockMvc mockMvc;
+    private long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        accountService = context.getBean(AccountService.class);
+        accountMapper = context.getBean(AccountMapper.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        accountIds = BenchmarkApplication.prepareAccounts(context, accountCount, Money.of("1234.56"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * The per-thread state picking the account of the next read.
+     */
+    @State(Scope.Thread)
+    public static class Reads {
+
+        private SplittableRandom random;
+        private Account account;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams, AccountReadBenchmark benchmark) {
+            random = new SplittableRandom(threadParams.getThreadIndex());
+            account = benchmark.accountService.get(benchmark.accountIds[0]).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public byte[] toDtoAsJson(Reads reads) throws Exception {
+        return objectMapper.writeValueAsBytes(accountMapper.toDto(reads.account));
+    }
+
+    @Benchmark
+    public byte[] getAccount(Reads reads) throws Exception {
+        long accountId = accountIds[reads.random.nextInt(accountIds.length)];
+        return mockMvc.perform(get("/api/accounts/{id}", accountId))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package com.geeksforless.fintech.fx;
+
+import com.geeksforless.fintech.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of converting the amount of a cross-currency transfer with an {@link FxRates} snapshot: within one
+ * currency, on the integer path, on the {@link BigDecimal} fallback for very large amounts, and compared to
+ * computing the cross rate with {@link BigDecimal} on every conversion.
+ * <p>
+ * The {@code refresh} group converts while another thread keeps building and swapping in new snapshots, as
+ * {@link FxRateProvider} does on a refresh, to show that conversions do not wait for it.
+ * Run with {@code -PjmhProfilers=gc} to compare the bytes allocated per operation.
+ * </p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FxConversionBenchmark {
+
+    private static final MathContext RATE_CONTEXT = new MathContext(FxRates.RATE_PRECISION, RoundingMode.HALF_EVEN);
+
+    private final Map<String, BigDecimal> table = Map.of(
+            "USD", BigDecimal.ONE,
+            "EUR", new BigDecimal("0.92"),
+            "GBP", new BigDecimal("0.79"),
+            "CHF", new BigDecimal("0.88"),
+            "PLN", new BigDecimal("3.98"),
+            "UAH", new BigDecimal("41.25")
+    );
+
+    private volatile FxRates rates = new FxRates(table, Instant.now());
+
+    private final Money amount = Money.of("1234.56");
+    private final Money largeAmount = Money.ofMinorUnits(Long.MAX_VALUE / 100);
+
+    @Benchmark
+    public Money sameCurrency() {
+        return rates.convert(amount, "USD", "USD");
+    }
+
+    @Benchmark
+    public Money crossCurrency() {
+        return rates.convert(amount, "EUR", "PLN");
+    }
+
+    @Benchmark
+    public Money largeAmount() {
+        return rates.convert(largeAmount, "USD", "EUR");
+    }
+
+    @Benchmark
+    public Money bigDecimalCrossCurrency() {
+        BigDecimal crossRate = table.get("PLN").divide(table.get("EUR"), RATE_CONTEXT);
+        return Money.of(amount.toBigDecimal().multiply(crossRate).setScale(Money.DEFAULT_SCALE, RoundingMode.HALF_EVEN));
+    }
+
+    @Benchmark
+    @Group("refresh")
+    @GroupThreads(3)
+    public Money convertDuringRefresh() {
+        return rates.convert(amount, "EUR", "PLN");
+    }
+
+    @Benchmark
+    @Group("refresh")
+    @GroupThreads(1)
+    public FxRates refresh() {
+        FxRates refreshed = new FxRates(table, Instant.now());
+        rates = refreshed;
+        return refreshed;
+    }
+}
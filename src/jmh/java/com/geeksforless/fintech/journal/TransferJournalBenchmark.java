@@ -0,0 +1,139 @@
+package com.geeksforless.fintech.journal;
+
+import com.geeksforless.fintech.util.LongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append throughput and recovery time of the {@link TransferJournal}.
+ * <p>
+ * Concurrent threads append transfers, with {@code awaitDurable} waiting for every record to be durable as the
+ * transfer transactions do, so every fsync is shared by all the records appended while the previous one was
+ * running. The number of threads is set with {@code -PjmhThreads}. The recovery benchmark rebuilds the balances
+ * of {@code accountCount} accounts from a snapshot and a tail of {@code recordCount} journal records.
+ * </p>
+ */
+public class TransferJournalBenchmark {
+
+    private static final int SEGMENT_RECORDS = 1 << 20;
+
+    /**
+     * A journal the appending threads share.
+     */
+    @State(Scope.Benchmark)
+    public static class Appends {
+
+        @Param({"false", "true"})
+        public boolean awaitDurable;
+
+        private Path dir;
+        private TransferJournal journal;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("transfer-journal");
+            journal = TransferJournal.open(dir, SEGMENT_RECORDS, true);
+            journal.writeInitialSnapshot(new LongLongHashMap(16));
+        }
+
+        /**
+         * Folds the full segments into a snapshot, as the application does periodically, so their files are removed.
+         */
+        @TearDown(Level.Iteration)
+        public void snapshot() throws IOException {
+            journal.snapshot();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            journal.close();
+            FileSystemUtils.deleteRecursively(dir);
+        }
+    }
+
+    /**
+     * The account every thread transfers from, its own so that threads only share the journal.
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private long fromAccountId;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            fromAccountId = threadParams.getThreadIndex();
+        }
+    }
+
+    /**
+     * A journal holding a snapshot and a tail of records to recover from.
+     */
+    @State(Scope.Benchmark)
+    public static class RecoveredJournal {
+
+        @Param({"10000"})
+        public int accountCount;
+
+        @Param({"2000000"})
+        public int recordCount;
+
+        private Path dir;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("transfer-journal");
+            LongLongHashMap balances = new LongLongHashMap(accountCount);
+            for (int i = 0; i < accountCount; i++) {
+                balances.put(i, 1_000_000);
+            }
+            try (TransferJournal journal = TransferJournal.open(dir, SEGMENT_RECORDS, false)) {
+                journal.writeInitialSnapshot(balances);
+                for (int i = 0; i < recordCount; i++) {
+                    long sequence = journal.append(i % accountCount, (i + 1) % accountCount, 1);
+                    journal.complete(sequence, true);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            FileSystemUtils.deleteRecursively(dir);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long append(Appends appends, Writer writer) {
+        long sequence = appends.journal.append(writer.fromAccountId, writer.fromAccountId + 1, 1);
+        if (appends.awaitDurable) {
+            appends.journal.awaitDurable(sequence);
+        }
+        appends.journal.complete(sequence, true);
+        return sequence;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TransferJournal.Recovery recover(RecoveredJournal recoveredJournal) throws IOException {
+        try (TransferJournal journal = TransferJournal.open(recoveredJournal.dir, SEGMENT_RECORDS, false)) {
+            return journal.recover();
+        }
+    }
+}
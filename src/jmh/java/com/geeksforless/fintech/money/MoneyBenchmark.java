@@ -0,0 +1,74 @@
+package com.geeksforless.fintech.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the money operations of a transfer with {@link Money} compared to {@link BigDecimal}:
+ * the funds check, debit and credit, and reading and writing an amount with Jackson.
+ * <p>
+ * Run with {@code -PjmhProfilers=gc} to compare the bytes allocated per operation.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoneyBenchmark {
+
+    private static final String AMOUNT_JSON = "1234.56";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BigDecimal decimalFrom = new BigDecimal("1000000.00");
+    private final BigDecimal decimalTo = new BigDecimal("500.00");
+    private final BigDecimal decimalAmount = new BigDecimal("12.34");
+
+    private final Money moneyFrom = Money.of("1000000.00");
+    private final Money moneyTo = Money.of("500.00");
+    private final Money moneyAmount = Money.of("12.34");
+
+    @Benchmark
+    public BigDecimal bigDecimalTransfer() {
+        if (decimalFrom.compareTo(decimalAmount) < 0) {
+            throw new IllegalStateException();
+        }
+        return decimalFrom.subtract(decimalAmount).add(decimalTo.add(decimalAmount));
+    }
+
+    @Benchmark
+    public Money moneyTransfer() {
+        if (moneyFrom.isLessThan(moneyAmount)) {
+            throw new IllegalStateException();
+        }
+        return moneyFrom.minus(moneyAmount).plus(moneyTo.plus(moneyAmount));
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalRead() throws IOException {
+        return objectMapper.readValue(AMOUNT_JSON, BigDecimal.class);
+    }
+
+    @Benchmark
+    public Money moneyRead() throws IOException {
+        return objectMapper.readValue(AMOUNT_JSON, Money.class);
+    }
+
+    @Benchmark
+    public String bigDecimalWrite() throws IOException {
+        return objectMapper.writeValueAsString(decimalAmount);
+    }
+
+    @Benchmark
+    public String moneyWrite() throws IOException {
+        return objectMapper.writeValueAsString(moneyAmount);
+    }
+}
@@ -0,0 +1,85 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.BenchmarkApplication;
+import com.geeksforless.fintech.dto.AccountImportResultDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to import {@code accountCount} accounts with the bulk account import, from CSV and from newline-delimited JSON.
+ * <p>
+ * The input is generated in memory up front, so only parsing and inserting are measured. Every operation imports
+ * the whole input once and the imported accounts are deleted after every iteration, so the table does not grow
+ * across iterations. Run with {@code -PjmhThreads=1} to measure a single import at a time.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AccountImportBenchmark {
+
+    /**
+     * The formats of the input.
+     */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    @Param
+    public Format format;
+
+    @Param({"1000000"})
+    public int accountCount;
+
+    private ConfigurableApplicationContext context;
+    private AccountImportService accountImportService;
+    private byte[] input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        accountImportService = context.getBean(AccountImportService.class);
+        StringBuilder text = new StringBuilder(format == Format.CSV ? "balance\n" : "");
+        for (int i = 0; i < accountCount; i++) {
+            String balance = (i % 100_000) + "." + (i % 90 + 10);
+            if (format == Format.CSV) {
+                text.append(balance).append('\n');
+            } else {
+                text.append("{\"balance\":").append(balance).append("}\n");
+            }
+        }
+        input = text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteAccounts() {
+        context.getBean(JdbcTemplate.class).update("delete from account");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountImportResultDto importAccounts() throws IOException {
+        ByteArrayInputStream body = new ByteArrayInputStream(input);
+        return format == Format.CSV ? accountImportService.importCsv(body) : accountImportService.importNdjson(body);
+    }
+}
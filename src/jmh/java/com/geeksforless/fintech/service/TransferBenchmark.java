@@ -0,0 +1,140 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.BenchmarkApplication;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link AccountService#transfer} for every {@code transfer.mode}, with and without the in-process
+ * account locks ({@code transfer.locks.enabled}), and of the in-memory ledger ({@code account.store=in-memory}),
+ * under three ways of picking the accounts of each transfer, see {@link Distribution}.
+ * <p>
+ * The number of threads is set with {@code -PjmhThreads}; the account set is sized by {@code accountCount}.
+ * A transfer that gives up as overloaded after exhausting its retries still counts as an operation. The
+ * in-memory ledger has neither transfer modes nor account locks, so its runs repeat for every value of
+ * {@code transferMode} and {@code locks}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransferBenchmark {
+
+    /**
+     * The amount of every transfer, small enough for the accounts never to run out of funds.
+     */
+    private static final Money AMOUNT = Money.of("0.01");
+    private static final Money INITIAL_BALANCE = Money.of("1000000000");
+
+    /**
+     * How the accounts of a transfer are picked.
+     */
+    public enum Distribution {
+        /** Every thread moves money between its own pair of accounts. */
+        UNCONTENDED,
+        /** All the threads transfer between the same two accounts, in both directions. */
+        HOT_PAIR,
+        /** Every transfer is between two distinct accounts picked at random from the whole set. */
+        RANDOM_PAIR
+    }
+
+    @Param({"jpa", "in-memory"})
+    public String store;
+
+    @Param({"serializable", "optimistic", "pessimistic", "atomic"})
+    public String transferMode;
+
+    @Param({"false", "true"})
+    public boolean locks;
+
+    @Param
+    public Distribution distribution;
+
+    @Param({"1000", "10000"})
+    public int accountCount;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private long[] accountIds;
+    private Path ledgerJournalDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ledgerJournalDir = Files.createTempDirectory("ledger-journal");
+        context = BenchmarkApplication.start(
+                "account.store=" + store,
+                "transfer.mode=" + transferMode,
+                "transfer.locks.enabled=" + locks,
+                "ledger.journal.dir=" + ledgerJournalDir);
+        accountService = context.getBean(AccountService.class);
+        accountIds = BenchmarkApplication.prepareAccounts(context, accountCount, INITIAL_BALANCE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(ledgerJournalDir);
+    }
+
+    /**
+     * The per-thread state picking the accounts of the next transfer.
+     */
+    @State(Scope.Thread)
+    public static class Transfers {
+
+        private int threadIndex;
+        private SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            threadIndex = threadParams.getThreadIndex();
+            random = new SplittableRandom(threadIndex);
+        }
+    }
+
+    @Benchmark
+    public boolean transfer(Transfers transfers) {
+        long[] ids = accountIds;
+        int from;
+        int to;
+        switch (distribution) {
+            case UNCONTENDED -> {
+                from = (2 * transfers.threadIndex) % ids.length;
+                to = (2 * transfers.threadIndex + 1) % ids.length;
+            }
+            case HOT_PAIR -> {
+                from = transfers.random.nextInt(2);
+                to = 1 - from;
+            }
+            default -> {
+                from = transfers.random.nextInt(ids.length);
+                to = (from + 1 + transfers.random.nextInt(ids.length - 1)) % ids.length;
+            }
+        }
+        try {
+            accountService.transfer(ids[from], ids[to], AMOUNT);
+            return true;
+        } catch (ServerIsOverloadedException e) {
+            return false;
+        }
+    }
+}
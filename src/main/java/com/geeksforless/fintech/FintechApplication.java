@@ -3,11 +3,13 @@ package com.geeksforless.fintech;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 @SpringBootApplication
 @EnableWebMvc
 @EnableRetry
+@EnableScheduling
 public class FintechApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,46 @@
+package com.geeksforless.fintech.configuration;
+
+import com.geeksforless.fintech.service.AccountImportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Imports the accounts of {@code accounts.import.file} on startup, as CSV if its name ends with {@code .csv}
+ * and as newline-delimited JSON if it ends with {@code .ndjson} or {@code .jsonl}. The import runs before the
+ * application serves requests, and before the in-memory ledger seeds itself from the database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "accounts.import.file")
+public class AccountImportConfig {
+
+    private final AccountImportService accountImportService;
+    private final Path file;
+
+    public AccountImportConfig(AccountImportService accountImportService,
+                               @Value("${accounts.import.file}") String file) {
+        this.accountImportService = accountImportService;
+        this.file = Path.of(file);
+    }
+
+    @PostConstruct
+    public void importAccounts() throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        try (InputStream input = Files.newInputStream(file)) {
+            if (name.endsWith(".csv")) {
+                accountImportService.importCsv(input);
+            } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                accountImportService.importNdjson(input);
+            } else {
+                throw new IllegalArgumentException("accounts.import.file must be a .csv, .ndjson or .jsonl file");
+            }
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package com.geeksforless.fintech.configuration;
 
 import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
 import com.geeksforless.fintech.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 
 import javax.annotation.PostConstruct;
-import java.math.BigDecimal;
 
 @Configuration
 @RequiredArgsConstructor
@@ -16,7 +16,7 @@ public class DbTestDataConfig {
 
     @PostConstruct
     public void addTestData() {
-        accountRepository.save(new Account(1L, BigDecimal.valueOf(100.0)));
-        accountRepository.save(new Account(2L, BigDecimal.valueOf(200.0)));
+        accountRepository.save(new Account(1L, Money.of("100.00")));
+        accountRepository.save(new Account(2L, Money.of("200.00")));
     }
 }
@@ -1,13 +1,23 @@
 package com.geeksforless.fintech.configuration;
 
+import com.geeksforless.fintech.money.Money;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.List;
+
 @Configuration
 @EnableSwagger2
 public class SwaggerConfig {
@@ -17,6 +27,33 @@ public class SwaggerConfig {
                 .select()
                 .apis(RequestHandlerSelectors.any())
                 .paths(PathSelectors.any())
-                .build();
+                .build()
+                // Amounts are plain JSON numbers, see MoneySerializer.
+                .directModelSubstitute(Money.class, BigDecimal.class);
+    }
+
+    /**
+     * Hides the Actuator endpoint mappings from Springfox, which cannot handle mappings
+     * using path patterns and would otherwise fail on startup.
+     */
+    @Bean
+    public static BeanPostProcessor springfoxHandlerProviderBeanPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof WebMvcRequestHandlerProvider) {
+                    List<RequestMappingInfoHandlerMapping> mappings = handlerMappings(bean);
+                    mappings.removeIf(mapping -> mapping.getPatternParser() != null);
+                }
+                return bean;
+            }
+
+            @SuppressWarnings("unchecked")
+            private List<RequestMappingInfoHandlerMapping> handlerMappings(Object bean) {
+                Field field = ReflectionUtils.findField(bean.getClass(), "handlerMappings");
+                ReflectionUtils.makeAccessible(field);
+                return (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, bean);
+            }
+        };
     }
 }
@@ -0,0 +1,49 @@
+package com.geeksforless.fintech.configuration;
+
+import com.geeksforless.fintech.util.VirtualThreads;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs request handling on virtual threads ({@code threads.virtual.enabled=true}, JDK 21 or newer).
+ * <p>
+ * Tomcat hands every request to a new virtual thread, so a request blocked in JDBC or sleeping in the
+ * {@code @Retryable} backoff no longer holds a platform thread. To keep the unbounded number of concurrent
+ * requests from flooding the database, the data source admits at most {@code threads.virtual.maxConnections}
+ * connections at a time and parks the other requests for up to {@code threads.virtual.connectionTimeoutMillis}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Wraps the data source into a {@link ConnectionLimitingDataSource}. Static, like every
+     * {@link BeanPostProcessor} bean, so it does not initialize this configuration early.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource,
+                            environment.getRequiredProperty("threads.virtual.maxConnections", Integer.class),
+                            environment.getRequiredProperty("threads.virtual.connectionTimeoutMillis", Long.class));
+                }
+                return bean;
+            }
+        };
+    }
+}
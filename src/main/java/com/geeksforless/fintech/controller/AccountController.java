@@ -1,16 +1,43 @@
 package com.geeksforless.fintech.controller;
 
+import com.geeksforless.fintech.dto.AccountBalanceDto;
 import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.dto.AccountImportResultDto;
+import com.geeksforless.fintech.dto.AccountPageDto;
+import com.geeksforless.fintech.dto.AsyncTransferDto;
+import com.geeksforless.fintech.dto.BatchTransferResultDto;
 import com.geeksforless.fintech.dto.MoneyTransferDto;
-import com.geeksforless.fintech.mapper.AccountMapper;
+import com.geeksforless.fintech.dto.TransferPageDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.mapper.AccountJsonWriter;
+import com.geeksforless.fintech.service.AccountImportService;
 import com.geeksforless.fintech.service.AccountService;
+import com.geeksforless.fintech.service.AsyncTransferService;
+import com.geeksforless.fintech.service.BalanceSnapshotService;
+import com.geeksforless.fintech.service.BatchTransferService;
+import com.geeksforless.fintech.service.TransferHistoryService;
+import com.geeksforless.fintech.service.TransferLimiter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 /**
  * A RESTful controller responsible for handling account-related operations.
@@ -21,21 +48,104 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AccountController {
 
+    /**
+     * The maximum number of accounts returned in a single page.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * The request header carrying the idempotency key of a transfer.
+     */
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final AccountService accountService;
-    private final AccountMapper accountMapper;
+    private final BatchTransferService batchTransferService;
+    private final AsyncTransferService asyncTransferService;
+    private final Optional<TransferHistoryService> transferHistoryService;
+    private final Optional<BalanceSnapshotService> balanceSnapshotService;
+    private final TransferLimiter transferLimiter;
+    private final AccountImportService accountImportService;
+    private final AccountJsonWriter accountJsonWriter;
 
     /**
      * Transfers money between accounts.
+     * <p>
+     * A transfer with an idempotency key is applied at most once; resubmitting it succeeds without
+     * applying it again. When the {@link TransferLimiter} already has as many transfers in flight as the
+     * server can currently handle, the transfer is rejected with 503 Service Unavailable and a
+     * {@code Retry-After} header without being attempted.
+     * </p>
      *
-     * @param transferDto the data transfer object containing transfer details
+     * @param transferDto    the data transfer object containing transfer details
+     * @param idempotencyKey the optional idempotency key, taking precedence over the one of the transfer details
      * @return a ResponseEntity indicating the result of the operation
      */
     @PostMapping("/transfer")
-    public ResponseEntity<Void> transferMoney(@RequestBody @Valid MoneyTransferDto transferDto) {
-        accountService.transfer(transferDto.getFromAccountId(), transferDto.getToAccountId(), transferDto.getAmount());
+    public ResponseEntity<Void> transferMoney(
+            @RequestBody @Valid MoneyTransferDto transferDto,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        transferLimiter.execute(() -> accountService.transfer(transferDto.getFromAccountId(),
+                transferDto.getToAccountId(), transferDto.getAmount(),
+                idempotencyKey != null ? idempotencyKey : transferDto.getIdempotencyKey()));
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Submits a transfer to be applied asynchronously.
+     * <p>
+     * The transfer is queued and the request returns right away, the outcome is polled with
+     * {@link #getTransfer(String)}. When the queue is full the transfer is rejected with 429 Too Many Requests.
+     * </p>
+     *
+     * @param transferDto    the data transfer object containing transfer details
+     * @param idempotencyKey the optional idempotency key, taking precedence over the one of the transfer details
+     * @return a ResponseEntity with 202 Accepted, the status of the queued transfer and its location
+     */
+    @PostMapping("/transfers/async")
+    public ResponseEntity<AsyncTransferDto> transferMoneyAsync(
+            @RequestBody @Valid MoneyTransferDto transferDto,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        AsyncTransferDto transfer = asyncTransferService.submit(transferDto,
+                idempotencyKey != null ? idempotencyKey : transferDto.getIdempotencyKey());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/accounts/transfers/" + transfer.getId()))
+                .body(transfer);
+    }
+
+    /**
+     * Retrieves the status of a transfer submitted asynchronously.
+     *
+     * @param id the ID of the transfer returned when it was submitted
+     * @return a ResponseEntity containing the status of the transfer or a not-found status
+     */
+    @GetMapping("/transfers/{id}")
+    public ResponseEntity<AsyncTransferDto> getTransfer(@PathVariable String id) {
+        return asyncTransferService.get(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Transfers money for a batch of transfers.
+     * <p>
+     * A transfer that cannot be applied does not fail the batch, the outcome of every transfer
+     * is reported individually.
+     * </p>
+     *
+     * @param transferDtos the data transfer objects containing the details of each transfer
+     * @return a ResponseEntity containing the result of each transfer, in submission order
+     */
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<List<BatchTransferResultDto>> transferMoneyInBatch(
+            @RequestBody @NotEmpty List<@Valid MoneyTransferDto> transferDtos) {
+        List<TransferStatus> statuses = batchTransferService.transfer(transferDtos);
+        return ResponseEntity.ok(
+                IntStream.range(0, statuses.size())
+                        .mapToObj(index -> new BatchTransferResultDto(index, statuses.get(index)))
+                        .toList()
+        );
+    }
+
     /**
      * Retrieves the details of a specific account by its ID.
      *
@@ -44,24 +154,132 @@ public class AccountController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<AccountDetailsDto> getAccount(@PathVariable Long id) {
-        return accountService.get(id)
-                .map(accountMapper::toDto)
+        return accountService.getDetails(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Retrieves the balance of an account at a point in time.
+     * <p>
+     * Balance history is only kept by the database-backed account store, with another store the request
+     * is answered with 501 Not Implemented.
+     * </p>
+     *
+     * @param id the ID of the account
+     * @param at the point in time (ISO-8601)
+     * @return a ResponseEntity containing the balance of the account at that time
+     */
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<AccountBalanceDto> getBalanceAt(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        return balanceSnapshotService
+                .map(service -> ResponseEntity.ok(service.getBalanceAt(id, at)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build());
+    }
+
+    /**
+     * Retrieves a page of the statement of an account using keyset pagination.
+     * <p>
+     * The statement lists the transfers debited from or credited to the account, newest first. Transfers are
+     * only recorded by the database-backed account store, with another store the request is answered with
+     * 501 Not Implemented.
+     * </p>
+     *
+     * @param id     the ID of the account
+     * @param from   the earliest time of the returned transfers (ISO-8601, inclusive), unbounded if absent
+     * @param to     the latest time of the returned transfers (ISO-8601, exclusive), unbounded if absent
+     * @param cursor the {@code nextCursor} of the previous page, absent for the first page
+     * @param limit  the maximum number of transfers in the page
+     * @return a ResponseEntity containing the page of transfers and the cursor of the next page
+     */
+    @GetMapping("/{id}/transfers")
+    public ResponseEntity<TransferPageDto> getTransfers(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        return transferHistoryService
+                .map(service -> ResponseEntity.ok(service.getStatement(id, from, to, cursor, limit)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build());
+    }
+
+    /**
+     * Creates accounts in bulk from CSV holding the initial balance of one account per line.
+     * <p>
+     * The body is parsed while it is uploaded and inserted in large batches, see {@link AccountImportService}.
+     * </p>
+     *
+     * @param body the CSV, with an optional {@code balance} header line
+     * @return a ResponseEntity containing the number of accounts created and the duration of the import
+     * @throws IOException if reading the body fails
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<AccountImportResultDto> importAccountsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(accountImportService.importCsv(body));
+    }
+
+    /**
+     * Creates accounts in bulk from newline-delimited JSON holding one {@code {"balance": ...}} object per line.
+     *
+     * @param body the newline-delimited JSON
+     * @return a ResponseEntity containing the number of accounts created and the duration of the import
+     * @throws IOException if reading the body fails
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<AccountImportResultDto> importAccountsNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(accountImportService.importNdjson(body));
+    }
+
     /**
      * Retrieves the details of all available accounts.
+     * <p>
+     * The accounts are written to the response as a JSON array while they are read from the database,
+     * without creating a DTO per account or holding the listing in memory.
+     * </p>
      *
-     * @return a ResponseEntity containing a list of account details
+     * @return a ResponseEntity streaming the JSON array of account details
      */
-    @GetMapping
-    public ResponseEntity<List<AccountDetailsDto>> getAccounts() {
-        return ResponseEntity.ok(
-                accountService.getAll()
-                        .stream()
-                        .map(accountMapper::toDto)
-                        .toList()
-        );
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAccounts() {
+        StreamingResponseBody body = outputStream -> accountJsonWriter.writeArray(outputStream, accountService::forEachAccount);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Retrieves a page of account details using keyset pagination.
+     *
+     * @param afterId only accounts with an ID greater than this one are returned, {@code 0} for the first page
+     * @param limit   the maximum number of accounts in the page
+     * @return a ResponseEntity containing the page of account details and the cursor of the next page
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<AccountPageDto> getAccountsPage(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam @Min(1) @Max(MAX_PAGE_SIZE) int limit) {
+        List<AccountDetailsDto> accounts = accountService.getDetailsPage(afterId, limit);
+        Long nextAfterId = accounts.size() < limit ? null : accounts.get(accounts.size() - 1).getId();
+        return ResponseEntity.ok(new AccountPageDto(accounts, nextAfterId));
+    }
+
+    /**
+     * Streams the details of all available accounts as newline-delimited JSON.
+     * <p>
+     * Accounts are written to the response as they are read from the database, so neither the
+     * accounts nor their details are ever held in memory as a whole, and no DTO is created per account.
+     * </p>
+     *
+     * @return a ResponseEntity streaming one JSON object of account details per line
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAccounts() {
+        StreamingResponseBody body = outputStream -> accountJsonWriter.writeLines(outputStream, accountService::forEachAccount);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 }
@@ -0,0 +1,28 @@
+package com.geeksforless.fintech.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.geeksforless.fintech.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Represents the balance of an account at a point in time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceDto {
+
+    /** The unique identifier of the account. */
+    private Long id;
+
+    /** The balance of the account at {@link #at}. */
+    private Money balance;
+
+    /** The point in time of the balance, as an ISO-8601 instant. */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant at;
+}
@@ -1,21 +1,30 @@
 package com.geeksforless.fintech.dto;
 
+import com.geeksforless.fintech.money.Money;
+import lombok.AllArgsConstructor;
 import lombok.Data;
-
-import java.math.BigDecimal;
+import lombok.NoArgsConstructor;
 
 /**
  * Represents the details of an account for data transfer purposes.
  * This DTO (Data Transfer Object) encapsulates the essential fields of an account
  * for transferring data between layers or systems.
+ * <p>
+ * Read-only queries select it directly with a constructor expression, without loading the {@code Account} entity.
+ * </p>
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class AccountDetailsDto {
 
     /** The unique identifier of the account. */
     private Long id;
 
     /** The current balance of the account. */
-    private BigDecimal balance;
+    private Money balance;
+
+    /** The ISO 4217 code of the currency of the balance. */
+    private String currency;
 }
 
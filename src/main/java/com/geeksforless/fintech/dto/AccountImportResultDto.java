@@ -0,0 +1,21 @@
+package com.geeksforless.fintech.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the outcome of a bulk import of accounts.
+ * This DTO (Data Transfer Object) reports how many accounts were created and how long it took.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountImportResultDto {
+
+    /** The number of accounts created. */
+    private long imported;
+
+    /** The duration of the import in milliseconds. */
+    private long elapsedMillis;
+}
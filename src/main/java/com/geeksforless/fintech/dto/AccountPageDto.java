@@ -0,0 +1,24 @@
+package com.geeksforless.fintech.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents a page of accounts retrieved with keyset pagination.
+ * This DTO (Data Transfer Object) carries the accounts of the page together with the cursor
+ * to request the following page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountPageDto {
+
+    /** The accounts of the page, ordered by ID. */
+    private List<AccountDetailsDto> accounts;
+
+    /** The value of {@code afterId} for the next page, or {@code null} if this is the last page. */
+    private Long nextAfterId;
+}
@@ -0,0 +1,27 @@
+package com.geeksforless.fintech.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the status of a transfer submitted asynchronously.
+ * This DTO (Data Transfer Object) is returned when the transfer is accepted and whenever its status is polled.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AsyncTransferDto {
+
+    /** The ID of the submitted transfer, used to poll its status. */
+    private String id;
+
+    /** The processing state of the transfer. */
+    private AsyncTransferState state;
+
+    /** The outcome of the transfer once it is {@link AsyncTransferState#COMPLETED}, {@code null} before. */
+    private TransferStatus status;
+
+    /** The reason of the failure of a {@link AsyncTransferState#FAILED} transfer, {@code null} otherwise. */
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.geeksforless.fintech.dto;
+
+/**
+ * Processing state of a transfer submitted asynchronously.
+ */
+public enum AsyncTransferState {
+
+    /** The transfer waits in the queue for a free worker. */
+    QUEUED,
+
+    /** A worker is applying the transfer. */
+    RUNNING,
+
+    /** The transfer has been processed, its outcome is available. */
+    COMPLETED,
+
+    /** The transfer failed unexpectedly, it may or may not have been applied. */
+    FAILED
+}
@@ -0,0 +1,22 @@
+package com.geeksforless.fintech.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents the result of a single transfer submitted as part of a batch.
+ * This DTO (Data Transfer Object) pairs the position of the transfer in the submitted batch
+ * with its outcome.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTransferResultDto {
+
+    /** The zero-based position of the transfer in the submitted batch. */
+    private int index;
+
+    /** The outcome of the transfer. */
+    private TransferStatus status;
+}
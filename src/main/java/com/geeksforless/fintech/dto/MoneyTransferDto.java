@@ -1,9 +1,10 @@
 package com.geeksforless.fintech.dto;
 
+import com.geeksforless.fintech.money.Money;
 import lombok.Data;
 
 import javax.validation.constraints.NotNull;
-import java.math.BigDecimal;
+import javax.validation.constraints.Size;
 
 /**
  * Represents the details required for transferring money between accounts.
@@ -28,8 +29,15 @@ public class MoneyTransferDto {
 
     /**
      * The amount to be transferred between accounts.
-     * This field is mandatory for the money transfer operation.
+     * This field is mandatory for the money transfer operation and has at most two decimal places.
      */
     @NotNull
-    private BigDecimal amount;
+    private Money amount;
+
+    /**
+     * The optional key identifying the transfer across client retries.
+     * A transfer is applied at most once per key; the {@code Idempotency-Key} header takes precedence.
+     */
+    @Size(max = 255)
+    private String idempotencyKey;
 }
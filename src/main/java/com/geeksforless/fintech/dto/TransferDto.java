@@ -0,0 +1,38 @@
+package com.geeksforless.fintech.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.geeksforless.fintech.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Represents an applied transfer in the statement of an account.
+ * Statement queries select it directly with a constructor expression, without loading the {@code Transfer} entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferDto {
+
+    /** The unique identifier of the transfer. */
+    private Long id;
+
+    /** The ID of the debited account. */
+    private Long fromAccountId;
+
+    /** The ID of the credited account. */
+    private Long toAccountId;
+
+    /** The transferred amount, debited in the currency of the source account. */
+    private Money amount;
+
+    /** The amount credited in the currency of the destination account, the transferred amount within one currency. */
+    private Money creditedAmount;
+
+    /** When the transfer was applied, as an ISO-8601 instant. */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant createdAt;
+}
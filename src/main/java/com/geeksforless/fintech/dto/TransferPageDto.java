@@ -0,0 +1,24 @@
+package com.geeksforless.fintech.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Represents a page of the statement of an account retrieved with keyset pagination.
+ * This DTO (Data Transfer Object) carries the transfers of the page together with the cursor
+ * to request the following page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferPageDto {
+
+    /** The transfers of the page, newest first. */
+    private List<TransferDto> transfers;
+
+    /** The value of {@code cursor} for the next page, or {@code null} if this is the last page. */
+    private String nextCursor;
+}
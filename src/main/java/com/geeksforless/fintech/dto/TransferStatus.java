@@ -0,0 +1,31 @@
+package com.geeksforless.fintech.dto;
+
+/**
+ * Outcome of a single transfer, e.g. within a batch.
+ */
+public enum TransferStatus {
+
+    /** The transfer was applied. */
+    OK,
+
+    /** The amount of the transfer was not positive, nothing was applied. */
+    INVALID_AMOUNT,
+
+    /** The source or destination account does not exist, nothing was applied. */
+    NOT_FOUND,
+
+    /** The source account did not have enough funds, nothing was applied. */
+    INSUFFICIENT_FUNDS,
+
+    /** The accounts are in different currencies and there is no exchange rate for one of them, nothing was applied. */
+    UNSUPPORTED_CURRENCY,
+
+    /** A transfer with the same idempotency key was already applied, nothing was applied again. */
+    DUPLICATE,
+
+    /** The transfer carried an idempotency key but the account store does not support them, nothing was applied. */
+    UNSUPPORTED_IDEMPOTENCY_KEY,
+
+    /** The accounts could not be locked because of concurrent transfers, nothing was applied and the transfer may be resubmitted. */
+    OVERLOADED
+}
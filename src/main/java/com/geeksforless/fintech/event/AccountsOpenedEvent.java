@@ -0,0 +1,21 @@
+package com.geeksforless.fintech.event;
+
+import com.geeksforless.fintech.money.Money;
+import lombok.Value;
+
+/**
+ * Published when accounts are created in the database, within the transaction that inserts them:
+ * for every account persisted through the repository, and once per chunk of a bulk import.
+ * <p>
+ * Like {@link TransferAppliedEvent}, listeners run synchronously in that transaction.
+ * </p>
+ */
+@Value
+public class AccountsOpenedEvent {
+
+    /** The IDs of the created accounts. */
+    long[] accountIds;
+
+    /** The initial balances of the created accounts in minor units of {@link Money#DEFAULT_SCALE}, in the order of the IDs. */
+    long[] balances;
+}
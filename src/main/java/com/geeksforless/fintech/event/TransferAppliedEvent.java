@@ -0,0 +1,40 @@
+package com.geeksforless.fintech.event;
+
+import com.geeksforless.fintech.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Published by the transfer paths once a transfer has been applied to the balances, within the
+ * transaction that applies it.
+ * <p>
+ * Listeners run synchronously in that transaction, so they can take part in it (e.g. by registering a
+ * transaction synchronization) or react only once it has committed with a transactional event listener.
+ * </p>
+ */
+@Value
+@AllArgsConstructor
+public class TransferAppliedEvent {
+
+    /** The ID of the debited account. */
+    Long fromAccountId;
+
+    /** The ID of the credited account. */
+    Long toAccountId;
+
+    /** The transferred amount, debited from the source account in its currency. */
+    Money amount;
+
+    /** The amount credited to the destination account in its currency, the transferred amount within one currency. */
+    Money creditedAmount;
+
+    /** The idempotency key the client submitted the transfer with, or {@code null}. */
+    String idempotencyKey;
+
+    /**
+     * Creates the event of a transfer between two accounts of the same currency.
+     */
+    public TransferAppliedEvent(Long fromAccountId, Long toAccountId, Money amount, String idempotencyKey) {
+        this(fromAccountId, toAccountId, amount, amount, idempotencyKey);
+    }
+}
@@ -0,0 +1,11 @@
+package com.geeksforless.fintech.exception;
+
+/**
+ * Exception indicating that a transfer with the same idempotency key has already been applied.
+ * The transfer is not applied again and the client is answered as if it succeeded.
+ */
+public class DuplicateTransferException extends RuntimeException {
+    public DuplicateTransferException(String message) {
+        super(message);
+    }
+}
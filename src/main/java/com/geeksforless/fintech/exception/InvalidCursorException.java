@@ -0,0 +1,11 @@
+package com.geeksforless.fintech.exception;
+
+/**
+ * Exception indicating that the pagination cursor sent by the client is malformed,
+ * e.g. because it was not returned by a previous page.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.geeksforless.fintech.exception;
+
+/**
+ * Exception indicating that a row of an account import is malformed, e.g. because its balance is
+ * negative or has too many decimal places. The rows committed before it stay imported.
+ */
+public class InvalidImportException extends RuntimeException {
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.geeksforless.fintech.exception;
+
+/**
+ * Exception indicating that a transfer was shed on admission because the server already has as many
+ * transfers in flight as it can currently handle. The transfer was not attempted; the client should
+ * retry it after {@link #getRetryAfterSeconds()}.
+ */
+public class TransferRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TransferRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Returns the number of seconds the client should wait before retrying.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
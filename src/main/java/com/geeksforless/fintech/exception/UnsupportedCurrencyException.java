@@ -0,0 +1,11 @@
+package com.geeksforless.fintech.exception;
+
+/**
+ * Exception indicating that a transfer between two currencies cannot be converted,
+ * because the current exchange rates do not quote one of them.
+ */
+public class UnsupportedCurrencyException extends RuntimeException {
+    public UnsupportedCurrencyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.geeksforless.fintech.exception;
+
+/**
+ * Exception indicating that a transfer carries an idempotency key the account store cannot honour,
+ * so the transfer is refused rather than applied without the at-most-once guarantee.
+ */
+public class UnsupportedIdempotencyKeyException extends RuntimeException {
+    public UnsupportedIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,22 @@
 package com.geeksforless.fintech.exception.handler;
 
 import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidCursorException;
+import com.geeksforless.fintech.exception.InvalidImportException;
 import com.geeksforless.fintech.exception.InvalidTransferAmountException;
 import com.geeksforless.fintech.exception.NotFoundException;
 import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.exception.TransferRejectedException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.exception.UnsupportedIdempotencyKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import javax.validation.ConstraintViolationException;
+
 /**
  * A centralized exception handler that captures exceptions thrown across various controllers and
  * provides meaningful HTTP responses to the client.
@@ -54,15 +62,84 @@ public class GlobalExceptionHandler {
     }
 
     /**
-     * Handles the {@link ServerIsOverloadedException} by returning a 500  HTTP status.
+     * Handles the {@link UnsupportedCurrencyException} by returning a 400 Bad Request HTTP status.
+     *
+     * @param ex The caught {@link UnsupportedCurrencyException}.
+     * @return A {@link ResponseEntity} with the exception message and a 400 Bad Request HTTP status.
+     */
+    @ExceptionHandler(UnsupportedCurrencyException.class)
+    public ResponseEntity<String> handleUnsupportedCurrencyException(UnsupportedCurrencyException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles the {@link UnsupportedIdempotencyKeyException} by returning a 400 Bad Request HTTP status.
+     *
+     * @param ex The caught {@link UnsupportedIdempotencyKeyException}.
+     * @return A {@link ResponseEntity} with the exception message and a 400 Bad Request HTTP status.
+     */
+    @ExceptionHandler(UnsupportedIdempotencyKeyException.class)
+    public ResponseEntity<String> handleUnsupportedIdempotencyKeyException(UnsupportedIdempotencyKeyException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles the {@link InvalidCursorException} by returning a 400 Bad Request HTTP status.
+     *
+     * @param ex The caught {@link InvalidCursorException}.
+     * @return A {@link ResponseEntity} with the exception message and a 400 Bad Request HTTP status.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursorException(InvalidCursorException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles the {@link InvalidImportException} by returning a 400 Bad Request HTTP status.
+     *
+     * @param ex The caught {@link InvalidImportException}.
+     * @return A {@link ResponseEntity} with the exception message and a 400 Bad Request HTTP status.
+     */
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<String> handleInvalidImportException(InvalidImportException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles the {@link ConstraintViolationException} raised by method-level validation, e.g. of the
+     * elements of a batch, by returning a 400 Bad Request HTTP status.
+     *
+     * @param ex The caught {@link ConstraintViolationException}.
+     * @return A {@link ResponseEntity} with the exception message and a 400 Bad Request HTTP status.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<String> handleConstraintViolationException(ConstraintViolationException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles the {@link ServerIsOverloadedException} by returning a 429 Too Many Requests HTTP status,
+     * telling the client to try again later.
      *
      * @param ex The caught {@link ServerIsOverloadedException}.
-     * @return A {@link ResponseEntity} with the exception message and a 500 HTTP status.
+     * @return A {@link ResponseEntity} with the exception message and a 429 Too Many Requests HTTP status.
      */
     @ExceptionHandler(ServerIsOverloadedException.class) // Corrected the exception type here.
     public ResponseEntity<String> handleServerIsOverloadedException(ServerIsOverloadedException ex) {
-        return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
     }
-}
-
 
+    /**
+     * Handles the {@link TransferRejectedException} by returning a 503 Service Unavailable HTTP status
+     * with a {@code Retry-After} header, telling the client when to try again.
+     *
+     * @param ex The caught {@link TransferRejectedException}.
+     * @return A {@link ResponseEntity} with the exception message and a 503 Service Unavailable HTTP status.
+     */
+    @ExceptionHandler(TransferRejectedException.class)
+    public ResponseEntity<String> handleTransferRejectedException(TransferRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+}
@@ -0,0 +1,142 @@
+package com.geeksforless.fintech.fx;
+
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.money.Money;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Serves the exchange rates of cross-currency transfers from a rate table in {@code fx.rates}.
+ * <p>
+ * The table is a properties file with the rate of every currency against a common base, e.g. {@code EUR=0.92}
+ * with {@code USD=1}. It is loaded into an immutable {@link FxRates} snapshot held in a volatile field, so a
+ * transfer converts with a single read of the field, without a lock or a database query. Every
+ * {@code fx.refreshMillis} the table is reloaded if it was modified: the new snapshot is built aside and swapped
+ * in with one write, so transfers never wait for a refresh and each of them converts with one consistent set
+ * of rates. A table that cannot be read or parsed is skipped and the previous rates stay in use.
+ * </p>
+ * <p>
+ * The age of the rates in use is published as the {@code fx.rates.age} gauge.
+ * </p>
+ */
+@Slf4j
+@Component
+public class FxRateProvider {
+
+    private final Resource resource;
+    private final Clock clock;
+    private volatile FxRates rates = FxRates.EMPTY;
+    private long lastModified;
+
+    public FxRateProvider(ResourceLoader resourceLoader,
+                          Clock clock,
+                          MeterRegistry meterRegistry,
+                          @Value("${fx.rates}") String location) {
+        this.resource = resourceLoader.getResource(location);
+        this.clock = clock;
+        try {
+            if (!reload()) {
+                log.warn("No exchange rates at {}, only transfers within one currency are possible", location);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the exchange rates from " + location, e);
+        }
+        Gauge.builder("fx.rates.age", this, provider ->
+                        Duration.between(provider.rates.getLoadedAt(), clock.instant()).toMillis() / 1000.0)
+                .description("Time since the exchange rates in use were loaded")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the current snapshot of the rates.
+     */
+    public FxRates current() {
+        return rates;
+    }
+
+    /**
+     * Converts the amount of a transfer into the currency of the credited account with the current rates.
+     *
+     * @param amount       The amount debited from the source account, in its currency.
+     * @param fromCurrency The currency of the source account.
+     * @param toCurrency   The currency of the destination account.
+     * @return The amount to credit, the amount itself if the currencies are the same.
+     * @throws UnsupportedCurrencyException   If the currencies differ and one of them has no rate.
+     * @throws InvalidTransferAmountException If the converted amount rounds to zero or does not fit the range.
+     */
+    public Money convert(Money amount, String fromCurrency, String toCurrency) {
+        Money converted;
+        try {
+            converted = rates.convert(amount, fromCurrency, toCurrency);
+        } catch (ArithmeticException e) {
+            throw new InvalidTransferAmountException("Converted amount of the transfer does not fit the range.");
+        }
+        if (!converted.isPositive()) {
+            throw new InvalidTransferAmountException("Amount of the transfer is too small to convert to " + toCurrency + ".");
+        }
+        return converted;
+    }
+
+    /**
+     * Reloads the rate table if it was modified since it was last loaded.
+     */
+    @Scheduled(fixedDelayString = "${fx.refreshMillis}", initialDelayString = "${fx.refreshMillis}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not refresh the exchange rates from {}, keeping the rates loaded at {}",
+                    resource, rates.getLoadedAt(), e);
+        }
+    }
+
+    /**
+     * Loads the rate table into a new snapshot and swaps it in, unless it is missing or was not modified.
+     *
+     * @return whether new rates were swapped in.
+     */
+    synchronized boolean reload() throws IOException {
+        if (!resource.exists()) {
+            return false;
+        }
+        long modified = resource.lastModified();
+        if (modified == lastModified && rates != FxRates.EMPTY) {
+            return false;
+        }
+        Properties table = new Properties();
+        try (InputStream input = resource.getInputStream()) {
+            table.load(input);
+        }
+        Map<String, BigDecimal> loaded = new HashMap<>();
+        for (String currency : table.stringPropertyNames()) {
+            String rate = table.getProperty(currency).strip();
+            try {
+                loaded.put(currency.strip(), new BigDecimal(rate));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed rate of " + currency + ": " + rate);
+            }
+        }
+        rates = new FxRates(loaded, clock.instant());
+        lastModified = modified;
+        log.info("Loaded the exchange rates of {} currencies from {}", loaded.size(), resource);
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package com.geeksforless.fintech.fx;
+
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.money.Money;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of exchange rates.
+ * <p>
+ * Every currency is quoted against a common base currency: the rate is the number of units of the currency
+ * that one unit of the base buys, so the base itself has the rate {@code 1}. The cross rates of all the pairs
+ * are computed once, when the snapshot is built, and rounded to {@value #RATE_PRECISION} significant digits.
+ * A conversion is then two hash lookups and, as long as the amount times the rate fits a {@code long}, integer
+ * arithmetic on minor units only, so like {@link Money} it allocates nothing but the result. Larger amounts
+ * fall back to {@link BigDecimal}. The converted amount keeps the scale of the amount and is rounded half-even.
+ * </p>
+ */
+public final class FxRates {
+
+    /**
+     * The number of significant digits of a cross rate. Nine digits keep the rate below {@code 10^9}, so amounts
+     * of up to about {@code 9 * 10^9} minor units are converted without overflowing a {@code long}.
+     */
+    public static final int RATE_PRECISION = 9;
+
+    /**
+     * Rates quoting no currency, e.g. before a rate table has been loaded. Only amounts within one currency convert.
+     */
+    public static final FxRates EMPTY = new FxRates(Map.of(), Instant.EPOCH);
+
+    private static final MathContext RATE_CONTEXT = new MathContext(RATE_PRECISION, RoundingMode.HALF_EVEN);
+    private static final int MAX_RATE_SCALE = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_RATE_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_RATE_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final Map<String, BigDecimal> rates;
+    private final Map<String, Integer> indexes;
+    private final int size;
+    private final BigDecimal[] crossRates;
+    private final long[] unscaledCrossRates;
+    private final int[] crossRateScales;
+    private final Instant loadedAt;
+
+    /**
+     * Builds a snapshot of the given rates.
+     *
+     * @param rates    The rate of every currency against the base, by ISO 4217 code.
+     * @param loadedAt When the rates were loaded.
+     * @throws IllegalArgumentException If a code is not an ISO 4217 currency or a rate is not positive.
+     */
+    public FxRates(Map<String, BigDecimal> rates, Instant loadedAt) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (Map.Entry<String, BigDecimal> rate : rates.entrySet()) {
+            Currency.getInstance(rate.getKey());
+            if (rate.getValue().signum() <= 0) {
+                throw new IllegalArgumentException("The rate of " + rate.getKey() + " must be positive: " + rate.getValue());
+            }
+            indexes.put(rate.getKey(), indexes.size());
+        }
+        this.rates = Map.copyOf(rates);
+        this.indexes = Map.copyOf(indexes);
+        this.size = indexes.size();
+        this.crossRates = new BigDecimal[size * size];
+        this.unscaledCrossRates = new long[size * size];
+        this.crossRateScales = new int[size * size];
+        indexes.forEach((from, fromIndex) -> indexes.forEach((to, toIndex) -> {
+            int pair = fromIndex * size + toIndex;
+            BigDecimal crossRate = rates.get(to).divide(rates.get(from), RATE_CONTEXT).stripTrailingZeros();
+            if (crossRate.scale() < 0) {
+                crossRate = crossRate.setScale(0);
+            }
+            crossRates[pair] = crossRate;
+            // A rate too small for the integer path is marked with a negative scale and always converts with BigDecimal.
+            crossRateScales[pair] = crossRate.scale() <= MAX_RATE_SCALE ? crossRate.scale() : -1;
+            unscaledCrossRates[pair] = crossRate.unscaledValue().longValue();
+        }));
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Converts an amount from one currency to another.
+     *
+     * @param amount       The amount in the {@code fromCurrency}.
+     * @param fromCurrency The ISO 4217 code of the currency of the amount.
+     * @param toCurrency   The ISO 4217 code of the currency to convert to.
+     * @return The amount in the {@code toCurrency}, with the scale of the given amount. The amount itself if the
+     * currencies are the same.
+     * @throws UnsupportedCurrencyException If the currencies differ and one of them is not quoted.
+     * @throws ArithmeticException          If the converted amount does not fit the range.
+     */
+    public Money convert(Money amount, String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return amount;
+        }
+        int pair = indexOf(fromCurrency) * size + indexOf(toCurrency);
+        int rateScale = crossRateScales[pair];
+        if (rateScale >= 0) {
+            long minorUnits = amount.minorUnits();
+            long unscaledRate = unscaledCrossRates[pair];
+            long product = minorUnits * unscaledRate;
+            // The product fits a long if the high half of the 128-bit product is its sign extension.
+            if (Math.multiplyHigh(minorUnits, unscaledRate) == product >> 63) {
+                return new Money(divideHalfEven(product, POWERS_OF_TEN[rateScale]), amount.scale());
+            }
+        }
+        return new Money(amount.toBigDecimal()
+                .multiply(crossRates[pair])
+                .setScale(amount.scale(), RoundingMode.HALF_EVEN)
+                .unscaledValue()
+                .longValueExact(), amount.scale());
+    }
+
+    /**
+     * Returns the rate of a currency against the base, or {@code null} if it is not quoted.
+     */
+    public BigDecimal getRate(String currency) {
+        return rates.get(currency);
+    }
+
+    /**
+     * Returns the ISO 4217 codes of the quoted currencies.
+     */
+    public Set<String> getCurrencies() {
+        return rates.keySet();
+    }
+
+    /**
+     * Returns when the rates were loaded.
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    private int indexOf(String currency) {
+        Integer index = indexes.get(currency);
+        if (index == null) {
+            throw new UnsupportedCurrencyException("No exchange rate for " + currency);
+        }
+        return index;
+    }
+
+    private static long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        // The remainder is below the divisor, at most 10^18, so doubling it cannot overflow.
+        int half = Long.compare(remainder * 2, divisor);
+        if (half > 0 || half == 0 && (quotient & 1) != 0) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
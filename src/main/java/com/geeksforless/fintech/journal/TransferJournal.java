@@ -0,0 +1,544 @@
+package com.geeksforless.fintech.journal;
+
+import com.geeksforless.fintech.util.LongLongHashMap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal of transfers backed by memory-mapped segment files.
+ * <p>
+ * Every transfer is one fixed-size record (sequence, timestamp, from, to, amount in minor units) copied
+ * into the current segment under a short lock. A background flusher forces the segment to disk and
+ * publishes the highest durable sequence, so all transfers appended while a force is running are made
+ * durable by the next one (group commit). Appenders wait for their own sequence with
+ * {@link #awaitDurable(long)}. A transfer whose transaction rolls back is cancelled by an abort record.
+ * A cross-currency transfer, whose credited amount differs from the debited one, is followed by a credit
+ * record carrying the credited amount, written under the same lock so it is durable with the transfer.
+ * An account created after the journal was started is recorded by an opening record with its initial balance,
+ * in flight and aborted like a transfer, so its balance is replayed from that balance rather than from zero.
+ * </p>
+ * <p>
+ * Full segments are folded into a balance snapshot in the background, after which they are deleted.
+ * {@link #recover()} rebuilds the balances from the latest snapshot and the records that follow it.
+ * Every record carries a CRC32C checksum; reading a segment stops at the first empty or torn record.
+ * </p>
+ */
+public final class TransferJournal implements Closeable {
+
+    /**
+     * sequence (8) + timestamp (8) + from or opened account ID, or sequence of the aborted or credited record (8)
+     * + to account ID (8) + amount or opening balance (8) + type (4) + CRC32C of the preceding bytes (4).
+     */
+    public static final int RECORD_SIZE = 48;
+
+    private static final int CHECKSUMMED_SIZE = RECORD_SIZE - Integer.BYTES;
+    private static final int TRANSFER = 1;
+    private static final int ABORT = 2;
+    private static final int CREDIT = 3;
+    private static final int OPEN = 4;
+
+    private static final String SEGMENT_PREFIX = "transfers-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final long FLUSHER_IDLE_NANOS = 200_000;
+
+    private final Path dir;
+    private final int segmentRecords;
+    private final boolean fsync;
+
+    private final Object lock = new Object();
+    private final byte[] scratch = new byte[RECORD_SIZE];
+    private final ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
+    private final CRC32C checksum = new CRC32C();
+    private MappedByteBuffer segment;
+    private long segmentFirstSequence;
+    private int segmentPosition;
+    private volatile long lastSequence;
+
+    private final Object durableMonitor = new Object();
+    private volatile long durableSequence;
+
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private final Thread flusher;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "transfer-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    private TransferJournal(Path dir, int segmentRecords, boolean fsync) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.segmentRecords = segmentRecords;
+        this.fsync = fsync;
+
+        long snapshotSequence = latestSnapshot().map(Snapshot::sequence).orElse(0L);
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            lastSequence = snapshotSequence;
+            mapSegment(snapshotSequence + 1);
+        } else {
+            Path current = segments.get(segments.size() - 1);
+            long[] end = {firstSequenceOf(current) - 1, 0};
+            forEachRecord(current, (sequence, timestamp, first, second, amount, type) -> {
+                end[0] = sequence;
+                end[1]++;
+            });
+            lastSequence = Math.max(end[0], snapshotSequence);
+            mapSegment(firstSequenceOf(current));
+            segmentPosition = (int) end[1] * RECORD_SIZE;
+        }
+        durableSequence = lastSequence;
+
+        flusher = new Thread(this::flush, "transfer-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Opens the journal in the given directory, continuing after its last complete record.
+     *
+     * @param dir            the directory of the segment and snapshot files, created if missing.
+     * @param segmentRecords the number of records per segment file.
+     * @param fsync          whether records are forced to disk before they are reported durable.
+     */
+    public static TransferJournal open(Path dir, int segmentRecords, boolean fsync) throws IOException {
+        if (segmentRecords <= 0 || segmentRecords > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("The number of records per segment must be in (0, "
+                    + Integer.MAX_VALUE / RECORD_SIZE + "]");
+        }
+        return new TransferJournal(dir, segmentRecords, fsync);
+    }
+
+    /**
+     * Appends a transfer. It stays in flight until {@link #complete(long, boolean)} is called.
+     *
+     * @return the sequence of the record, to be passed to {@link #awaitDurable(long)}.
+     */
+    public long append(long fromAccountId, long toAccountId, long amount) {
+        return append(fromAccountId, toAccountId, amount, amount);
+    }
+
+    /**
+     * Appends a transfer whose credited amount may differ from the debited amount, e.g. a cross-currency transfer.
+     *
+     * @see #append(long, long, long)
+     */
+    public long append(long fromAccountId, long toAccountId, long amount, long creditedAmount) {
+        return write(TRANSFER, fromAccountId, toAccountId, amount, creditedAmount);
+    }
+
+    /**
+     * Appends the opening of an account with its initial balance. Replaying it sets the balance of the account,
+     * whatever it was before. It stays in flight until {@link #complete(long, boolean)} is called.
+     *
+     * @return the sequence of the record, to be passed to {@link #awaitDurable(long)}.
+     */
+    public long appendOpening(long accountId, long balance) {
+        return write(OPEN, accountId, 0, balance);
+    }
+
+    /**
+     * Completes an appended transfer or opening; one that was not committed is cancelled by an abort record.
+     */
+    public void complete(long sequence, boolean committed) {
+        try {
+            if (!committed) {
+                write(ABORT, sequence, 0, 0);
+            }
+        } finally {
+            inFlight.remove(sequence);
+        }
+    }
+
+    /**
+     * Blocks until the record with the given sequence, and all the records before it, are durable.
+     */
+    public void awaitDurable(long sequence) {
+        if (!fsync || durableSequence >= sequence) {
+            return;
+        }
+        synchronized (durableMonitor) {
+            boolean interrupted = false;
+            while (durableSequence < sequence) {
+                try {
+                    durableMonitor.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes the initial balance snapshot of a journal that has no records yet.
+     */
+    public void writeInitialSnapshot(LongLongHashMap balances) throws IOException {
+        synchronized (lock) {
+            if (lastSequence != 0) {
+                throw new IllegalStateException("The journal already has records");
+            }
+        }
+        writeSnapshot(new Snapshot(0, balances));
+    }
+
+    /**
+     * Folds the records of the full segments into a new snapshot and deletes those segments.
+     * Records of transfers still in flight, and everything after them, are left for a later snapshot.
+     *
+     * @return the sequence covered by the latest snapshot.
+     */
+    public synchronized long snapshot() throws IOException {
+        long bound;
+        synchronized (lock) {
+            bound = segmentFirstSequence - 1;
+        }
+        Long oldestInFlight = inFlight.isEmpty() ? null : inFlight.first();
+        if (oldestInFlight != null) {
+            bound = Math.min(bound, oldestInFlight - 1);
+        }
+
+        Snapshot base = latestSnapshot().orElse(new Snapshot(0, new LongLongHashMap(1024)));
+        if (bound <= base.sequence()) {
+            return base.sequence();
+        }
+        writeSnapshot(new Snapshot(bound, replay(base, bound).balances()));
+
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequenceOf(segments.get(i + 1)) - 1 <= bound) {
+                Files.delete(segments.get(i));
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Rebuilds the balances from the latest snapshot and all the records written after it.
+     * Records of transfers that were not aborted are applied, including those whose transaction
+     * outcome was unknown when the journal was closed, as the journal is written ahead of the database.
+     */
+    public synchronized Recovery recover() throws IOException {
+        Snapshot base = latestSnapshot().orElse(null);
+        if (base == null && lastSequence == 0) {
+            return new Recovery(false, 0, 0, new LongLongHashMap(16));
+        }
+        Snapshot start = base != null ? base : new Snapshot(0, new LongLongHashMap(1024));
+        Recovery recovery = replay(start, Long.MAX_VALUE);
+        return new Recovery(true, start.sequence(), recovery.replayedRecords(), recovery.balances());
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdownNow();
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            segment.force();
+        }
+    }
+
+    private long write(int type, long first, long second, long amount) {
+        return write(type, first, second, amount, amount);
+    }
+
+    /**
+     * Writes a record, followed by a credit record if the credited amount differs. Both are written under the
+     * lock, so the flusher never publishes a durable sequence between them.
+     */
+    private long write(int type, long first, long second, long amount, long creditedAmount) {
+        long sequence;
+        synchronized (lock) {
+            sequence = put(type, first, second, amount);
+            if (creditedAmount != amount) {
+                put(CREDIT, sequence, second, creditedAmount);
+            }
+            if (type == TRANSFER || type == OPEN) {
+                // Tracked under the lock so that a concurrent snapshot cannot fold it before it completes.
+                inFlight.add(sequence);
+            }
+        }
+        LockSupport.unpark(flusher);
+        return sequence;
+    }
+
+    /**
+     * Copies a record into the current segment, rolling it first if it is full. The caller holds the lock.
+     */
+    private long put(int type, long first, long second, long amount) {
+        if (segmentPosition == segmentRecords * RECORD_SIZE) {
+            rollSegment();
+        }
+        long sequence = lastSequence + 1;
+        scratchBuffer.clear();
+        scratchBuffer.putLong(sequence)
+                .putLong(System.currentTimeMillis())
+                .putLong(first)
+                .putLong(second)
+                .putLong(amount)
+                .putInt(type);
+        checksum.reset();
+        checksum.update(scratch, 0, CHECKSUMMED_SIZE);
+        scratchBuffer.putInt((int) checksum.getValue());
+        segment.put(segmentPosition, scratch, 0, RECORD_SIZE);
+        segmentPosition += RECORD_SIZE;
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    private void rollSegment() {
+        if (fsync) {
+            segment.force();
+        }
+        try {
+            mapSegment(lastSequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        compactor.execute(this::compactQuietly);
+    }
+
+    private void compactQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            // The segments are kept and folded by the next snapshot.
+        }
+    }
+
+    private void mapSegment(long firstSequence) throws IOException {
+        Path file = dir.resolve(SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE);
+        }
+        segmentFirstSequence = firstSequence;
+        segmentPosition = 0;
+    }
+
+    /**
+     * Forces the current segment whenever records were appended since the last force and
+     * wakes up the appenders waiting for them.
+     */
+    private void flush() {
+        MappedByteBuffer forcedSegment = null;
+        int forcedPosition = 0;
+        while (running || durableSequence < lastSequence) {
+            long target;
+            MappedByteBuffer current;
+            int position;
+            synchronized (lock) {
+                target = lastSequence;
+                current = segment;
+                position = segmentPosition;
+            }
+            if (target > durableSequence) {
+                if (current != forcedSegment) {
+                    // The previous segment was forced when it was rolled.
+                    forcedSegment = current;
+                    forcedPosition = 0;
+                }
+                if (fsync && position > forcedPosition) {
+                    current.force(forcedPosition, position - forcedPosition);
+                }
+                forcedPosition = position;
+                synchronized (durableMonitor) {
+                    durableSequence = target;
+                    durableMonitor.notifyAll();
+                }
+            } else {
+                LockSupport.parkNanos(this, FLUSHER_IDLE_NANOS);
+            }
+        }
+    }
+
+    private Recovery replay(Snapshot base, long bound) throws IOException {
+        List<Path> segments = segments();
+        Set<Long> aborted = new HashSet<>();
+        LongLongHashMap credits = new LongLongHashMap(16);
+        for (Path segmentFile : segments) {
+            forEachRecord(segmentFile, (sequence, timestamp, first, second, amount, type) -> {
+                if (type == ABORT) {
+                    aborted.add(first);
+                } else if (type == CREDIT) {
+                    credits.put(first, amount);
+                }
+            });
+        }
+
+        LongLongHashMap balances = base.balances();
+        long[] replayed = {0};
+        for (Path segmentFile : segments) {
+            forEachRecord(segmentFile, (sequence, timestamp, first, second, amount, type) -> {
+                if (sequence <= base.sequence() || sequence > bound || aborted.contains(sequence)) {
+                    return;
+                }
+                if (type == TRANSFER) {
+                    balances.put(first, balances.get(first, 0) - amount);
+                    balances.put(second, balances.get(second, 0) + credits.get(sequence, amount));
+                    replayed[0]++;
+                } else if (type == OPEN) {
+                    balances.put(first, amount);
+                }
+            });
+        }
+        return new Recovery(true, base.sequence(), replayed[0], balances);
+    }
+
+    private List<Path> segments() throws IOException {
+        return list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSequenceOf(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Reads the complete, intact records of a segment in order, stopping at the first empty or torn one.
+     */
+    private static void forEachRecord(Path segmentFile, RecordVisitor visitor) throws IOException {
+        CRC32C recordChecksum = new CRC32C();
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer recordBuffer = ByteBuffer.wrap(record);
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 4096);
+            long previous = 0;
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    buffer.get(record);
+                    recordBuffer.clear();
+                    long sequence = recordBuffer.getLong();
+                    recordChecksum.reset();
+                    recordChecksum.update(record, 0, CHECKSUMMED_SIZE);
+                    if (sequence <= previous || recordBuffer.getInt(CHECKSUMMED_SIZE) != (int) recordChecksum.getValue()) {
+                        return;
+                    }
+                    visitor.visit(sequence, recordBuffer.getLong(), recordBuffer.getLong(), recordBuffer.getLong(),
+                            recordBuffer.getLong(), recordBuffer.getInt());
+                    previous = sequence;
+                }
+                buffer.compact();
+            }
+        }
+    }
+
+    private Optional<Snapshot> latestSnapshot() throws IOException {
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (snapshots.isEmpty()) {
+            return Optional.empty();
+        }
+        Path file = snapshots.get(snapshots.size() - 1);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // reads the whole snapshot
+            }
+            buffer.flip();
+            long sequence = buffer.getLong();
+            int count = buffer.getInt();
+            LongLongHashMap balances = new LongLongHashMap(count);
+            for (int i = 0; i < count; i++) {
+                balances.put(buffer.getLong(), buffer.getLong());
+            }
+            return Optional.of(new Snapshot(sequence, balances));
+        }
+    }
+
+    /**
+     * Writes the snapshot to a temporary file, forces it and atomically renames it into place,
+     * then deletes the older snapshots.
+     */
+    private void writeSnapshot(Snapshot snapshot) throws IOException {
+        LongLongHashMap balances = snapshot.balances();
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + balances.size() * 2 * Long.BYTES);
+        buffer.putLong(snapshot.sequence()).putInt(balances.size());
+        balances.forEach((accountId, balance) -> buffer.putLong(accountId).putLong(balance));
+        buffer.flip();
+
+        String name = SNAPSHOT_PREFIX + String.format("%020d", snapshot.sequence()) + SNAPSHOT_SUFFIX;
+        Path temporary = dir.resolve(name + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Path file = Files.move(temporary, dir.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+
+        for (Path older : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (!older.equals(file)) {
+                Files.delete(older);
+            }
+        }
+    }
+
+    /**
+     * The balances as of a journal sequence.
+     */
+    private record Snapshot(long sequence, LongLongHashMap balances) {
+    }
+
+    /**
+     * Outcome of {@link #recover()}.
+     *
+     * @param present          whether the journal had a snapshot or records to recover from.
+     * @param snapshotSequence the sequence covered by the snapshot the recovery started from.
+     * @param replayedRecords  the number of transfer records applied on top of the snapshot.
+     * @param balances         the recovered balances in minor units, by account ID.
+     */
+    public record Recovery(boolean present, long snapshotSequence, long replayedRecords, LongLongHashMap balances) {
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(long sequence, long timestamp, long first, long second, long amount, int type) throws IOException;
+    }
+}
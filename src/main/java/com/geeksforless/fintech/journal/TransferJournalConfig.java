@@ -0,0 +1,24 @@
+package com.geeksforless.fintech.journal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Opens the {@link TransferJournal} of the database-backed store ({@code journal.enabled=true}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class TransferJournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public TransferJournal transferJournal(@Value("${journal.dir}") String dir,
+                                           @Value("${journal.segmentRecords}") int segmentRecords,
+                                           @Value("${journal.fsync}") boolean fsync) throws IOException {
+        return TransferJournal.open(Path.of(dir), segmentRecords, fsync);
+    }
+}
@@ -0,0 +1,104 @@
+package com.geeksforless.fintech.journal;
+
+import com.geeksforless.fintech.event.AccountsOpenedEvent;
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writes every applied transfer, and the opening balance of every account created, ahead to the {@link TransferJournal}.
+ * <p>
+ * The records are appended while the transaction is still open and the commit waits until they are
+ * durable, so a committed transfer or account is always in the journal. If the transaction rolls back
+ * instead, the records are cancelled with abort records.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class TransferJournalListener {
+
+    private final TransferJournal journal;
+    private final int scale;
+
+    public TransferJournalListener(TransferJournal journal, @Value("${journal.scale}") int scale) {
+        this.journal = journal;
+        this.scale = scale;
+    }
+
+    @EventListener
+    public void onTransferApplied(TransferAppliedEvent event) {
+        completeWithTransaction(journal.append(event.getFromAccountId(), event.getToAccountId(),
+                toMinorUnits(event.getAmount(), scale), toMinorUnits(event.getCreditedAmount(), scale)));
+    }
+
+    @EventListener
+    public void onAccountsOpened(AccountsOpenedEvent event) {
+        long[] accountIds = event.getAccountIds();
+        // Converted before appending, so a balance the journal cannot hold leaves no record in flight.
+        long[] balances = new long[accountIds.length];
+        for (int i = 0; i < accountIds.length; i++) {
+            balances[i] = toMinorUnits(new Money(event.getBalances()[i], Money.DEFAULT_SCALE), scale);
+        }
+        long[] sequences = new long[accountIds.length];
+        for (int i = 0; i < accountIds.length; i++) {
+            sequences[i] = journal.appendOpening(accountIds[i], balances[i]);
+        }
+        completeWithTransaction(sequences);
+    }
+
+    /**
+     * Makes the commit of the current transaction wait until the records are durable and completes them
+     * with its outcome, or completes them right away when there is no transaction.
+     *
+     * @param sequences the sequences of the appended records, in ascending order.
+     */
+    private void completeWithTransaction(long... sequences) {
+        if (sequences.length == 0) {
+            return;
+        }
+        long last = sequences[sequences.length - 1];
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journal.awaitDurable(last);
+            complete(sequences, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                journal.awaitDurable(last);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                complete(sequences, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void complete(long[] sequences, boolean committed) {
+        for (long sequence : sequences) {
+            journal.complete(sequence, committed);
+        }
+    }
+
+    /**
+     * Converts an amount into journal minor units.
+     *
+     * @throws InvalidTransferAmountException if the amount has more decimal places than the journal keeps
+     *                                        or does not fit the journal range.
+     */
+    static long toMinorUnits(Money amount, int scale) {
+        try {
+            return amount.toMinorUnits(scale);
+        } catch (ArithmeticException e) {
+            throw new InvalidTransferAmountException(
+                    "Amount must have at most " + scale + " decimal places and fit the journal range.");
+        }
+    }
+}
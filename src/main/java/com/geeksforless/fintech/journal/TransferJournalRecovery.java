@@ -0,0 +1,135 @@
+package com.geeksforless.fintech.journal;
+
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import com.geeksforless.fintech.util.LongLongHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Rebuilds the account balances from the {@link TransferJournal} on startup.
+ * <p>
+ * A journal without records starts from a snapshot of the balances currently in the database.
+ * Otherwise the balances are replayed from the latest journal snapshot and written over the balances of
+ * the accounts in the database; accounts the database no longer has are skipped. Accounts created after
+ * the first start are replayed from their opening records, so every account the journal knows has a base.
+ * </p>
+ * <p>
+ * The database is read through a cursor and written in JDBC batches of {@value #CHUNK_SIZE} accounts, each
+ * in its own transaction, so neither holds the accounts as entities. A recovery interrupted half-way is
+ * simply redone on the next start, as it overwrites the balances rather than adding to them.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class TransferJournalRecovery implements SmartInitializingSingleton {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final String SELECT_BALANCES = "select id, balance from account";
+    private static final String UPDATE_BALANCE = "update account set balance = ?, version = version + 1 where id = ?";
+
+    private final TransferJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int scale;
+
+    public TransferJournalRecovery(TransferJournal journal,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${journal.scale}") int scale) {
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scale = scale;
+    }
+
+    /**
+     * Runs once all singletons, including the test data configuration, are initialized.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            long start = System.nanoTime();
+            TransferJournal.Recovery recovery = journal.recover();
+            if (!recovery.present()) {
+                journal.writeInitialSnapshot(snapshotOfDatabase());
+                return;
+            }
+            long restored = restore(recovery.balances());
+            log.info("Recovered {} balances from the transfer journal snapshot {} and {} transfers in {} ms", restored,
+                    recovery.snapshotSequence(), recovery.replayedRecords(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover the transfer journal", e);
+        }
+    }
+
+    private LongLongHashMap snapshotOfDatabase() {
+        LongLongHashMap balances = new LongLongHashMap(1024);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_BALANCES);
+            statement.setFetchSize(AccountRepository.STREAM_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) row -> balances.put(row.getLong(1),
+                TransferJournalListener.toMinorUnits(Money.ofMinorUnits(row.getLong(2)), scale))));
+        return balances;
+    }
+
+    /**
+     * Writes the recovered balances over the database balances, chunk by chunk.
+     *
+     * @return the number of accounts updated.
+     */
+    private long restore(LongLongHashMap balances) {
+        long[] ids = new long[CHUNK_SIZE];
+        long[] minorUnits = new long[CHUNK_SIZE];
+        int[] size = {0};
+        long[] restored = {0};
+        balances.forEach((accountId, balance) -> {
+            ids[size[0]] = accountId;
+            minorUnits[size[0]++] = new Money(balance, scale).toMinorUnits(Money.DEFAULT_SCALE);
+            if (size[0] == CHUNK_SIZE) {
+                restored[0] += update(ids, minorUnits, size[0]);
+                size[0] = 0;
+            }
+        });
+        return restored[0] + update(ids, minorUnits, size[0]);
+    }
+
+    private int update(long[] ids, long[] minorUnits, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_BALANCE,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        statement.setLong(1, minorUnits[i]);
+                        statement.setLong(2, ids[i]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return count;
+                    }
+                }));
+        int updated = 0;
+        for (int rows : counts) {
+            updated += rows > 0 ? 1 : 0;
+        }
+        return updated;
+    }
+}
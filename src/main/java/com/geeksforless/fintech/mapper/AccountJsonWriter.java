@@ -0,0 +1,100 @@
+package com.geeksforless.fintech.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes the details of accounts as JSON straight from the {@link Account} entities.
+ * <p>
+ * The output is the same as serializing {@link AccountDetailsDto}s, but no DTO is created per account and
+ * nothing goes through Jackson's reflective serializers: the field names are pre-encoded and the balance is
+ * formatted into a buffer reused for the whole response. The accounts are supplied as a source that feeds
+ * them one at a time, such as {@code AccountService::forEachAccount}, so a listing is never held in memory
+ * as a whole.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountJsonWriter {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString BALANCE = new SerializedString("balance");
+    private static final SerializableString CURRENCY = new SerializedString("currency");
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes the accounts as a JSON array.
+     *
+     * @param outputStream The stream to write to. It is flushed but not closed.
+     * @param accounts     The source feeding the accounts to write, in order.
+     * @throws IOException If writing to the stream fails.
+     */
+    public void writeArray(OutputStream outputStream, Consumer<Consumer<Account>> accounts) throws IOException {
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            generator.writeStartArray();
+            writeAll(generator, accounts);
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes the accounts as newline-delimited JSON, one object per line.
+     *
+     * @param outputStream The stream to write to. It is flushed but not closed.
+     * @param accounts     The source feeding the accounts to write, in order.
+     * @throws IOException If writing to the stream fails.
+     */
+    public void writeLines(OutputStream outputStream, Consumer<Consumer<Account>> accounts) throws IOException {
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            writeAll(generator, accounts);
+            generator.writeRaw('\n');
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        return objectMapper.getFactory()
+                .createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private void writeAll(JsonGenerator generator, Consumer<Consumer<Account>> accounts) throws IOException {
+        char[] buffer = new char[Money.MAX_CHARS];
+        try {
+            accounts.accept(account -> {
+                try {
+                    write(generator, account, buffer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void write(JsonGenerator generator, Account account, char[] buffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(account.getId());
+        generator.writeFieldName(BALANCE);
+        int offset = account.getBalance().writeTo(buffer);
+        generator.writeNumber(buffer, offset, buffer.length - offset);
+        generator.writeFieldName(CURRENCY);
+        generator.writeString(account.getCurrency());
+        generator.writeEndObject();
+    }
+}
@@ -26,6 +26,7 @@ public class AccountMapper {
         Account account = new Account();
         account.setId(dto.getId());
         account.setBalance(dto.getBalance());
+        account.setCurrency(dto.getCurrency());
         return account;
     }
 
@@ -44,6 +45,7 @@ public class AccountMapper {
         AccountDetailsDto dto = new AccountDetailsDto();
         dto.setId(account.getId());
         dto.setBalance(account.getBalance());
+        dto.setCurrency(account.getCurrency());
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.geeksforless.fintech.metrics;
+
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.util.TopKSketch;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the transfer path.
+ * <ul>
+ *     <li>{@code transfer.latency} - timer with a percentile histogram, tagged with the outcome
+ *     ({@code ok}, {@code invalid_amount}, {@code not_found}, {@code insufficient_funds}, {@code duplicate}, {@code overloaded}
+ *     once the retries are exhausted, or {@code error}); its count is the number of transfers per outcome</li>
+ *     <li>{@code transfer.attempts} - distribution of the number of attempts per transfer</li>
+ *     <li>{@code transfer.failed.attempt} - time from the start of the previous attempt, including the
+ *     backoff wait, to the failure of an attempt that is retried or gives up</li>
+ *     <li>{@code transfer.hot.account} - estimated number of transfers of the most frequently transferred
+ *     accounts during the last {@code metrics.hotAccounts.refreshMillis}, tagged with the account ID</li>
+ * </ul>
+ * All the meters of the hot path are registered up front, so recording a transfer does not look up the registry.
+ */
+@Component
+public class TransferMetrics {
+
+    private final Map<TransferStatus, Timer> latencyByStatus = new EnumMap<>(TransferStatus.class);
+    private final Timer errorLatency;
+    private final DistributionSummary attempts;
+    private final Timer failedAttempt;
+    private final TopKSketch hotAccounts;
+    private final MultiGauge hotAccountGauge;
+
+    public TransferMetrics(MeterRegistry meterRegistry, @Value("${metrics.hotAccounts.size}") int hotAccountCount) {
+        for (TransferStatus status : TransferStatus.values()) {
+            latencyByStatus.put(status, latencyTimer(meterRegistry, status.name().toLowerCase(Locale.ROOT)));
+        }
+        this.errorLatency = latencyTimer(meterRegistry, "error");
+        this.attempts = DistributionSummary.builder("transfer.attempts")
+                .description("Attempts per transfer, including the retries")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failedAttempt = Timer.builder("transfer.failed.attempt")
+                .description("Time from the start of the previous attempt, including the backoff wait, to a failed attempt")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.hotAccounts = new TopKSketch(hotAccountCount);
+        this.hotAccountGauge = MultiGauge.builder("transfer.hot.account")
+                .description("Estimated transfers of the most frequently transferred accounts in the last refresh period")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a finished transfer.
+     *
+     * @param status       the outcome, or {@code null} if the transfer failed unexpectedly.
+     * @param elapsedNanos the duration of the transfer including all of its attempts.
+     */
+    public void recordTransfer(Long fromAccountId, Long toAccountId, TransferStatus status, long elapsedNanos) {
+        Timer timer = status == null ? errorLatency : latencyByStatus.get(status);
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (fromAccountId != null && toAccountId != null) {
+            hotAccounts.offer(fromAccountId, toAccountId);
+        }
+    }
+
+    /**
+     * Records the number of attempts a transfer took once its retries are over.
+     */
+    public void recordAttempts(int count) {
+        attempts.record(count);
+    }
+
+    /**
+     * Records a failed attempt of a transfer.
+     *
+     * @param elapsedNanos the time since the previous attempt started.
+     */
+    public void recordFailedAttempt(long elapsedNanos) {
+        failedAttempt.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Publishes the hot accounts of the period that just ended and starts a new period.
+     */
+    @Scheduled(fixedDelayString = "${metrics.hotAccounts.refreshMillis}")
+    public void refreshHotAccounts() {
+        List<TopKSketch.Entry> entries = hotAccounts.drain();
+        hotAccountGauge.register(entries.stream()
+                .map(entry -> MultiGauge.Row.of(Tags.of("account", Long.toString(entry.key())), entry.count()))
+                .toList(), true);
+    }
+
+    private static Timer latencyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("transfer.latency")
+                .description("Duration of transfers including their retries")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
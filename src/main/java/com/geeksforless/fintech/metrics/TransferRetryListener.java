@@ -0,0 +1,47 @@
+package com.geeksforless.fintech.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.listener.RetryListenerSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the retries of the {@code @Retryable} transfer strategies into {@link TransferMetrics}.
+ * <p>
+ * Retry listener beans are applied by {@code @EnableRetry} to every {@code @Retryable} method,
+ * and the transfer strategies are the only ones.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferRetryListener extends RetryListenerSupport {
+
+    private static final String ATTEMPT_START = TransferRetryListener.class.getName() + ".attemptStart";
+
+    private final TransferMetrics transferMetrics;
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        context.setAttribute(ATTEMPT_START, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        long now = System.nanoTime();
+        Object attemptStart = context.getAttribute(ATTEMPT_START);
+        if (attemptStart != null) {
+            transferMetrics.recordFailedAttempt(now - (long) attemptStart);
+        }
+        context.setAttribute(ATTEMPT_START, now);
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        // The retry count is the number of failed attempts.
+        transferMetrics.recordAttempts(throwable == null ? context.getRetryCount() + 1 : context.getRetryCount());
+    }
+}
@@ -1,39 +1,87 @@
 package com.geeksforless.fintech.model;
 
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.money.MoneyConverter;
+import org.hibernate.annotations.Check;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.validation.constraints.DecimalMin;
-import java.math.BigDecimal;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
  * Represents a financial account entity within the system.
- * This entity encapsulates the details of an account, including its unique identifier and balance.
+ * This entity encapsulates the details of an account, including its unique identifier, balance and currency.
  * It maps directly to a database table using JPA annotations.
+ * Persisting an account publishes an {@link com.geeksforless.fintech.event.AccountsOpenedEvent}.
  */
 @Entity
+@EntityListeners(AccountEntityListener.class)
+@Check(constraints = "balance >= 0")
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Account {
+
+    /**
+     * The currency of the accounts created without one.
+     */
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    /**
+     * The number of IDs reserved per sequence call, matching the JDBC batch size.
+     * The bulk import reserves its blocks of IDs with the same size.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * The unique identifier of the account.
-     * It's automatically generated by the database when a new account is created.
+     * It's taken from the {@code account_seq} sequence with pooled allocation, so new accounts are inserted in
+     * batches, and the bulk import reserves blocks of IDs from the same sequence.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
      * The current balance of the account.
-     * It represents the amount of money in the account at any given time.
+     * It represents the amount of money in the account at any given time, stored as minor units.
+     * It must not be less than 0, which the database enforces as well.
      */
-    @DecimalMin(value = "0.0", inclusive = true, message = "Balance must not be less than 0")
-    private BigDecimal balance;
-}
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false)
+    private Money balance;
 
+    /**
+     * The ISO 4217 code of the currency the balance is kept in.
+     * It's fixed when the account is created, so it can be cached without invalidation.
+     */
+    @Column(nullable = false, length = 3, updatable = false)
+    private String currency = DEFAULT_CURRENCY;
+
+    /**
+     * The optimistic locking version of the account.
+     * It's incremented by the persistence provider on every update and checked by the optimistic transfer mode.
+     */
+    @Version
+    private long version;
+
+    public Account(Long id, Money balance) {
+        this.id = id;
+        this.balance = balance;
+    }
+
+    public Account(Long id, Money balance, String currency) {
+        this.id = id;
+        this.balance = balance;
+        this.currency = currency;
+    }
+}
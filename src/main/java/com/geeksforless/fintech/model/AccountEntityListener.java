@@ -0,0 +1,30 @@
+package com.geeksforless.fintech.model;
+
+import com.geeksforless.fintech.event.AccountsOpenedEvent;
+import com.geeksforless.fintech.money.Money;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+
+/**
+ * Publishes an {@link AccountsOpenedEvent} for every account persisted through JPA.
+ * <p>
+ * It is instantiated by Hibernate through the Spring bean container, which injects the publisher. The
+ * callback runs when the account is persisted, within the transaction that will insert it, as the ID
+ * comes from a sequence.
+ * </p>
+ */
+public class AccountEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AccountEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onPersist(Account account) {
+        eventPublisher.publishEvent(new AccountsOpenedEvent(
+                new long[]{account.getId()}, new long[]{account.getBalance().toMinorUnits(Money.DEFAULT_SCALE)}));
+    }
+}
@@ -0,0 +1,49 @@
+package com.geeksforless.fintech.model;
+
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.money.MoneyConverter;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * A {@link Transfer} moved out of the live table by the archival job.
+ * Rows are only ever bulk-inserted with their original ID and never updated. They are indexed by account
+ * so point-in-time balances in archived periods stay cheap.
+ */
+@Entity
+@Table(name = "transfer_archive", indexes = {
+        @Index(name = "idx_transfer_archive_from_account_created_at", columnList = "fromAccountId, createdAt"),
+        @Index(name = "idx_transfer_archive_to_account_created_at", columnList = "toAccountId, createdAt")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedTransfer {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long fromAccountId;
+
+    @Column(nullable = false)
+    private Long toAccountId;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false)
+    private Money amount;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false)
+    private Money creditedAmount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,64 @@
+package com.geeksforless.fintech.model;
+
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.money.MoneyConverter;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * The balance of an account as of a checkpoint.
+ * <p>
+ * A checkpoint only writes the accounts changed since the previous one, so the latest snapshot of an account
+ * at or before a given time is its balance as of that snapshot's time.
+ * </p>
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_balance_snapshot_account_taken_at", columnList = "accountId, takenAt"))
+@Data
+@NoArgsConstructor
+public class BalanceSnapshot {
+
+    /**
+     * The number of IDs reserved per sequence call, matching the JDBC batch size.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * The unique identifier of the snapshot, taken from a pooled sequence so a checkpoint is inserted in batches.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshot_seq")
+    @SequenceGenerator(name = "balance_snapshot_seq", sequenceName = "balance_snapshot_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    /** The ID of the account. */
+    @Column(nullable = false)
+    private Long accountId;
+
+    /** The time of the checkpoint the balance is as of. */
+    @Column(nullable = false)
+    private Instant takenAt;
+
+    /** The balance of the account as of {@link #takenAt}, stored as minor units. */
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false)
+    private Money balance;
+
+    public BalanceSnapshot(Long accountId, Instant takenAt, Money balance) {
+        this.accountId = accountId;
+        this.takenAt = takenAt;
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,54 @@
+package com.geeksforless.fintech.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * An idempotency key of an applied transfer.
+ * It's inserted in the transaction of the transfer, so the key is recorded if and only if the transfer is.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_key_created_at", columnList = "createdAt"))
+@Data
+@NoArgsConstructor
+public class IdempotencyKey implements Persistable<String> {
+
+    /**
+     * The key chosen by the client. The primary key index makes the duplicate check a single lookup.
+     */
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    /**
+     * When the transfer was applied. Keys older than the retention period are swept.
+     */
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public IdempotencyKey(String idempotencyKey, Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Keys are only ever inserted, so saving one never needs to look it up first.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package com.geeksforless.fintech.model;
+
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.money.MoneyConverter;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * An applied transfer, recorded in the transaction that applies it.
+ * <p>
+ * The composite indexes lead with the account and end with the ID, so the statement of an account is a
+ * range scan in {@code (createdAt, id)} order on either side of the transfer however many rows it has.
+ * </p>
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_transfer_from_account_created_at", columnList = "fromAccountId, createdAt, id"),
+        @Index(name = "idx_transfer_to_account_created_at", columnList = "toAccountId, createdAt, id"),
+        @Index(name = "idx_transfer_created_at", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+public class Transfer {
+
+    /**
+     * The number of IDs reserved per sequence call, matching the JDBC batch size.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * The unique identifier of the transfer.
+     * It's taken from a sequence with pooled allocation, so inserts can be batched, unlike with identity columns.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_seq")
+    @SequenceGenerator(name = "transfer_seq", sequenceName = "transfer_seq", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    /** The ID of the debited account. */
+    @Column(nullable = false)
+    private Long fromAccountId;
+
+    /** The ID of the credited account. */
+    @Column(nullable = false)
+    private Long toAccountId;
+
+    /** The transferred amount, debited in the currency of the source account, stored as minor units. */
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false)
+    private Money amount;
+
+    /** The amount credited in the currency of the destination account, stored as minor units. */
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false)
+    private Money creditedAmount;
+
+    /** When the transfer was applied, with microsecond precision. */
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public Transfer(Long fromAccountId, Long toAccountId, Money amount, Money creditedAmount, Instant createdAt) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.creditedAmount = creditedAmount;
+        this.createdAt = createdAt;
+    }
+}
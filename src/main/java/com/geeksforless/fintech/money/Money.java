@@ -0,0 +1,249 @@
+package com.geeksforless.fintech.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount of money as a {@code long} of minor units with a fixed number of decimal places (the currency scale).
+ * <p>
+ * Arithmetic works on the two {@code long}s only, so unlike {@link BigDecimal} it allocates nothing but the
+ * result, which the JIT usually scalar-replaces, and it fails with an {@link ArithmeticException} on overflow
+ * instead of silently wrapping. Amounts of different scales are never mixed. Amounts are read from and written
+ * to JSON as plain decimal numbers, e.g. {@code 12.50}, and stored as {@code BIGINT} minor units through the
+ * {@link MoneyConverter}.
+ * </p>
+ *
+ * @param minorUnits The amount in minor units, e.g. cents.
+ * @param scale      The number of decimal places of the currency, between {@code 0} and {@value #MAX_SCALE}.
+ */
+@JsonSerialize(using = MoneySerializer.class)
+@JsonDeserialize(using = MoneyDeserializer.class)
+public record Money(long minorUnits, int scale) implements Comparable<Money> {
+
+    /**
+     * The scale of the account currency.
+     */
+    public static final int DEFAULT_SCALE = 2;
+
+    /**
+     * The largest supported scale, the number of decimal digits a {@code long} can always hold.
+     */
+    public static final int MAX_SCALE = 18;
+
+    /**
+     * Zero in the account currency.
+     */
+    public static final Money ZERO = new Money(0, DEFAULT_SCALE);
+
+    /**
+     * The maximum number of characters {@link #writeTo(char[])} writes: a sign, 19 digits, a leading zero
+     * and the decimal point.
+     */
+    public static final int MAX_CHARS = 22;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    public Money {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+    }
+
+    /**
+     * Creates an amount in the account currency from its minor units.
+     */
+    public static Money ofMinorUnits(long minorUnits) {
+        return new Money(minorUnits, DEFAULT_SCALE);
+    }
+
+    /**
+     * Parses an amount in the account currency, e.g. {@code "12.5"}.
+     *
+     * @throws ArithmeticException If the amount is malformed, has more than {@value #DEFAULT_SCALE} decimal places
+     *                             or does not fit the range.
+     */
+    public static Money of(String amount) {
+        return new Money(parseMinorUnits(amount.toCharArray(), 0, amount.length(), DEFAULT_SCALE), DEFAULT_SCALE);
+    }
+
+    /**
+     * Converts a decimal amount into the account currency.
+     *
+     * @throws ArithmeticException If the amount has more than {@value #DEFAULT_SCALE} decimal places
+     *                             or does not fit the range.
+     */
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.setScale(DEFAULT_SCALE).unscaledValue().longValueExact(), DEFAULT_SCALE);
+    }
+
+    /**
+     * Parses a plain decimal number ({@code -?digits(.digits)?}) into minor units of the given scale,
+     * without allocating.
+     *
+     * @throws ArithmeticException If the number is malformed, has more decimal places than the scale
+     *                             or does not fit the range.
+     */
+    public static long parseMinorUnits(char[] text, int offset, int length, int scale) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = i < end && text[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long units = 0;
+        int integerDigits = 0;
+        for (; i < end && text[i] != '.'; i++, integerDigits++) {
+            units = Math.addExact(Math.multiplyExact(units, 10), digit(text[i]));
+        }
+        int fractionDigits = 0;
+        if (i < end) {
+            for (i++; i < end; i++, fractionDigits++) {
+                if (fractionDigits == scale) {
+                    throw new ArithmeticException("Amount must have at most " + scale + " decimal places");
+                }
+                units = Math.addExact(Math.multiplyExact(units, 10), digit(text[i]));
+            }
+            if (fractionDigits == 0) {
+                throw new ArithmeticException("Amount must have digits after the decimal point");
+            }
+        }
+        if (integerDigits == 0) {
+            throw new ArithmeticException("Amount must have digits before the decimal point");
+        }
+        units = Math.multiplyExact(units, POWERS_OF_TEN[scale - fractionDigits]);
+        return negative ? -units : units;
+    }
+
+    private static int digit(char c) {
+        if (c < '0' || c > '9') {
+            throw new ArithmeticException("Amount must be a plain decimal number");
+        }
+        return c - '0';
+    }
+
+    /**
+     * Returns the sum of both amounts.
+     *
+     * @throws ArithmeticException If the scales differ or the sum overflows.
+     */
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, other.minorUnitsOfSameScale(this)), scale);
+    }
+
+    /**
+     * Returns the difference of both amounts.
+     *
+     * @throws ArithmeticException If the scales differ or the difference overflows.
+     */
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minorUnits, other.minorUnitsOfSameScale(this)), scale);
+    }
+
+    /**
+     * Returns this amount multiplied by a whole factor.
+     *
+     * @throws ArithmeticException If the product overflows.
+     */
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), scale);
+    }
+
+    /**
+     * Whether this amount is smaller than the other one.
+     *
+     * @throws ArithmeticException If the scales differ.
+     */
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnitsOfSameScale(this);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    /**
+     * Returns the minor units of this amount at the given scale.
+     *
+     * @throws ArithmeticException If the scale would drop non-zero decimal places or the result overflows.
+     */
+    public long toMinorUnits(int targetScale) {
+        if (targetScale == scale) {
+            return minorUnits;
+        }
+        if (targetScale < 0 || targetScale > MAX_SCALE) {
+            throw new ArithmeticException("Scale must be between 0 and " + MAX_SCALE + ": " + targetScale);
+        }
+        if (targetScale > scale) {
+            return Math.multiplyExact(minorUnits, POWERS_OF_TEN[targetScale - scale]);
+        }
+        long divisor = POWERS_OF_TEN[scale - targetScale];
+        if (minorUnits % divisor != 0) {
+            throw new ArithmeticException("Amount must have at most " + targetScale + " decimal places");
+        }
+        return minorUnits / divisor;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnitsOfSameScale(this));
+    }
+
+    /**
+     * Writes the amount as a plain decimal number with all its decimal places, e.g. {@code -12.50},
+     * right-aligned into the end of the buffer.
+     *
+     * @param buffer A buffer of at least {@value #MAX_CHARS} characters.
+     * @return The offset of the first written character.
+     */
+    public int writeTo(char[] buffer) {
+        int position = buffer.length;
+        // Works on the negative value so Long.MIN_VALUE needs no special case.
+        long remaining = minorUnits > 0 ? -minorUnits : minorUnits;
+        for (int i = 0; i < scale; i++) {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        }
+        if (scale > 0) {
+            buffer[--position] = '.';
+        }
+        do {
+            buffer[--position] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (minorUnits < 0) {
+            buffer[--position] = '-';
+        }
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        char[] buffer = new char[MAX_CHARS];
+        int offset = writeTo(buffer);
+        return new String(buffer, offset, buffer.length - offset);
+    }
+
+    private long minorUnitsOfSameScale(Money other) {
+        if (scale != other.scale) {
+            throw new ArithmeticException("Amounts of scale " + scale + " and " + other.scale + " cannot be combined");
+        }
+        return minorUnits;
+    }
+}
@@ -0,0 +1,21 @@
+package com.geeksforless.fintech.money;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a {@link Money} in the account currency as a {@code BIGINT} column of minor units.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toMinorUnits(Money.DEFAULT_SCALE);
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minorUnits) {
+        return minorUnits == null ? null : Money.ofMinorUnits(minorUnits);
+    }
+}
@@ -0,0 +1,40 @@
+package com.geeksforless.fintech.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@link Money} in the account currency from a JSON number, or a string holding one, e.g. {@code 12.5}.
+ * <p>
+ * The digits are parsed straight from the parser's text buffer into minor units, without going through
+ * {@link java.math.BigDecimal}. Validation is strict: an amount with more than {@value Money#DEFAULT_SCALE}
+ * decimal places, an exponent or a value out of range is rejected instead of being rounded.
+ * </p>
+ */
+public class MoneyDeserializer extends StdDeserializer<Money> {
+
+    public MoneyDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        try {
+            return Money.ofMinorUnits(Money.parseMinorUnits(text, offset, length, Money.DEFAULT_SCALE));
+        } catch (ArithmeticException e) {
+            throw InvalidFormatException.from(parser, e.getMessage(), new String(text, offset, length), Money.class);
+        }
+    }
+}
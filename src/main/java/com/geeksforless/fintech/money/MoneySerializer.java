@@ -0,0 +1,25 @@
+package com.geeksforless.fintech.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Money} as a plain JSON number with all its decimal places, e.g. {@code 12.50},
+ * straight from its minor units.
+ */
+public class MoneySerializer extends StdSerializer<Money> {
+
+    public MoneySerializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        char[] buffer = new char[Money.MAX_CHARS];
+        int offset = value.writeTo(buffer);
+        generator.writeNumber(buffer, offset, buffer.length - offset);
+    }
+}
@@ -1,10 +1,172 @@
 package com.geeksforless.fintech.repository;
 
+import com.geeksforless.fintech.dto.AccountDetailsDto;
 import com.geeksforless.fintech.model.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-}
 
+    /**
+     * The number of rows fetched per round-trip when streaming accounts.
+     */
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Retrieves the accounts following the given ID (keyset pagination).
+     *
+     * @param afterId  only accounts with an ID greater than this one are returned.
+     * @param pageable the page size; the page number is expected to be {@code 0}.
+     * @return the accounts ordered by ID.
+     */
+    List<Account> findByIdGreaterThanOrderById(Long afterId, Pageable pageable);
+
+    /**
+     * Streams all accounts ordered by ID.
+     * <p>
+     * Rows are fetched from the cursor {@value #STREAM_FETCH_SIZE} at a time and loaded read-only, so no
+     * dirty-checking snapshot is kept. The stream must be consumed within a transaction and closed;
+     * callers are expected to detach the accounts they are done with.
+     * </p>
+     *
+     * @return the stream of all accounts.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select a from Account a order by a.id")
+    Stream<Account> streamAll();
+
+    /**
+     * Retrieves the details of an account without loading the entity.
+     * <p>
+     * The constructor expression selects the columns straight into the DTO, so nothing is hydrated into
+     * or snapshotted by the persistence context. The query does not flush it first.
+     * </p>
+     *
+     * @param id the ID of the account.
+     * @return the details of the account, or {@code Optional.empty()} if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("select new com.geeksforless.fintech.dto.AccountDetailsDto(a.id, a.balance, a.currency) from Account a where a.id = :id")
+    Optional<AccountDetailsDto> findDetailsById(@Param("id") Long id);
+
+    /**
+     * Retrieves the details of the accounts with the given IDs without loading the entities.
+     *
+     * @param ids the IDs of the accounts.
+     * @return the details of the accounts that exist, in no particular order.
+     * @see #findDetailsById(Long)
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("select new com.geeksforless.fintech.dto.AccountDetailsDto(a.id, a.balance, a.currency) from Account a where a.id in :ids")
+    List<AccountDetailsDto> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves the details of the accounts following the given ID (keyset pagination) without loading the entities.
+     *
+     * @param afterId  only accounts with an ID greater than this one are returned.
+     * @param pageable the page size; the page number is expected to be {@code 0}.
+     * @return the details of the accounts ordered by ID.
+     * @see #findDetailsById(Long)
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("select new com.geeksforless.fintech.dto.AccountDetailsDto(a.id, a.balance, a.currency) from Account a "
+            + "where a.id > :afterId order by a.id")
+    List<AccountDetailsDto> findDetailsPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Loads the accounts with the given IDs and write-locks their rows ({@code SELECT ... FOR UPDATE}).
+     * <p>
+     * Rows are returned, and therefore locked, in ascending ID order. Every caller acquiring locks
+     * through this method takes them in the same global order, so two transactions locking the same
+     * accounts queue on each other instead of deadlocking.
+     * </p>
+     *
+     * @param ids the IDs of the accounts to lock.
+     * @return the locked accounts ordered by ID; accounts that do not exist are absent.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Debits the account in a single statement, provided it has enough funds.
+     * <p>
+     * The balance check and the update are one atomic {@code UPDATE}, so no entity is loaded and there is
+     * no read-modify-write window. The version is incremented to keep optimistic readers consistent.
+     * The statement is native because it does arithmetic on the minor units of the balance column.
+     * </p>
+     *
+     * @param id     the ID of the account to debit.
+     * @param amount the amount to debit in minor units.
+     * @return {@code 1} if the account was debited, {@code 0} if it does not exist or has insufficient funds.
+     */
+    @Modifying
+    @Query(value = "update account set balance = balance - :amount, version = version + 1 "
+            + "where id = :id and balance >= :amount", nativeQuery = true)
+    int debit(@Param("id") Long id, @Param("amount") long amount);
+
+    /**
+     * Credits the account in a single statement.
+     *
+     * @param id     the ID of the account to credit.
+     * @param amount the amount to credit in minor units.
+     * @return {@code 1} if the account was credited, {@code 0} if it does not exist.
+     */
+    @Modifying
+    @Query(value = "update account set balance = balance + :amount, version = version + 1 where id = :id",
+            nativeQuery = true)
+    int credit(@Param("id") Long id, @Param("amount") long amount);
+
+    /**
+     * Selects the currency of an account, without loading the entity.
+     *
+     * @param id the ID of the account.
+     * @return the ISO 4217 code of the currency, or {@code Optional.empty()} if the account does not exist.
+     */
+    @Query("select a.currency from Account a where a.id = :id")
+    Optional<String> findCurrencyById(@Param("id") Long id);
+
+    /**
+     * Reserves blocks of account IDs from the {@code account_seq} sequence in one round-trip.
+     * <p>
+     * Every sequence value is the highest ID of a block of {@link Account#ID_ALLOCATION_SIZE} IDs, the way
+     * Hibernate's pooled optimizer reads it, so the reserved IDs never collide with the ones of persisted accounts.
+     * </p>
+     * <p>
+     * The query is native and only runs on H2: {@code system_range} is an H2 table function. On another database
+     * it has to be replaced with that database's row generator, e.g. {@code generate_series} on PostgreSQL.
+     * </p>
+     *
+     * @param count the number of blocks to reserve.
+     * @return the highest ID of every block.
+     */
+    @Query(value = "select next value for account_seq from system_range(1, :count)", nativeQuery = true)
+    List<Long> allocateIdBlocks(@Param("count") int count);
+}
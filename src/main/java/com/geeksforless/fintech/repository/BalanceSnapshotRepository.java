@@ -0,0 +1,25 @@
+package com.geeksforless.fintech.repository;
+
+import com.geeksforless.fintech.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    /**
+     * Finds the latest snapshot of an account taken at or before the given instant, using the index on
+     * the account and the checkpoint time.
+     */
+    Optional<BalanceSnapshot> findFirstByAccountIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Long accountId, Instant at);
+
+    /**
+     * Finds the time of the latest checkpoint that wrote any snapshot.
+     */
+    @Query("select max(s.takenAt) from BalanceSnapshot s")
+    Optional<Instant> findLatestTakenAt();
+}
@@ -0,0 +1,21 @@
+package com.geeksforless.fintech.repository;
+
+import com.geeksforless.fintech.model.IdempotencyKey;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Finds a batch of keys recorded before the given instant, using the index on the creation time.
+     */
+    @Query("select k.idempotencyKey from IdempotencyKey k where k.createdAt < :before")
+    List<String> findKeysCreatedBefore(@Param("before") Instant before, Pageable pageable);
+}
@@ -0,0 +1,162 @@
+package com.geeksforless.fintech.repository;
+
+import com.geeksforless.fintech.dto.TransferDto;
+import com.geeksforless.fintech.model.Transfer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+@Repository
+public interface TransferRepository extends JpaRepository<Transfer, Long> {
+
+    /**
+     * Retrieves a page of the transfers debited from an account, newest first, using keyset pagination.
+     * <p>
+     * Only transfers applied at or after {@code from} and strictly before the {@code (beforeCreatedAt, beforeId)}
+     * cursor are returned, so every page is a bounded range scan of the {@code (fromAccountId, createdAt, id)}
+     * index however deep into the history it is.
+     * </p>
+     *
+     * @param accountId       the ID of the debited account.
+     * @param from            the earliest time of the returned transfers, inclusive.
+     * @param beforeCreatedAt the time of the cursor.
+     * @param beforeId        the ID of the cursor, breaking ties between transfers applied at the same time.
+     * @param pageable        the page size; the page number is expected to be {@code 0}.
+     * @return the transfers ordered by time and ID, descending.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("select new com.geeksforless.fintech.dto.TransferDto(t.id, t.fromAccountId, t.toAccountId, t.amount, t.creditedAmount, t.createdAt) "
+            + "from Transfer t where t.fromAccountId = :accountId and t.createdAt >= :from "
+            + "and (t.createdAt < :beforeCreatedAt or (t.createdAt = :beforeCreatedAt and t.id < :beforeId)) "
+            + "order by t.createdAt desc, t.id desc")
+    List<TransferDto> findDebits(@Param("accountId") Long accountId,
+                                 @Param("from") Instant from,
+                                 @Param("beforeCreatedAt") Instant beforeCreatedAt,
+                                 @Param("beforeId") Long beforeId,
+                                 Pageable pageable);
+
+    /**
+     * Retrieves a page of the transfers credited to an account from other accounts, newest first,
+     * using keyset pagination on the {@code (toAccountId, createdAt, id)} index.
+     *
+     * @see #findDebits(Long, Instant, Instant, Long, Pageable)
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("select new com.geeksforless.fintech.dto.TransferDto(t.id, t.fromAccountId, t.toAccountId, t.amount, t.creditedAmount, t.createdAt) "
+            + "from Transfer t where t.toAccountId = :accountId and t.fromAccountId <> :accountId and t.createdAt >= :from "
+            + "and (t.createdAt < :beforeCreatedAt or (t.createdAt = :beforeCreatedAt and t.id < :beforeId)) "
+            + "order by t.createdAt desc, t.id desc")
+    List<TransferDto> findCredits(@Param("accountId") Long accountId,
+                                  @Param("from") Instant from,
+                                  @Param("beforeCreatedAt") Instant beforeCreatedAt,
+                                  @Param("beforeId") Long beforeId,
+                                  Pageable pageable);
+
+    /**
+     * Finds a batch of transfers applied before the given instant, using the index on the creation time.
+     */
+    @Query("select t.id from Transfer t where t.createdAt < :before order by t.id")
+    List<Long> findIdsCreatedBefore(@Param("before") Instant before, Pageable pageable);
+
+    /**
+     * Copies the given transfers into the archive table in a single statement.
+     *
+     * @param ids the IDs of the transfers to copy.
+     * @return the number of copied transfers.
+     */
+    @Modifying
+    @Query(value = "insert into transfer_archive (id, from_account_id, to_account_id, amount, credited_amount, created_at) "
+            + "select id, from_account_id, to_account_id, amount, credited_amount, created_at from transfer where id in :ids",
+            nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The sum of the amounts transferred to or from an account, in minor units.
+     */
+    interface AccountAmount {
+
+        Long getAccountId();
+
+        long getAmount();
+    }
+
+    /**
+     * Sums the amounts credited to the given accounts by transfers applied after the given instant,
+     * in the currencies of the accounts.
+     *
+     * @param ids   the IDs of the credited accounts.
+     * @param after the instant after which transfers are summed, exclusive.
+     * @return the sums in minor units; accounts without such transfers are absent.
+     */
+    @Query(value = "select to_account_id as accountId, sum(credited_amount) as amount from transfer "
+            + "where to_account_id in :ids and created_at > :after group by to_account_id", nativeQuery = true)
+    List<AccountAmount> sumCreditsAfter(@Param("ids") Collection<Long> ids, @Param("after") Instant after);
+
+    /**
+     * Sums the amounts debited from the given accounts by transfers applied after the given instant.
+     *
+     * @see #sumCreditsAfter(Collection, Instant)
+     */
+    @Query(value = "select from_account_id as accountId, sum(amount) as amount from transfer "
+            + "where from_account_id in :ids and created_at > :after group by from_account_id", nativeQuery = true)
+    List<AccountAmount> sumDebitsAfter(@Param("ids") Collection<Long> ids, @Param("after") Instant after);
+
+    /**
+     * Sums the amounts credited to an account by the transfers applied in the given period, archived or not,
+     * in the currency of the account.
+     *
+     * @param accountId the ID of the credited account.
+     * @param after     the start of the period, exclusive.
+     * @param until     the end of the period, inclusive.
+     * @return the sum in minor units, {@code 0} if there are no such transfers.
+     */
+    @Query(value = "select coalesce(sum(credited_amount), 0) from ("
+            + "select credited_amount from transfer where to_account_id = :id and created_at > :after and created_at <= :until "
+            + "union all "
+            + "select credited_amount from transfer_archive where to_account_id = :id and created_at > :after and created_at <= :until"
+            + ") credits", nativeQuery = true)
+    long sumCredits(@Param("id") Long accountId, @Param("after") Instant after, @Param("until") Instant until);
+
+    /**
+     * Sums the amounts debited from an account by the transfers applied in the given period, archived or not.
+     *
+     * @see #sumCredits(Long, Instant, Instant)
+     */
+    @Query(value = "select coalesce(sum(amount), 0) from ("
+            + "select amount from transfer where from_account_id = :id and created_at > :after and created_at <= :until "
+            + "union all "
+            + "select amount from transfer_archive where from_account_id = :id and created_at > :after and created_at <= :until"
+            + ") debits", nativeQuery = true)
+    long sumDebits(@Param("id") Long accountId, @Param("after") Instant after, @Param("until") Instant until);
+
+    /**
+     * Finds the accounts debited or credited by the transfers applied in the given period, using the index
+     * on the creation time.
+     *
+     * @param after the start of the period, exclusive.
+     * @param until the end of the period, inclusive.
+     * @return the distinct IDs of the accounts.
+     */
+    @Query(value = "select from_account_id from transfer where created_at > :after and created_at <= :until "
+            + "union "
+            + "select to_account_id from transfer where created_at > :after and created_at <= :until", nativeQuery = true)
+    List<Long> findAccountsChangedBetween(@Param("after") Instant after, @Param("until") Instant until);
+}
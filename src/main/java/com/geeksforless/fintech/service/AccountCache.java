@@ -0,0 +1,145 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of account balances in front of the database.
+ * <p>
+ * Entries are immutable snapshots of committed balances, bounded by {@code account.cache.maximumSize}
+ * and expiring {@code account.cache.ttlMillis} after they were loaded. Callers get a detached copy of
+ * the snapshot. When a transfer is applied, the entries of both accounts are invalidated once its
+ * transaction has committed, so a reader never sees an uncommitted balance. An invalidation waits for
+ * a load of the same account that is in progress and then discards its result, so a balance read just
+ * before the commit is not left behind in the cache either.
+ * </p>
+ * <p>
+ * The currencies of the accounts are cached apart from the balances, within the same bounds. A currency never
+ * changes once the account exists, so these entries are not invalidated by transfers.
+ * </p>
+ * <p>
+ * Hits, misses and evictions are published under the {@code cache.*} meters with {@code cache=accounts}
+ * and {@code cache=account-currencies}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "account.store", havingValue = "jpa", matchIfMissing = true)
+public class AccountCache {
+
+    private final Cache<Long, Snapshot> cache;
+    private final Cache<Long, String> currencies;
+
+    public AccountCache(MeterRegistry meterRegistry,
+                        @Value("${account.cache.maximumSize}") long maximumSize,
+                        @Value("${account.cache.ttlMillis}") long ttlMillis) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+        this.currencies = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, currencies, "account-currencies");
+    }
+
+    /**
+     * Returns the account from the cache, loading it on a miss. Accounts that do not exist are not cached.
+     *
+     * @param accountId The ID of the account.
+     * @param loader    Loads the committed state of the account.
+     * @return A detached copy of the cached account or {@code Optional.empty()} if the account does not exist.
+     */
+    public Optional<Account> get(Long accountId, Function<Long, Optional<Account>> loader) {
+        Snapshot snapshot = cache.get(accountId, id -> loader.apply(id).map(Snapshot::of).orElse(null));
+        return Optional.ofNullable(snapshot).map(Snapshot::toAccount);
+    }
+
+    /**
+     * Returns the details of the account from the cache, loading them on a miss. It shares its entries with
+     * {@link #get(Long, Function)}, so an account cached by either is served to both.
+     *
+     * @param accountId The ID of the account.
+     * @param loader    Loads the committed details of the account.
+     * @return A copy of the cached details or {@code Optional.empty()} if the account does not exist.
+     */
+    public Optional<AccountDetailsDto> getDetails(Long accountId, Function<Long, Optional<AccountDetailsDto>> loader) {
+        Snapshot snapshot = cache.get(accountId, id -> loader.apply(id).map(Snapshot::of).orElse(null));
+        return Optional.ofNullable(snapshot).map(Snapshot::toDetails);
+    }
+
+    /**
+     * Returns the currency of the account from the cache, loading it on a miss. Accounts that do not exist are
+     * not cached.
+     *
+     * @param accountId The ID of the account.
+     * @param loader    Loads the currency of the account.
+     * @return The ISO 4217 code of the currency or {@code Optional.empty()} if the account does not exist.
+     */
+    public Optional<String> currencyOf(Long accountId, Function<Long, Optional<String>> loader) {
+        return Optional.ofNullable(currencies.get(accountId, id -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Invalidates both accounts of an applied transfer after its transaction has committed,
+     * or right away if it did not run in a transaction.
+     */
+    @EventListener
+    public void onTransferApplied(TransferAppliedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(event);
+            }
+        });
+    }
+
+    private void invalidate(TransferAppliedEvent event) {
+        cache.invalidate(event.getFromAccountId());
+        cache.invalidate(event.getToAccountId());
+    }
+
+    /**
+     * The cached state of an account.
+     */
+    private record Snapshot(Long id, Money balance, String currency) {
+
+        static Snapshot of(Account account) {
+            return new Snapshot(account.getId(), account.getBalance(), account.getCurrency());
+        }
+
+        static Snapshot of(AccountDetailsDto details) {
+            return new Snapshot(details.getId(), details.getBalance(), details.getCurrency());
+        }
+
+        Account toAccount() {
+            return new Account(id, balance, currency);
+        }
+
+        AccountDetailsDto toDetails() {
+            return new AccountDetailsDto(id, balance, currency);
+        }
+    }
+}
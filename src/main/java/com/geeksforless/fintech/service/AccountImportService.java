@@ -0,0 +1,282 @@
+package com.geeksforless.fintech.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geeksforless.fintech.dto.AccountImportResultDto;
+import com.geeksforless.fintech.event.AccountsOpenedEvent;
+import com.geeksforless.fintech.exception.InvalidImportException;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Currency;
+
+/**
+ * Creates accounts in bulk from a stream of initial balances, each optionally with the currency of the account,
+ * {@link Account#DEFAULT_CURRENCY} otherwise.
+ * <p>
+ * The input is parsed while it is read and never held as a whole: the balances are collected in chunks of
+ * {@code accounts.import.chunkSize} rows, and every chunk reserves its IDs from the {@code account_seq} sequence in
+ * one query and is inserted as a single JDBC batch in its own transaction, without going through the persistence
+ * context. Progress is logged every {@code accounts.import.progressRows} rows and counted by the
+ * {@code accounts.imported} counter. A malformed row stops the import; the chunks committed before it stay imported.
+ * Every chunk publishes an {@link AccountsOpenedEvent} in its transaction, so the transfer journal records the
+ * opening balances.
+ * </p>
+ * <p>
+ * The accounts are written to the database, so the in-memory ledger only picks up the accounts imported
+ * before it seeds itself on startup.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AccountImportService {
+
+    private static final String INSERT_ACCOUNT = "insert into account (id, balance, currency, version) values (?, ?, ?, 0)";
+    private static final String BALANCE = "balance";
+    private static final String CURRENCY = "currency";
+
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter importedCounter;
+    private final int chunkSize;
+    private final long progressRows;
+
+    public AccountImportService(AccountRepository accountRepository,
+                                JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${accounts.import.chunkSize}") int chunkSize,
+                                @Value("${accounts.import.progressRows}") long progressRows) {
+        if (chunkSize <= 0 || progressRows <= 0) {
+            throw new IllegalArgumentException("accounts.import.chunkSize and accounts.import.progressRows must be positive");
+        }
+        this.accountRepository = accountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importedCounter = Counter.builder("accounts.imported")
+                .description("Accounts created by bulk imports")
+                .register(meterRegistry);
+        this.chunkSize = chunkSize;
+        this.progressRows = progressRows;
+    }
+
+    /**
+     * Imports accounts from CSV with the initial balance of every account in the first column and optionally the
+     * ISO 4217 code of its currency in the second one, e.g. {@code 12.50} or {@code 12.50,EUR}. A first line
+     * starting with a letter is a header and skipped, as are blank lines.
+     *
+     * @param input The CSV, UTF-8 encoded. It is not closed.
+     * @return The number of accounts created and the duration of the import.
+     * @throws InvalidImportException If a balance is malformed or negative, or a currency is unknown.
+     * @throws IOException            If reading the input fails.
+     */
+    public AccountImportResultDto importCsv(InputStream input) throws IOException {
+        Import accounts = new Import();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String value = line.strip();
+            if (value.isEmpty() || lineNumber == 1 && Character.isLetter(value.charAt(0))) {
+                continue;
+            }
+            int comma = value.indexOf(',');
+            String balance = comma < 0 ? value : value.substring(0, comma).strip();
+            String currency = comma < 0 ? null : value.substring(comma + 1).strip();
+            char[] text = balance.toCharArray();
+            accounts.add(accounts.parseBalance(text, 0, text.length, lineNumber), currency, lineNumber);
+        }
+        return accounts.finish();
+    }
+
+    /**
+     * Imports accounts from newline-delimited JSON, one object with the initial {@code balance} and optionally the
+     * {@code currency} of an account per line, e.g. {@code {"balance":12.50,"currency":"EUR"}}. Other fields
+     * are ignored.
+     *
+     * @param input The NDJSON, UTF-8 encoded. It is not closed.
+     * @return The number of accounts created and the duration of the import.
+     * @throws InvalidImportException If a line is not an object with a valid, non-negative balance, or its currency
+     *                                is unknown.
+     * @throws IOException            If reading the input fails.
+     */
+    public AccountImportResultDto importNdjson(InputStream input) throws IOException {
+        Import accounts = new Import();
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)
+                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                int lineNumber = parser.getTokenLocation().getLineNr();
+                if (token != JsonToken.START_OBJECT) {
+                    throw accounts.invalid(lineNumber, "Expected an object");
+                }
+                boolean found = false;
+                long balance = 0;
+                String currency = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (!found && BALANCE.equals(field) && (value == JsonToken.VALUE_NUMBER_INT
+                            || value == JsonToken.VALUE_NUMBER_FLOAT || value == JsonToken.VALUE_STRING)) {
+                        balance = accounts.parseBalance(parser.getTextCharacters(), parser.getTextOffset(),
+                                parser.getTextLength(), lineNumber);
+                        found = true;
+                    } else if (currency == null && CURRENCY.equals(field) && value == JsonToken.VALUE_STRING) {
+                        currency = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (!found) {
+                    throw accounts.invalid(lineNumber, "Missing balance");
+                }
+                accounts.add(balance, currency, lineNumber);
+            }
+        } catch (JsonProcessingException e) {
+            throw accounts.invalid(e.getLocation() != null ? e.getLocation().getLineNr() : -1, e.getOriginalMessage());
+        }
+        return accounts.finish();
+    }
+
+    /**
+     * Inserts a chunk of accounts with IDs reserved from the sequence, as one JDBC batch, and publishes their opening.
+     */
+    private void insert(long[] balances, String[] currencies, int count) {
+        long[] ids = allocateIds(count);
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setLong(1, ids[i]);
+                statement.setLong(2, balances[i]);
+                statement.setString(3, currencies[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+        eventPublisher.publishEvent(new AccountsOpenedEvent(ids, Arrays.copyOf(balances, count)));
+    }
+
+    /**
+     * Reserves IDs from the {@code account_seq} sequence. Every sequence value is the highest ID of its block,
+     * except that IDs start at {@code 1}, so a block may hold fewer IDs and another round may be needed.
+     */
+    private long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled + Account.ID_ALLOCATION_SIZE - 1) / Account.ID_ALLOCATION_SIZE;
+            for (long last : accountRepository.allocateIdBlocks(blocks)) {
+                for (long id = Math.max(1, last - Account.ID_ALLOCATION_SIZE + 1); id <= last && filled < count; id++) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * The state of one import: the chunk being collected and the progress.
+     */
+    private final class Import {
+
+        private final long start = System.nanoTime();
+        private final long[] balances = new long[chunkSize];
+        private final String[] currencies = new String[chunkSize];
+        private int size;
+        private long imported;
+        private long nextProgress = progressRows;
+
+        long parseBalance(char[] text, int offset, int length, int lineNumber) {
+            long balance;
+            try {
+                balance = Money.parseMinorUnits(text, offset, length, Money.DEFAULT_SCALE);
+            } catch (ArithmeticException e) {
+                throw invalid(lineNumber, e.getMessage());
+            }
+            if (balance < 0) {
+                throw invalid(lineNumber, "Balance must not be negative");
+            }
+            return balance;
+        }
+
+        /**
+         * Adds an account to the chunk, in the default currency if the currency is {@code null}.
+         */
+        void add(long balance, String currency, int lineNumber) {
+            String currencyCode = Account.DEFAULT_CURRENCY;
+            if (currency != null) {
+                try {
+                    // The code of the shared Currency instance, so the chunk does not keep a string per row.
+                    currencyCode = Currency.getInstance(currency).getCurrencyCode();
+                } catch (IllegalArgumentException e) {
+                    throw invalid(lineNumber, "Unknown currency " + currency);
+                }
+            }
+            balances[size] = balance;
+            currencies[size++] = currencyCode;
+            if (size == balances.length) {
+                flush();
+            }
+        }
+
+        AccountImportResultDto finish() {
+            flush();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Imported {} accounts in {} ms", imported, elapsedMillis);
+            return new AccountImportResultDto(imported, elapsedMillis);
+        }
+
+        InvalidImportException invalid(int lineNumber, String reason) {
+            return new InvalidImportException("Line " + lineNumber + ": " + reason + " (" + imported
+                    + " accounts were imported before it)");
+        }
+
+        private void flush() {
+            if (size == 0) {
+                return;
+            }
+            int count = size;
+            transactionTemplate.executeWithoutResult(status -> insert(balances, currencies, count));
+            size = 0;
+            imported += count;
+            importedCounter.increment(count);
+            if (imported >= nextProgress) {
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                log.info("Imported {} accounts ({} accounts/s)", imported, Math.round(imported / seconds));
+                nextProgress = (imported / progressRows + 1) * progressRows;
+            }
+        }
+    }
+}
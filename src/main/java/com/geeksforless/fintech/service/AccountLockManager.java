@@ -0,0 +1,108 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes conflicting transfers inside the JVM before they open their transaction
+ * ({@code transfer.locks.enabled=true}).
+ * <p>
+ * Accounts are mapped by the hash of their ID onto {@code transfer.locks.stripes} fair locks. A transfer takes
+ * the stripes of both of its accounts, the lower stripe first, so two transfers sharing an account queue for
+ * each other in arrival order instead of both running and one being aborted by the database, while transfers
+ * of unrelated accounts only share a stripe by chance. Two accounts on the same stripe take it once. A transfer
+ * waiting longer than {@code transfer.locks.timeoutMillis} gives up as overloaded.
+ * </p>
+ * <p>
+ * The locks only see the transfers of this instance, so they spare aborts in a single-node deployment and the
+ * database stays the authority on consistency. The time waited is published as the {@code transfer.lock.wait}
+ * timer. {@link ReentrantLock} parks virtual threads without pinning them to their carrier.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.locks.enabled", havingValue = "true")
+public class AccountLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutNanos;
+    private final Timer waitTimer;
+
+    public AccountLockManager(MeterRegistry meterRegistry,
+                              @Value("${transfer.locks.stripes}") int stripes,
+                              @Value("${transfer.locks.timeoutMillis}") long timeoutMillis) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("transfer.locks.stripes must be a power of two");
+        }
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock(true);
+        }
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.waitTimer = Timer.builder("transfer.lock.wait")
+                .description("Time a transfer waited for the in-process locks of its accounts")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a transfer holding the stripes of both of its accounts.
+     *
+     * @param fromAccountId The ID of the account to be debited.
+     * @param toAccountId   The ID of the account to be credited.
+     * @param transfer      Applies the transfer, including opening and committing its transaction.
+     * @throws ServerIsOverloadedException If the stripes could not be taken within the timeout.
+     */
+    public void runLocked(long fromAccountId, long toAccountId, Runnable transfer) {
+        int fromStripe = stripeOf(fromAccountId);
+        int toStripe = stripeOf(toAccountId);
+        ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+        ReentrantLock second = fromStripe == toStripe ? null : stripes[Math.max(fromStripe, toStripe)];
+
+        long start = System.nanoTime();
+        if (!tryLock(first, timeoutNanos)) {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+        }
+        try {
+            if (second != null && !tryLock(second, timeoutNanos - (System.nanoTime() - start))) {
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+            }
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            try {
+                transfer.run();
+            } finally {
+                if (second != null) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    /**
+     * Returns the stripe of an account, spreading the bits of the ID so sequential IDs use all the stripes.
+     */
+    int stripeOf(long accountId) {
+        long hash = accountId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (stripes.length - 1);
+    }
+
+    private static boolean tryLock(ReentrantLock lock, long timeoutNanos) {
+        try {
+            // A fair lock's tryLock() barges, the timed variant queues behind the waiting transfers.
+            return lock.tryLock(Math.max(timeoutNanos, 0), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
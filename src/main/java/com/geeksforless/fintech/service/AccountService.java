@@ -1,13 +1,16 @@
 package com.geeksforless.fintech.service;
 
+import com.geeksforless.fintech.dto.AccountDetailsDto;
 import com.geeksforless.fintech.exception.InsufficientFundsException;
 import com.geeksforless.fintech.exception.InvalidTransferAmountException;
 import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.UnsupportedIdempotencyKeyException;
 import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Represents the core service interface for account-related operations.
@@ -37,7 +40,26 @@ public interface AccountService {
      * @throws NotFoundException             If either the source or destination account does not exist.
      * @throws InsufficientFundsException    If the source account does not have enough funds for the transfer.
      */
-    void transfer(Long fromAccountId, Long toAccountId, BigDecimal amount);
+    void transfer(Long fromAccountId, Long toAccountId, Money amount);
+
+    /**
+     * Transfers a specified amount between two accounts at most once per idempotency key.
+     * <p>
+     * Retrying a transfer with the same key after a failure or a timeout does not apply it twice: if the
+     * transfer has already been applied, the retry completes normally without applying it again.
+     * Stores that do not support idempotency keys reject transfers that carry one.
+     * </p>
+     *
+     * @param idempotencyKey The key identifying the transfer across client retries, or {@code null}.
+     * @throws UnsupportedIdempotencyKeyException If a key is given and the store does not support idempotency keys.
+     * @see #transfer(Long, Long, Money)
+     */
+    default void transfer(Long fromAccountId, Long toAccountId, Money amount, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            throw new UnsupportedIdempotencyKeyException("Idempotency keys are not supported by this account store");
+        }
+        transfer(fromAccountId, toAccountId, amount);
+    }
 
     /**
      * Retrieves the details of an account based on its ID.
@@ -58,4 +80,58 @@ public interface AccountService {
      *         The list can be empty if no accounts are found.
      */
     List<Account> getAll();
+
+    /**
+     * Retrieves a page of accounts using keyset pagination.
+     * <p>
+     * Unlike offset pagination, the cost of a page does not grow with its position: the next page is
+     * requested with the ID of the last account of the previous one.
+     * </p>
+     *
+     * @param afterId Only accounts with an ID greater than this one are returned.
+     * @param limit   The maximum number of accounts to return.
+     * @return Up to {@code limit} accounts ordered by ID.
+     */
+    List<Account> getPage(long afterId, int limit);
+
+    /**
+     * Retrieves the details of an account for read-only use.
+     * <p>
+     * Stores able to read the details without loading the account entity override this method,
+     * by default they are mapped from {@link #get(Long)}.
+     * </p>
+     *
+     * @param accountId The ID of the account to be retrieved.
+     * @return The details of the account or {@code Optional.empty()} if no account is found.
+     */
+    default Optional<AccountDetailsDto> getDetails(Long accountId) {
+        return get(accountId).map(AccountService::toDetails);
+    }
+
+    /**
+     * Retrieves the details of a page of accounts for read-only use, using keyset pagination.
+     *
+     * @param afterId Only accounts with an ID greater than this one are returned.
+     * @param limit   The maximum number of accounts to return.
+     * @return The details of up to {@code limit} accounts ordered by ID.
+     * @see #getPage(long, int)
+     */
+    default List<AccountDetailsDto> getDetailsPage(long afterId, int limit) {
+        return getPage(afterId, limit).stream().map(AccountService::toDetails).toList();
+    }
+
+    /**
+     * Streams all the accounts from the data source, ordered by ID, to the given action.
+     * <p>
+     * Accounts are fetched in chunks and detached from the persistence context once the action has
+     * consumed them, so the memory used does not depend on the number of accounts.
+     * </p>
+     *
+     * @param action The action invoked for every account.
+     */
+    void forEachAccount(Consumer<Account> action);
+
+    private static AccountDetailsDto toDetails(Account account) {
+        return new AccountDetailsDto(account.getId(), account.getBalance(), account.getCurrency());
+    }
 }
@@ -1,23 +1,30 @@
 package com.geeksforless.fintech.service;
 
+import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.exception.DuplicateTransferException;
 import com.geeksforless.fintech.exception.InsufficientFundsException;
 import com.geeksforless.fintech.exception.InvalidTransferAmountException;
 import com.geeksforless.fintech.exception.NotFoundException;
 import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.metrics.TransferMetrics;
 import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
 import com.geeksforless.fintech.repository.AccountRepository;
+import com.geeksforless.fintech.util.RetryExceptions;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.NestedRuntimeException;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 /**
@@ -31,10 +38,18 @@ import java.util.Optional;
  * </p>
  */
 @Service
+@ConditionalOnProperty(name = "account.store", havingValue = "jpa", matchIfMissing = true)
 @RequiredArgsConstructor
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
+    private final TransferStrategy transferStrategy;
+    private final EntityManager entityManager;
+    private final TransferMetrics transferMetrics;
+    private final AccountCache accountCache;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final Optional<TransferCoalescer> transferCoalescer;
+    private final Optional<AccountLockManager> accountLockManager;
 
     /**
      * Transfers a specified amount between two accounts.
@@ -44,39 +59,99 @@ public class AccountServiceImpl implements AccountService {
      * - The source account has enough funds for the transfer
      * - Both the source and destination accounts exist
      * </p>
+     * <p>
+     * The amount is validated here, the transfer itself is applied by the configured {@link TransferStrategy},
+     * or together with concurrent transfers of the same hot account by the {@link TransferCoalescer} when
+     * coalescing is enabled. With the {@link AccountLockManager} enabled, the strategy only opens its transaction
+     * once the transfer holds the in-process locks of both accounts.
+     * </p>
      *
      * @param fromAccountId The ID of the account from which the amount will be debited.
      * @param toAccountId   The ID of the account to which the amount will be credited.
-     * @param amount        The amount to be transferred. Must be positive.
+     * @param amount        The amount to be transferred, in the currency of the source account. Must be positive.
      * @throws InvalidTransferAmountException If the specified transfer amount is negative.
      * @throws NotFoundException              If either the source or destination account does not exist.
      * @throws InsufficientFundsException     If the source account does not have enough funds for the transfer.
+     * @throws UnsupportedCurrencyException   If the accounts are in different currencies and one of them has no rate.
      */
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE)
-    @Retryable(
-            value = {NestedRuntimeException.class},
-            maxAttemptsExpression = "${retry.config.maxAttempts}",
-            backoff = @Backoff(delayExpression = "${retry.config.delay}")
-    )
-    public void transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
-
-        if (BigDecimal.ZERO.compareTo(amount) >= 0) {
-            throw new InvalidTransferAmountException("Amount of the transfer must be positive.");
-        }
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount) {
+        transfer(fromAccountId, toAccountId, amount, null);
+    }
 
-        Account fromAccount = findOrThrow(fromAccountId);
-        Account toAccount = findOrThrow(toAccountId);
+    /**
+     * Transfers a specified amount between two accounts at most once per idempotency key.
+     * <p>
+     * A transfer whose key has already been recorded by the {@link IdempotencyKeyStore} is not applied
+     * again and completes normally, as the original transfer did.
+     * </p>
+     *
+     * @param idempotencyKey The key identifying the transfer across client retries, or {@code null}.
+     * @see #transfer(Long, Long, Money)
+     */
+    @Override
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount, String idempotencyKey) {
+        long start = System.nanoTime();
+        TransferStatus status = null;
+        try {
+            status = applyTransfer(fromAccountId, toAccountId, amount, idempotencyKey);
+        } catch (RuntimeException e) {
+            RuntimeException failure = RetryExceptions.unwrap(e);
+            status = statusOf(failure, idempotencyKey);
+            if (status != TransferStatus.DUPLICATE) {
+                throw failure;
+            }
+        } finally {
+            transferMetrics.recordTransfer(fromAccountId, toAccountId, status, System.nanoTime() - start);
+        }
+    }
 
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException("Not enough funds in the account to transfer");
+    private TransferStatus applyTransfer(Long fromAccountId, Long toAccountId, Money amount, String idempotencyKey) {
+        if (!amount.isPositive()) {
+            throw new InvalidTransferAmountException("Amount of the transfer must be positive.");
+        }
+        if (idempotencyKey != null && idempotencyKeyStore.isRecorded(idempotencyKey)) {
+            return TransferStatus.DUPLICATE;
         }
 
-        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
-        toAccount.setBalance(toAccount.getBalance().add(amount));
+        // Keyed transfers bypass coalescing: a duplicate key would roll back the whole group.
+        if (idempotencyKey == null && transferCoalescer.isPresent()) {
+            transferCoalescer.get().transfer(fromAccountId, toAccountId, amount);
+        } else if (accountLockManager.isPresent()) {
+            accountLockManager.get().runLocked(fromAccountId, toAccountId,
+                    () -> transferStrategy.transfer(fromAccountId, toAccountId, amount, idempotencyKey));
+        } else {
+            transferStrategy.transfer(fromAccountId, toAccountId, amount, idempotencyKey);
+        }
+        return TransferStatus.OK;
+    }
 
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
+    /**
+     * Maps the failure of a transfer to its outcome, or {@code null} if the failure is unexpected.
+     * A concurrent transfer with the same idempotency key surfaces as a primary key violation of the key.
+     */
+    private TransferStatus statusOf(Throwable failure, String idempotencyKey) {
+        if (failure instanceof InvalidTransferAmountException) {
+            return TransferStatus.INVALID_AMOUNT;
+        }
+        if (failure instanceof NotFoundException) {
+            return TransferStatus.NOT_FOUND;
+        }
+        if (failure instanceof InsufficientFundsException) {
+            return TransferStatus.INSUFFICIENT_FUNDS;
+        }
+        if (failure instanceof UnsupportedCurrencyException) {
+            return TransferStatus.UNSUPPORTED_CURRENCY;
+        }
+        if (failure instanceof ServerIsOverloadedException) {
+            return TransferStatus.OVERLOADED;
+        }
+        if (failure instanceof DuplicateTransferException
+                || failure instanceof DataIntegrityViolationException
+                && idempotencyKey != null && idempotencyKeyStore.isRecorded(idempotencyKey)) {
+            return TransferStatus.DUPLICATE;
+        }
+        return null;
     }
 
     /**
@@ -84,6 +159,7 @@ public class AccountServiceImpl implements AccountService {
      *
      * <p>
      * If the account with the specified ID does not exist, this method returns Optional.empty().
+     * Accounts are served from the {@link AccountCache}, the returned account is a detached copy.
      * </p>
      *
      * @param accountId The ID of the account to be retrieved.
@@ -91,7 +167,7 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public Optional<Account> get(Long accountId) {
-        return accountRepository.findById(accountId);
+        return accountCache.get(accountId, accountRepository::findById);
     }
 
     /**
@@ -106,34 +182,62 @@ public class AccountServiceImpl implements AccountService {
     }
 
     /**
-     * Recovery method to handle exceptions that occurred after all retry attempts have been exhausted.
+     * Retrieves a page of accounts using keyset pagination.
+     *
+     * @param afterId Only accounts with an ID greater than this one are returned.
+     * @param limit   The maximum number of accounts to return.
+     * @return Up to {@code limit} accounts ordered by ID.
+     */
+    @Override
+    public List<Account> getPage(long afterId, int limit) {
+        return accountRepository.findByIdGreaterThanOrderById(afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Retrieves the details of an account for read-only use.
      * <p>
-     * This method is invoked by the {@code @Retryable} mechanism after it has exhausted all
-     * the retry attempts specified. The primary purpose is to provide a fallback mechanism
-     * or an alternative action when the retries fail.
+     * Served from the {@link AccountCache} like {@link #get(Long)}; on a miss the details are selected
+     * straight into the DTO in a read-only transaction, so no entity is hydrated or snapshotted.
      * </p>
      *
-     * @param e the exception that was thrown during the last retry attempt. This parameter allows
-     *          the recovery method to act based on the nature of the exception or to log it for
-     *          diagnostics.
-     * @throws ServerIsOverloadedException indicating that the server is currently overloaded
-     *                                     and suggesting the client to try again later.
+     * @param accountId The ID of the account to be retrieved.
+     * @return The details of the account or {@code Optional.empty()} if no account is found.
      */
-    @Recover
-    public void recover(NestedRuntimeException e) {
-        throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+    @Override
+    public Optional<AccountDetailsDto> getDetails(Long accountId) {
+        return accountCache.getDetails(accountId, accountRepository::findDetailsById);
     }
 
     /**
-     * Retrieves an {@link Account} by its ID from the repository. If the account
-     * is not found, it throws a {@link NotFoundException}.
+     * Retrieves the details of a page of accounts for read-only use, without loading the entities.
      *
-     * @param toAccountId The ID of the account to retrieve.
-     * @return The retrieved account.
-     * @throws NotFoundException if the account with the specified ID is not found.
+     * @param afterId Only accounts with an ID greater than this one are returned.
+     * @param limit   The maximum number of accounts to return.
+     * @return The details of up to {@code limit} accounts ordered by ID.
      */
-    private Account findOrThrow(Long toAccountId) {
-        return accountRepository.findById(toAccountId)
-                .orElseThrow(() -> new NotFoundException("Account with ID " + toAccountId + " not found"));
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccountDetailsDto> getDetailsPage(long afterId, int limit) {
+        return accountRepository.findDetailsPage(afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Streams all the accounts from the data source, ordered by ID, to the given action.
+     * <p>
+     * The stream is backed by an open cursor, hence the read-only transaction. Every account is detached
+     * right after the action has consumed it so the persistence context does not grow with the table.
+     * </p>
+     *
+     * @param action The action invoked for every account.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachAccount(Consumer<Account> action) {
+        try (Stream<Account> accounts = accountRepository.streamAll()) {
+            accounts.forEach(account -> {
+                action.accept(account);
+                entityManager.detach(account);
+            });
+        }
     }
 }
@@ -0,0 +1,177 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.AsyncTransferDto;
+import com.geeksforless.fintech.dto.AsyncTransferState;
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.exception.UnsupportedIdempotencyKeyException;
+import com.geeksforless.fintech.util.RetryExceptions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies transfers submitted asynchronously on a bounded pool of workers.
+ * <p>
+ * A submitted transfer waits in a queue of {@code transfer.async.queueCapacity} transfers for one of the
+ * {@code transfer.async.threads} workers, which applies it through the {@link AccountService} including its
+ * retries. A submission finding the queue full is rejected right away, so a burst of transfers pushes back
+ * on the clients instead of piling up.
+ * </p>
+ * <p>
+ * The status of a queued or running transfer is always kept; there are at most as many of them as the queue and
+ * the workers hold. Once a transfer is over, its outcome is kept for {@code transfer.async.retentionMillis}, for at
+ * most {@code transfer.async.maxTracked} transfers.
+ * </p>
+ * <p>
+ * The queue is published as the {@code transfer.async.queue.depth} gauge and the time transfers spend in it
+ * as the {@code transfer.async.wait} timer.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AsyncTransferService {
+
+    private final AccountService accountService;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String, AsyncTransferDto> inProgress = new ConcurrentHashMap<>();
+    private final Cache<String, AsyncTransferDto> finished;
+    private final Timer waitTimer;
+
+    public AsyncTransferService(AccountService accountService,
+                                MeterRegistry meterRegistry,
+                                @Value("${transfer.async.threads}") int threads,
+                                @Value("${transfer.async.queueCapacity}") int queueCapacity,
+                                @Value("${transfer.async.retentionMillis}") long retentionMillis,
+                                @Value("${transfer.async.maxTracked}") long maxTracked) {
+        this.accountService = accountService;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("async-transfer-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.finished = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterWrite(Duration.ofMillis(retentionMillis))
+                .build();
+        Gauge.builder("transfer.async.queue.depth", executor, e -> e.getQueue().size())
+                .description("Transfers submitted asynchronously waiting for a worker")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("transfer.async.wait")
+                .description("Time a transfer submitted asynchronously waited for a worker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a transfer to be applied by a worker.
+     *
+     * @param transferDto    The details of the transfer.
+     * @param idempotencyKey The key identifying the transfer across client retries, or {@code null}.
+     * @return The status of the queued transfer, carrying the ID to poll it with.
+     * @throws ServerIsOverloadedException If the queue is full.
+     */
+    public AsyncTransferDto submit(MoneyTransferDto transferDto, String idempotencyKey) {
+        String id = UUID.randomUUID().toString();
+        AsyncTransferDto queued = new AsyncTransferDto(id, AsyncTransferState.QUEUED, null, null);
+        inProgress.put(id, queued);
+        long submittedAt = System.nanoTime();
+        try {
+            executor.execute(() -> process(id, transferDto, idempotencyKey, submittedAt));
+        } catch (RejectedExecutionException e) {
+            inProgress.remove(id);
+            throw new ServerIsOverloadedException("Too many transfers in progress. Please try again later.");
+        }
+        return queued;
+    }
+
+    /**
+     * Retrieves the status of a transfer submitted asynchronously.
+     *
+     * @param id The ID returned when the transfer was submitted.
+     * @return The status of the transfer or {@code Optional.empty()} if it is unknown or no longer retained.
+     */
+    public Optional<AsyncTransferDto> get(String id) {
+        AsyncTransferDto transfer = inProgress.get(id);
+        return Optional.ofNullable(transfer != null ? transfer : finished.getIfPresent(id));
+    }
+
+    private void process(String id, MoneyTransferDto transferDto, String idempotencyKey, long submittedAt) {
+        waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        inProgress.put(id, new AsyncTransferDto(id, AsyncTransferState.RUNNING, null, null));
+        AsyncTransferDto result;
+        try {
+            accountService.transfer(transferDto.getFromAccountId(), transferDto.getToAccountId(),
+                    transferDto.getAmount(), idempotencyKey);
+            result = new AsyncTransferDto(id, AsyncTransferState.COMPLETED, TransferStatus.OK, null);
+        } catch (RuntimeException e) {
+            RuntimeException failure = RetryExceptions.unwrap(e);
+            TransferStatus status = statusOf(failure);
+            if (status == null) {
+                log.error("Asynchronous transfer {} failed", id, failure);
+                result = new AsyncTransferDto(id, AsyncTransferState.FAILED, null, failure.getMessage());
+            } else {
+                result = new AsyncTransferDto(id, AsyncTransferState.COMPLETED, status, failure.getMessage());
+            }
+        }
+        // Retained before it leaves the in-progress map, so that polling never misses the transfer.
+        finished.put(id, result);
+        inProgress.remove(id);
+    }
+
+    /**
+     * Maps the failure of a transfer to its outcome, or {@code null} if the failure is unexpected.
+     */
+    private static TransferStatus statusOf(RuntimeException failure) {
+        if (failure instanceof InvalidTransferAmountException) {
+            return TransferStatus.INVALID_AMOUNT;
+        }
+        if (failure instanceof NotFoundException) {
+            return TransferStatus.NOT_FOUND;
+        }
+        if (failure instanceof InsufficientFundsException) {
+            return TransferStatus.INSUFFICIENT_FUNDS;
+        }
+        if (failure instanceof UnsupportedCurrencyException) {
+            return TransferStatus.UNSUPPORTED_CURRENCY;
+        }
+        if (failure instanceof UnsupportedIdempotencyKeyException) {
+            return TransferStatus.UNSUPPORTED_IDEMPOTENCY_KEY;
+        }
+        if (failure instanceof ServerIsOverloadedException) {
+            return TransferStatus.OVERLOADED;
+        }
+        return null;
+    }
+
+    /**
+     * Stops accepting transfers and lets the workers finish the queued ones.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} asynchronous transfers were not processed before shutdown", executor.shutdownNow().size());
+        }
+    }
+}
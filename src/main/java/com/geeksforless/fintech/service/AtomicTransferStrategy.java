@@ -0,0 +1,120 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Atomic-update {@link TransferStrategy} ({@code transfer.mode=atomic}).
+ * <p>
+ * The whole transfer is two single-statement updates, a conditional debit and a credit, and its outcome
+ * is decided from the affected-row counts. No account is loaded into the persistence context, so there
+ * is neither a read-modify-write window nor dirty checking. The updates are issued in ascending ID order
+ * so opposing transfers cannot deadlock on the row locks. Only a lock wait timeout is retried, with the
+ * backoff configured by {@code retry.lock.*}.
+ * </p>
+ * <p>
+ * The currencies of the accounts, needed to convert the credit of a cross-currency transfer, are read through
+ * the {@link AccountCache}. A currency never changes, so once cached it is not read from the row again.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.mode", havingValue = "atomic")
+@RequiredArgsConstructor
+public class AtomicTransferStrategy implements TransferStrategy {
+
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccountCache accountCache;
+    private final FxRateProvider fxRateProvider;
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @Retryable(
+            value = {PessimisticLockingFailureException.class},
+            maxAttemptsExpression = "${retry.lock.maxAttempts}",
+            backoff = @Backoff(delayExpression = "${retry.lock.delay}")
+    )
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount, String idempotencyKey) {
+
+        Money creditedAmount = fxRateProvider.convert(amount, currencyOf(fromAccountId), currencyOf(toAccountId));
+        if (fromAccountId.compareTo(toAccountId) <= 0) {
+            debitOrThrow(fromAccountId, amount);
+            creditOrThrow(toAccountId, creditedAmount);
+        } else {
+            creditOrThrow(toAccountId, creditedAmount);
+            debitOrThrow(fromAccountId, amount);
+        }
+        eventPublisher.publishEvent(new TransferAppliedEvent(fromAccountId, toAccountId, amount, creditedAmount,
+                idempotencyKey));
+    }
+
+    /**
+     * Recovery method invoked when the row locks could not be acquired after all retry attempts have been exhausted.
+     *
+     * @param e the locking failure of the last attempt.
+     * @throws ServerIsOverloadedException indicating that the accounts are too contended at the moment
+     *                                     and suggesting the client to try again later.
+     */
+    @Recover
+    public void recover(PessimisticLockingFailureException e) {
+        throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+    }
+
+    /**
+     * Recovery method of the exceptions that are not retried, such as {@link NotFoundException} or
+     * {@link InsufficientFundsException}. It rethrows them as they are, otherwise the retry interceptor would
+     * wrap them into an {@code ExhaustedRetryException} for the lack of a recovery method.
+     *
+     * @param e the exception thrown by the transfer.
+     */
+    @Recover
+    public void recover(RuntimeException e) {
+        throw e;
+    }
+
+    /**
+     * Returns the currency of the account, from the cache when it was read before.
+     */
+    private String currencyOf(Long accountId) {
+        return accountCache.currencyOf(accountId, accountRepository::findCurrencyById)
+                .orElseThrow(() -> new NotFoundException("Account with ID " + accountId + " not found"));
+    }
+
+    /**
+     * Debits the account. When no row was updated, one extra lookup tells a missing account apart from
+     * insufficient funds; the exception rolls back an already applied credit.
+     */
+    private void debitOrThrow(Long accountId, Money amount) {
+        if (accountRepository.debit(accountId, amount.toMinorUnits(Money.DEFAULT_SCALE)) == 0) {
+            if (!accountRepository.existsById(accountId)) {
+                throw new NotFoundException("Account with ID " + accountId + " not found");
+            }
+            throw new InsufficientFundsException("Not enough funds in the account to transfer");
+        }
+    }
+
+    /**
+     * Credits the account. When no row was updated the account does not exist; the exception rolls back
+     * an already applied debit.
+     */
+    private void creditOrThrow(Long accountId, Money amount) {
+        if (accountRepository.credit(accountId, amount.toMinorUnits(Money.DEFAULT_SCALE)) == 0) {
+            throw new NotFoundException("Account with ID " + accountId + " not found");
+        }
+    }
+}
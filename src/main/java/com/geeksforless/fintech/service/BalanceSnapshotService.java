@@ -0,0 +1,176 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.AccountBalanceDto;
+import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.model.BalanceSnapshot;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import com.geeksforless.fintech.repository.BalanceSnapshotRepository;
+import com.geeksforless.fintech.repository.TransferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checkpoints account balances periodically and answers point-in-time balance queries from them.
+ * <p>
+ * Every {@code snapshot.intervalMillis} a checkpoint is taken as of {@code snapshot.lagMillis} ago, which is
+ * assumed to be longer than any transfer transaction, so every transfer recorded before the checkpoint time
+ * has committed. The first checkpoint covers all accounts, the following ones only the accounts the
+ * transfer history shows as changed since the previous checkpoint. Accounts are checkpointed in chunks of
+ * {@code snapshot.chunkSize}: each chunk reads the current balances and the transfers applied after the
+ * checkpoint time in one read-only {@code REPEATABLE_READ} transaction, so both come from the same
+ * consistent view and no row is locked. Transfers are never blocked.
+ * </p>
+ * <p>
+ * The balance at time T is the latest snapshot taken at or before T plus the transfers applied between the
+ * two, or, for an account without such a snapshot, its current balance minus the transfers applied after T.
+ * Like the transfer history, this covers the database-backed account store only.
+ * </p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "account.store", havingValue = "jpa", matchIfMissing = true)
+public class BalanceSnapshotService {
+
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final Clock clock;
+    private final TransactionTemplate snapshotTransaction;
+    private final Duration lag;
+    private final int chunkSize;
+
+    /**
+     * The time of the previous checkpoint, {@code null} until it is known.
+     */
+    private volatile Instant lastTakenAt;
+
+    public BalanceSnapshotService(AccountRepository accountRepository,
+                                  TransferRepository transferRepository,
+                                  BalanceSnapshotRepository balanceSnapshotRepository,
+                                  Clock clock,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${snapshot.lagMillis}") long lagMillis,
+                                  @Value("${snapshot.chunkSize}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("snapshot.chunkSize must be positive");
+        }
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.clock = clock;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.lag = Duration.ofMillis(lagMillis);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Takes a checkpoint of the balances changed since the previous one, or of all balances if there is none.
+     *
+     * @return the number of accounts written to the checkpoint.
+     */
+    @Scheduled(fixedDelayString = "${snapshot.intervalMillis}")
+    public int takeSnapshot() {
+        Instant takenAt = clock.instant().minus(lag).truncatedTo(ChronoUnit.MICROS);
+        Instant previous = lastTakenAt != null ? lastTakenAt : balanceSnapshotRepository.findLatestTakenAt().orElse(null);
+        if (previous != null && !previous.isBefore(takenAt)) {
+            return 0;
+        }
+
+        int written = 0;
+        if (previous == null) {
+            long afterId = 0;
+            List<BalanceSnapshot> snapshots;
+            do {
+                long from = afterId;
+                snapshots = snapshotTransaction.execute(status -> checkpoint(
+                        accountRepository.findDetailsPage(from, PageRequest.of(0, chunkSize)), takenAt));
+                if (!snapshots.isEmpty()) {
+                    balanceSnapshotRepository.saveAll(snapshots);
+                    afterId = snapshots.get(snapshots.size() - 1).getAccountId();
+                    written += snapshots.size();
+                }
+            } while (snapshots.size() == chunkSize);
+        } else {
+            List<Long> changed = transferRepository.findAccountsChangedBetween(previous, takenAt);
+            for (int start = 0; start < changed.size(); start += chunkSize) {
+                List<Long> ids = changed.subList(start, Math.min(start + chunkSize, changed.size()));
+                List<BalanceSnapshot> snapshots = snapshotTransaction.execute(
+                        status -> checkpoint(accountRepository.findDetailsByIdIn(ids), takenAt));
+                balanceSnapshotRepository.saveAll(snapshots);
+                written += snapshots.size();
+            }
+        }
+        lastTakenAt = takenAt;
+        log.debug("Checkpointed {} account balances as of {}", written, takenAt);
+        return written;
+    }
+
+    /**
+     * Retrieves the balance of an account at a point in time.
+     *
+     * @param accountId The ID of the account.
+     * @param at        The point in time.
+     * @return The balance of the account at that time.
+     * @throws NotFoundException If the account does not exist.
+     */
+    public AccountBalanceDto getBalanceAt(Long accountId, Instant at) {
+        Money balance = balanceSnapshotRepository.findFirstByAccountIdAndTakenAtLessThanEqualOrderByTakenAtDesc(accountId, at)
+                .map(snapshot -> snapshot.getBalance().plus(netChange(accountId, snapshot.getTakenAt(), at)))
+                .orElseGet(() -> snapshotTransaction.execute(status -> accountRepository.findDetailsById(accountId)
+                        .orElseThrow(() -> new NotFoundException("Account with ID " + accountId + " not found"))
+                        .getBalance()
+                        .minus(netChange(accountId, at, TransferHistoryService.END_OF_TIME))));
+        return new AccountBalanceDto(accountId, balance, at);
+    }
+
+    /**
+     * Computes the snapshots of the given accounts: their current balance less the transfers applied after
+     * the checkpoint time. Must run in the snapshot transaction, the snapshots are written once it has ended.
+     *
+     * @return the snapshots, in the order of the accounts.
+     */
+    private List<BalanceSnapshot> checkpoint(List<AccountDetailsDto> accounts, Instant takenAt) {
+        if (accounts.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = accounts.stream().map(AccountDetailsDto::getId).toList();
+        Map<Long, Long> changes = new HashMap<>();
+        transferRepository.sumCreditsAfter(ids, takenAt)
+                .forEach(credit -> changes.merge(credit.getAccountId(), credit.getAmount(), Long::sum));
+        transferRepository.sumDebitsAfter(ids, takenAt)
+                .forEach(debit -> changes.merge(debit.getAccountId(), -debit.getAmount(), Long::sum));
+
+        return accounts.stream()
+                .map(account -> new BalanceSnapshot(account.getId(), takenAt, account.getBalance()
+                        .minus(Money.ofMinorUnits(changes.getOrDefault(account.getId(), 0L)))))
+                .toList();
+    }
+
+    /**
+     * The net amount transferred to an account in the period {@code (after, until]}.
+     */
+    private Money netChange(Long accountId, Instant after, Instant until) {
+        return Money.ofMinorUnits(Math.subtractExact(
+                transferRepository.sumCredits(accountId, after, until),
+                transferRepository.sumDebits(accountId, after, until)));
+    }
+}
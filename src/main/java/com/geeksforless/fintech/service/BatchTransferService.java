@@ -0,0 +1,29 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+
+import java.util.List;
+
+/**
+ * Represents the service interface for applying many transfers at once.
+ * <p>
+ * Unlike {@link AccountService#transfer(Long, Long, com.geeksforless.fintech.money.Money)}, a failing transfer does not
+ * fail the whole request: every transfer gets its own {@link TransferStatus}.
+ * </p>
+ */
+public interface BatchTransferService {
+
+    /**
+     * Applies the transfers in the given order.
+     * <p>
+     * Transfers are processed in chunks, each chunk within a single transaction. Transfers that cannot be
+     * applied (invalid amount, unknown account, insufficient funds) are skipped without affecting the
+     * rest of the batch.
+     * </p>
+     *
+     * @param transfers The transfers to apply.
+     * @return The status of every transfer, in the order of {@code transfers}.
+     */
+    List<TransferStatus> transfer(List<MoneyTransferDto> transfers);
+}
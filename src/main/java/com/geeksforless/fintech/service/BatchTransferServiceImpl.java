@@ -0,0 +1,205 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.DuplicateTransferException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies batches of transfers chunk by chunk, one transaction per chunk.
+ * <p>
+ * All accounts of a chunk are write-locked with a single query in ascending ID order, the transfers are
+ * applied to the loaded accounts in submission order and the changed accounts are written back at commit
+ * as batched updates ({@code hibernate.jdbc.batch_size}). Business failures are detected before touching
+ * an account, so they never roll back the chunk.
+ * </p>
+ * <p>
+ * A chunk rolled back by a concurrent transfer is applied again: after a lock timeout up to
+ * {@code retry.lock.maxAttempts} times, {@code retry.lock.delay} milliseconds apart, and right away after a
+ * concurrent transfer committed one of its idempotency keys first, that transfer being reported as
+ * {@link TransferStatus#DUPLICATE}.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "account.store", havingValue = "jpa", matchIfMissing = true)
+public class BatchTransferServiceImpl implements BatchTransferService {
+
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final FxRateProvider fxRateProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int lockMaxAttempts;
+    private final long lockDelayNanos;
+
+    public BatchTransferServiceImpl(AccountRepository accountRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    IdempotencyKeyStore idempotencyKeyStore,
+                                    FxRateProvider fxRateProvider,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${transfer.batch.chunkSize}") int chunkSize,
+                                    @Value("${retry.lock.maxAttempts}") int lockMaxAttempts,
+                                    @Value("${retry.lock.delay}") long lockDelayMillis) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("transfer.batch.chunkSize must be positive");
+        }
+        this.accountRepository = accountRepository;
+        this.eventPublisher = eventPublisher;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.fxRateProvider = fxRateProvider;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.chunkSize = chunkSize;
+        this.lockMaxAttempts = lockMaxAttempts;
+        this.lockDelayNanos = TimeUnit.MILLISECONDS.toNanos(lockDelayMillis);
+    }
+
+    @Override
+    public List<TransferStatus> transfer(List<MoneyTransferDto> transfers) {
+        List<TransferStatus> statuses = new ArrayList<>(transfers.size());
+        for (int start = 0; start < transfers.size(); start += chunkSize) {
+            List<MoneyTransferDto> chunk = transfers.subList(start, Math.min(start + chunkSize, transfers.size()));
+            statuses.addAll(transferChunk(chunk));
+        }
+        return statuses;
+    }
+
+    /**
+     * Applies a chunk of transfers within one transaction, applying it again when a concurrent transfer rolled it back.
+     * If the accounts of the chunk still cannot be locked after {@code retry.lock.maxAttempts} attempts, or the
+     * chunk fails for another reason than one of its idempotency keys being committed concurrently, all its
+     * transfers are reported as {@link TransferStatus#OVERLOADED}.
+     */
+    private List<TransferStatus> transferChunk(List<MoneyTransferDto> chunk) {
+        Set<String> duplicateKeys = new HashSet<>();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> applyChunk(chunk, duplicateKeys));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= lockMaxAttempts) {
+                    return Collections.nCopies(chunk.size(), TransferStatus.OVERLOADED);
+                }
+                LockSupport.parkNanos(this, lockDelayNanos);
+            } catch (DataIntegrityViolationException | DuplicateTransferException e) {
+                // The keys committed in the meantime are the ones that collided, unless none was.
+                if (!addRecordedKeys(chunk, duplicateKeys)) {
+                    return Collections.nCopies(chunk.size(), TransferStatus.OVERLOADED);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the idempotency keys of the chunk recorded since they were last checked to the given keys.
+     *
+     * @return whether any key was added.
+     */
+    private boolean addRecordedKeys(List<MoneyTransferDto> chunk, Set<String> duplicateKeys) {
+        boolean added = false;
+        for (MoneyTransferDto transfer : chunk) {
+            String idempotencyKey = transfer.getIdempotencyKey();
+            if (idempotencyKey != null && !duplicateKeys.contains(idempotencyKey)
+                    && idempotencyKeyStore.isRecorded(idempotencyKey)) {
+                added |= duplicateKeys.add(idempotencyKey);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Applies the transfers of a chunk to its write-locked accounts.
+     *
+     * @param duplicateKeys the idempotency keys of the chunk found to be committed by concurrent transfers.
+     */
+    private List<TransferStatus> applyChunk(List<MoneyTransferDto> chunk, Set<String> duplicateKeys) {
+        Set<Long> accountIds = new HashSet<>();
+        for (MoneyTransferDto transfer : chunk) {
+            accountIds.add(transfer.getFromAccountId());
+            accountIds.add(transfer.getToAccountId());
+        }
+        Map<Long, Account> accounts = accountRepository.findAllByIdForUpdate(accountIds)
+                .stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        List<TransferStatus> statuses = new ArrayList<>(chunk.size());
+        Set<String> idempotencyKeys = new HashSet<>(duplicateKeys);
+        for (MoneyTransferDto transfer : chunk) {
+            statuses.add(apply(transfer, accounts, idempotencyKeys));
+        }
+        return statuses;
+    }
+
+    /**
+     * Applies a single transfer to the locked accounts.
+     *
+     * @param idempotencyKeys the idempotency keys of the transfers of the chunk applied so far, and the ones
+     *                        committed by concurrent transfers.
+     */
+    private TransferStatus apply(MoneyTransferDto transfer, Map<Long, Account> accounts, Set<String> idempotencyKeys) {
+        Money amount = transfer.getAmount();
+        if (!amount.isPositive()) {
+            return TransferStatus.INVALID_AMOUNT;
+        }
+
+        String idempotencyKey = transfer.getIdempotencyKey();
+        if (idempotencyKey != null
+                && (idempotencyKeys.contains(idempotencyKey) || idempotencyKeyStore.isRecorded(idempotencyKey))) {
+            return TransferStatus.DUPLICATE;
+        }
+
+        Account fromAccount = accounts.get(transfer.getFromAccountId());
+        Account toAccount = accounts.get(transfer.getToAccountId());
+        if (fromAccount == null || toAccount == null) {
+            return TransferStatus.NOT_FOUND;
+        }
+
+        if (fromAccount.getBalance().isLessThan(amount)) {
+            return TransferStatus.INSUFFICIENT_FUNDS;
+        }
+
+        Money creditedAmount;
+        try {
+            creditedAmount = fxRateProvider.convert(amount, fromAccount.getCurrency(), toAccount.getCurrency());
+        } catch (UnsupportedCurrencyException e) {
+            return TransferStatus.UNSUPPORTED_CURRENCY;
+        } catch (InvalidTransferAmountException e) {
+            return TransferStatus.INVALID_AMOUNT;
+        }
+
+        fromAccount.setBalance(fromAccount.getBalance().minus(amount));
+        toAccount.setBalance(toAccount.getBalance().plus(creditedAmount));
+        eventPublisher.publishEvent(new TransferAppliedEvent(
+                transfer.getFromAccountId(), transfer.getToAccountId(), amount, creditedAmount, idempotencyKey));
+        if (idempotencyKey != null) {
+            idempotencyKeys.add(idempotencyKey);
+        }
+        return TransferStatus.OK;
+    }
+}
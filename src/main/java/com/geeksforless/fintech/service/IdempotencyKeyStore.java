@@ -0,0 +1,128 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.DuplicateTransferException;
+import com.geeksforless.fintech.model.IdempotencyKey;
+import com.geeksforless.fintech.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Records the idempotency keys of applied transfers.
+ * <p>
+ * A key is inserted into the {@code IdempotencyKey} table in the transaction of its transfer, so it is
+ * recorded exactly when the balance change commits. The insert is flushed with the rest of the transaction,
+ * so the keys of a batch are written as one JDBC batch. Two concurrent transfers with the same key collide
+ * on the primary key and only one of them commits; transfers with different keys never wait for each other.
+ * Committed keys are also kept in a bounded in-memory LRU, so most duplicates are answered without a
+ * database round-trip. Keys older than {@code idempotency.ttlMillis} are deleted in background batches.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "account.store", havingValue = "jpa", matchIfMissing = true)
+public class IdempotencyKeyStore {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Clock clock;
+    private final Duration ttl;
+    private final int sweepBatchSize;
+    private final Cache<String, Boolean> recentKeys;
+
+    public IdempotencyKeyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                               Clock clock,
+                               @Value("${idempotency.ttlMillis}") long ttlMillis,
+                               @Value("${idempotency.cacheSize}") long cacheSize,
+                               @Value("${idempotency.sweepBatchSize}") int sweepBatchSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.clock = clock;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.sweepBatchSize = sweepBatchSize;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Tells whether a transfer with the given key has already been applied.
+     */
+    public boolean isRecorded(String idempotencyKey) {
+        if (recentKeys.getIfPresent(idempotencyKey) != null) {
+            return true;
+        }
+        if (exists(idempotencyKey)) {
+            recentKeys.put(idempotencyKey, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Inserts the key of an applied transfer within the transfer's transaction.
+     *
+     * @throws DuplicateTransferException if the key has been committed in the meantime, e.g. by a concurrent
+     *                                    transfer with the same key whose commit made this one retry.
+     */
+    @EventListener
+    public void onTransferApplied(TransferAppliedEvent event) {
+        String idempotencyKey = event.getIdempotencyKey();
+        if (idempotencyKey == null) {
+            return;
+        }
+        if (exists(idempotencyKey)) {
+            throw new DuplicateTransferException("Transfer with idempotency key " + idempotencyKey + " was already applied");
+        }
+        // Not flushed on its own: a concurrent transfer with the same key still fails on the primary key at commit.
+        idempotencyKeyRepository.save(new IdempotencyKey(idempotencyKey, clock.instant()));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentKeys.put(idempotencyKey, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    /**
+     * Looks the key up by primary key rather than with a query, which would first flush the keys inserted
+     * earlier in the transaction one by one.
+     */
+    private boolean exists(String idempotencyKey) {
+        return idempotencyKeyRepository.findById(idempotencyKey).isPresent();
+    }
+
+    /**
+     * Deletes the expired keys in batches of {@code idempotency.sweepBatchSize}, one transaction per batch.
+     *
+     * @return the number of deleted keys.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.sweepMillis}")
+    public int sweep() {
+        Instant before = clock.instant().minus(ttl);
+        int deleted = 0;
+        List<String> expired;
+        do {
+            expired = idempotencyKeyRepository.findKeysCreatedBefore(before, PageRequest.of(0, sweepBatchSize));
+            if (!expired.isEmpty()) {
+                idempotencyKeyRepository.deleteAllByIdInBatch(expired);
+                deleted += expired.size();
+            }
+        } while (expired.size() == sweepBatchSize);
+        return deleted;
+    }
+}
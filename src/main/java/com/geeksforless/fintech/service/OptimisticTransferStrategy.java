@@ -0,0 +1,108 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+/**
+ * Optimistic {@link TransferStrategy} ({@code transfer.mode=optimistic}).
+ * <p>
+ * Runs transfers at {@code READ_COMMITTED} and relies on the {@link Account#getVersion() version} column
+ * to detect concurrent updates of the same account. A conflicting transfer is retried almost immediately
+ * with a jittered exponential backoff configured by {@code retry.optimistic.*}, so a hot account pair is
+ * not throttled to one transfer per backoff delay.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.mode", havingValue = "optimistic")
+@RequiredArgsConstructor
+public class OptimisticTransferStrategy implements TransferStrategy {
+
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FxRateProvider fxRateProvider;
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @Retryable(
+            value = {OptimisticLockingFailureException.class},
+            maxAttemptsExpression = "${retry.optimistic.maxAttempts}",
+            backoff = @Backoff(
+                    delayExpression = "${retry.optimistic.delay}",
+                    maxDelayExpression = "${retry.optimistic.maxDelay}",
+                    multiplierExpression = "${retry.optimistic.multiplier}",
+                    random = true
+            )
+    )
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount, String idempotencyKey) {
+
+        Account fromAccount = findOrThrow(fromAccountId);
+        Account toAccount = findOrThrow(toAccountId);
+
+        if (fromAccount.getBalance().isLessThan(amount)) {
+            throw new InsufficientFundsException("Not enough funds in the account to transfer");
+        }
+        Money creditedAmount = fxRateProvider.convert(amount, fromAccount.getCurrency(), toAccount.getCurrency());
+
+        fromAccount.setBalance(fromAccount.getBalance().minus(amount));
+        toAccount.setBalance(toAccount.getBalance().plus(creditedAmount));
+
+        // Flushing here makes a stale version surface from the repository call as a translated
+        // OptimisticLockingFailureException instead of from the commit.
+        accountRepository.saveAllAndFlush(List.of(fromAccount, toAccount));
+        eventPublisher.publishEvent(new TransferAppliedEvent(fromAccountId, toAccountId, amount, creditedAmount, idempotencyKey));
+    }
+
+    /**
+     * Recovery method invoked when the transfer still conflicts after all retry attempts have been exhausted.
+     *
+     * @param e the optimistic locking failure of the last attempt.
+     * @throws ServerIsOverloadedException indicating that the accounts are too contended at the moment
+     *                                     and suggesting the client to try again later.
+     */
+    @Recover
+    public void recover(OptimisticLockingFailureException e) {
+        throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+    }
+
+    /**
+     * Recovery method of the exceptions that are not retried, such as {@link NotFoundException} or
+     * {@link InsufficientFundsException}. It rethrows them as they are, otherwise the retry interceptor would
+     * wrap them into an {@code ExhaustedRetryException} for the lack of a recovery method.
+     *
+     * @param e the exception thrown by the transfer.
+     */
+    @Recover
+    public void recover(RuntimeException e) {
+        throw e;
+    }
+
+    /**
+     * Retrieves an {@link Account} by its ID from the repository. If the account
+     * is not found, it throws a {@link NotFoundException}.
+     *
+     * @param accountId The ID of the account to retrieve.
+     * @return The retrieved account.
+     * @throws NotFoundException if the account with the specified ID is not found.
+     */
+    private Account findOrThrow(Long accountId) {
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new NotFoundException("Account with ID " + accountId + " not found"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+/**
+ * Pessimistic {@link TransferStrategy} ({@code transfer.mode=pessimistic}).
+ * <p>
+ * Write-locks both account rows with a single query before reading the balances. The rows are always
+ * locked in ascending ID order regardless of the transfer direction, so opposing transfers (A to B and
+ * B to A) queue on the row locks instead of being aborted by the database. Only a lock wait timeout is
+ * retried, with the backoff configured by {@code retry.lock.*}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.mode", havingValue = "pessimistic")
+@RequiredArgsConstructor
+public class PessimisticTransferStrategy implements TransferStrategy {
+
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FxRateProvider fxRateProvider;
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    @Retryable(
+            value = {PessimisticLockingFailureException.class},
+            maxAttemptsExpression = "${retry.lock.maxAttempts}",
+            backoff = @Backoff(delayExpression = "${retry.lock.delay}")
+    )
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount, String idempotencyKey) {
+
+        List<Account> lockedAccounts = accountRepository.findAllByIdForUpdate(List.of(fromAccountId, toAccountId));
+        Account fromAccount = findOrThrow(lockedAccounts, fromAccountId);
+        Account toAccount = findOrThrow(lockedAccounts, toAccountId);
+
+        if (fromAccount.getBalance().isLessThan(amount)) {
+            throw new InsufficientFundsException("Not enough funds in the account to transfer");
+        }
+        Money creditedAmount = fxRateProvider.convert(amount, fromAccount.getCurrency(), toAccount.getCurrency());
+
+        fromAccount.setBalance(fromAccount.getBalance().minus(amount));
+        toAccount.setBalance(toAccount.getBalance().plus(creditedAmount));
+
+        accountRepository.save(fromAccount);
+        accountRepository.save(toAccount);
+        eventPublisher.publishEvent(new TransferAppliedEvent(fromAccountId, toAccountId, amount, creditedAmount, idempotencyKey));
+    }
+
+    /**
+     * Recovery method invoked when the row locks could not be acquired after all retry attempts have been exhausted.
+     *
+     * @param e the locking failure of the last attempt.
+     * @throws ServerIsOverloadedException indicating that the accounts are too contended at the moment
+     *                                     and suggesting the client to try again later.
+     */
+    @Recover
+    public void recover(PessimisticLockingFailureException e) {
+        throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+    }
+
+    /**
+     * Recovery method of the exceptions that are not retried, such as {@link NotFoundException} or
+     * {@link InsufficientFundsException}. It rethrows them as they are, otherwise the retry interceptor would
+     * wrap them into an {@code ExhaustedRetryException} for the lack of a recovery method.
+     *
+     * @param e the exception thrown by the transfer.
+     */
+    @Recover
+    public void recover(RuntimeException e) {
+        throw e;
+    }
+
+    /**
+     * Picks the account with the given ID out of the locked accounts. If the account
+     * is not among them, it throws a {@link NotFoundException}.
+     *
+     * @param lockedAccounts The accounts returned by the locking query.
+     * @param accountId      The ID of the account to pick.
+     * @return The locked account.
+     * @throws NotFoundException if the account with the specified ID is not found.
+     */
+    private Account findOrThrow(List<Account> lockedAccounts, Long accountId) {
+        return lockedAccounts.stream()
+                .filter(account -> account.getId().equals(accountId))
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Account with ID " + accountId + " not found"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Default {@link TransferStrategy} ({@code transfer.mode=serializable}).
+ * <p>
+ * Runs every transfer in a {@code SERIALIZABLE} transaction and lets the database abort conflicting ones.
+ * Aborted transfers are retried with a fixed delay configured by {@code retry.config.*}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.mode", havingValue = "serializable", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SerializableTransferStrategy implements TransferStrategy {
+
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FxRateProvider fxRateProvider;
+
+    @Override
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Retryable(
+            value = {NestedRuntimeException.class},
+            maxAttemptsExpression = "${retry.config.maxAttempts}",
+            backoff = @Backoff(delayExpression = "${retry.config.delay}")
+    )
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount, String idempotencyKey) {
+
+        Account fromAccount = findOrThrow(fromAccountId);
+        Account toAccount = findOrThrow(toAccountId);
+
+        if (fromAccount.getBalance().isLessThan(amount)) {
+            throw new InsufficientFundsException("Not enough funds in the account to transfer");
+        }
+        Money creditedAmount = fxRateProvider.convert(amount, fromAccount.getCurrency(), toAccount.getCurrency());
+
+        fromAccount.setBalance(fromAccount.getBalance().minus(amount));
+        toAccount.setBalance(toAccount.getBalance().plus(creditedAmount));
+
+        accountRepository.save(fromAccount);
+        accountRepository.save(toAccount);
+        eventPublisher.publishEvent(new TransferAppliedEvent(fromAccountId, toAccountId, amount, creditedAmount, idempotencyKey));
+    }
+
+    /**
+     * Recovery method to handle exceptions that occurred after all retry attempts have been exhausted.
+     * <p>
+     * This method is invoked by the {@code @Retryable} mechanism after it has exhausted all
+     * the retry attempts specified. The primary purpose is to provide a fallback mechanism
+     * or an alternative action when the retries fail.
+     * </p>
+     *
+     * @param e the exception that was thrown during the last retry attempt. This parameter allows
+     *          the recovery method to act based on the nature of the exception or to log it for
+     *          diagnostics.
+     * @throws ServerIsOverloadedException indicating that the server is currently overloaded
+     *                                     and suggesting the client to try again later.
+     */
+    @Recover
+    public void recover(NestedRuntimeException e) {
+        throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+    }
+
+    /**
+     * Recovery method of the exceptions that are not retried, such as {@link NotFoundException} or
+     * {@link InsufficientFundsException}. It rethrows them as they are, otherwise the retry interceptor would
+     * wrap them into an {@code ExhaustedRetryException} for the lack of a recovery method.
+     *
+     * @param e the exception thrown by the transfer.
+     */
+    @Recover
+    public void recover(RuntimeException e) {
+        throw e;
+    }
+
+    /**
+     * Retrieves an {@link Account} by its ID from the repository. If the account
+     * is not found, it throws a {@link NotFoundException}.
+     *
+     * @param accountId The ID of the account to retrieve.
+     * @return The retrieved account.
+     * @throws NotFoundException if the account with the specified ID is not found.
+     */
+    private Account findOrThrow(Long accountId) {
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new NotFoundException("Account with ID " + accountId + " not found"));
+    }
+}
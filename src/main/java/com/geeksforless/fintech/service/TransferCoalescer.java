@@ -0,0 +1,157 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces concurrent transfers of the same hot account into groups applied in one transaction
+ * ({@code transfer.coalescing.enabled=true}).
+ * <p>
+ * Transfers are grouped by their destination account, or by their source account with
+ * {@code transfer.coalescing.key=source}. The first transfer of a group waits
+ * {@code transfer.coalescing.windowMicros} for others to join, then applies the whole group through the
+ * {@link BatchTransferService}: the accounts are locked once, the transfers are applied one by one in
+ * arrival order, so every debit is still checked against the funds left by the transfers before it, and
+ * the hot account is written once with its net balance. Every caller gets the outcome of its own transfer.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.coalescing.enabled", havingValue = "true")
+public class TransferCoalescer {
+
+    private final BatchTransferService batchTransferService;
+    private final boolean bySource;
+    private final long windowNanos;
+    private final int maxGroupSize;
+    private final ConcurrentHashMap<Long, Group> groups = new ConcurrentHashMap<>();
+
+    public TransferCoalescer(BatchTransferService batchTransferService,
+                             @Value("${transfer.coalescing.key}") String key,
+                             @Value("${transfer.coalescing.windowMicros}") long windowMicros,
+                             @Value("${transfer.coalescing.maxGroupSize}") int maxGroupSize) {
+        if (!key.equals("destination") && !key.equals("source")) {
+            throw new IllegalArgumentException("transfer.coalescing.key must be destination or source");
+        }
+        if (windowMicros < 0 || maxGroupSize <= 0) {
+            throw new IllegalArgumentException("transfer.coalescing.windowMicros must not be negative "
+                    + "and transfer.coalescing.maxGroupSize must be positive");
+        }
+        this.batchTransferService = batchTransferService;
+        this.bySource = key.equals("source");
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    /**
+     * Applies a transfer as part of the group of its hot account and waits for its outcome.
+     *
+     * @throws NotFoundException              If either the source or destination account does not exist.
+     * @throws InsufficientFundsException     If the source account does not have enough funds for the transfer.
+     * @throws UnsupportedCurrencyException   If the accounts are in different currencies and one of them has no rate.
+     * @throws InvalidTransferAmountException If the amount is too small to be converted to the destination currency.
+     * @throws ServerIsOverloadedException    If the accounts of the group could not be locked.
+     */
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount) {
+        MoneyTransferDto transfer = new MoneyTransferDto();
+        transfer.setFromAccountId(fromAccountId);
+        transfer.setToAccountId(toAccountId);
+        transfer.setAmount(amount);
+        Long key = bySource ? fromAccountId : toAccountId;
+        CompletableFuture<TransferStatus> outcome = new CompletableFuture<>();
+
+        Group group;
+        boolean leader;
+        while (true) {
+            group = groups.computeIfAbsent(key, k -> new Group());
+            synchronized (group) {
+                if (!group.closed && group.transfers.size() < maxGroupSize) {
+                    group.transfers.add(transfer);
+                    group.outcomes.add(outcome);
+                    leader = group.transfers.size() == 1;
+                    break;
+                }
+            }
+            // The group is being applied or is full, the next transfer starts a new one.
+            groups.remove(key, group);
+        }
+
+        if (leader) {
+            LockSupport.parkNanos(this, windowNanos);
+            apply(key, group);
+        }
+        throwIfFailed(await(outcome));
+    }
+
+    private void apply(Long key, Group group) {
+        groups.remove(key, group);
+        List<MoneyTransferDto> transfers;
+        List<CompletableFuture<TransferStatus>> outcomes;
+        synchronized (group) {
+            group.closed = true;
+            transfers = group.transfers;
+            outcomes = group.outcomes;
+        }
+        try {
+            List<TransferStatus> statuses = batchTransferService.transfer(transfers);
+            for (int i = 0; i < outcomes.size(); i++) {
+                outcomes.get(i).complete(statuses.get(i));
+            }
+        } catch (Throwable e) {
+            // Errors too, or the transfers that joined the group would wait for their outcome forever.
+            outcomes.forEach(outcome -> outcome.completeExceptionally(e));
+        }
+    }
+
+    private static TransferStatus await(CompletableFuture<TransferStatus> outcome) {
+        try {
+            return outcome.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static void throwIfFailed(TransferStatus status) {
+        switch (status) {
+            case OK -> {
+            }
+            case NOT_FOUND -> throw new NotFoundException("Source or destination account not found");
+            case INSUFFICIENT_FUNDS -> throw new InsufficientFundsException("Not enough funds in the account to transfer");
+            case UNSUPPORTED_CURRENCY -> throw new UnsupportedCurrencyException("No exchange rate between the currencies of the accounts");
+            case INVALID_AMOUNT -> throw new InvalidTransferAmountException("Amount of the transfer is too small to convert.");
+            case OVERLOADED -> throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+            default -> throw new IllegalStateException("Unexpected outcome of a coalesced transfer: " + status);
+        }
+    }
+
+    /**
+     * The transfers of a hot account collected during the coalescing window, with their outcomes in the same order.
+     */
+    private static final class Group {
+        private final List<MoneyTransferDto> transfers = new ArrayList<>();
+        private final List<CompletableFuture<TransferStatus>> outcomes = new ArrayList<>();
+        private boolean closed;
+    }
+}
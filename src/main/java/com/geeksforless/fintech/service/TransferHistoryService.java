@@ -0,0 +1,187 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.TransferDto;
+import com.geeksforless.fintech.dto.TransferPageDto;
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.InvalidCursorException;
+import com.geeksforless.fintech.model.Transfer;
+import com.geeksforless.fintech.repository.TransferRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Records applied transfers and serves the statements of accounts.
+ * <p>
+ * A transfer is inserted into the {@code Transfer} table in the transaction of its transfer, so it is
+ * recorded exactly when the balance change commits. The IDs come from a pooled sequence, so the inserts
+ * of a batch transfer are sent in JDBC batches.
+ * </p>
+ * <p>
+ * The table is treated as partitioned by calendar month (UTC): transfers of the months older than
+ * {@code transfer.history.retentionMonths} are moved to the {@code transfer_archive} table in bulk by a
+ * scheduled job, {@code transfer.history.archiveBatchSize} transfers per transaction. Only the account store
+ * backed by the database publishes transfers, the in-memory ledger keeps no history.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "account.store", havingValue = "jpa", matchIfMissing = true)
+public class TransferHistoryService {
+
+    /**
+     * The upper bound of history queries without an end time, e.g. of a statement without an end time or a cursor.
+     */
+    static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    private static final Comparator<TransferDto> NEWEST_FIRST = Comparator
+            .comparing(TransferDto::getCreatedAt)
+            .thenComparing(TransferDto::getId)
+            .reversed();
+
+    private final TransferRepository transferRepository;
+    private final Clock clock;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionMonths;
+    private final int archiveBatchSize;
+
+    public TransferHistoryService(TransferRepository transferRepository,
+                                  Clock clock,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${transfer.history.retentionMonths}") int retentionMonths,
+                                  @Value("${transfer.history.archiveBatchSize}") int archiveBatchSize) {
+        if (retentionMonths < 1) {
+            throw new IllegalArgumentException("transfer.history.retentionMonths must be positive");
+        }
+        this.transferRepository = transferRepository;
+        this.clock = clock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionMonths = retentionMonths;
+        this.archiveBatchSize = archiveBatchSize;
+    }
+
+    /**
+     * Inserts the applied transfer within the transfer's transaction. The insert is only flushed with the
+     * transaction, together with the other inserts of a batch.
+     */
+    @EventListener
+    public void onTransferApplied(TransferAppliedEvent event) {
+        transferRepository.save(new Transfer(event.getFromAccountId(), event.getToAccountId(), event.getAmount(),
+                event.getCreditedAmount(), clock.instant().truncatedTo(ChronoUnit.MICROS)));
+    }
+
+    /**
+     * Retrieves a page of the statement of an account: the transfers debited from or credited to it, newest first.
+     * <p>
+     * The debits and the credits are read with one keyset query each and merged, so a page costs two index
+     * range scans of at most {@code limit} rows whatever the number of transfers of the account.
+     * </p>
+     *
+     * @param accountId The ID of the account.
+     * @param from      The earliest time of the returned transfers, inclusive, or {@code null} for no lower bound.
+     * @param to        The latest time of the returned transfers, exclusive, or {@code null} for no upper bound.
+     * @param cursor    The {@code nextCursor} of the previous page, or {@code null} for the first page.
+     * @param limit     The maximum number of transfers to return.
+     * @return Up to {@code limit} transfers and the cursor of the next page.
+     * @throws InvalidCursorException If the cursor is malformed.
+     */
+    @Transactional(readOnly = true)
+    public TransferPageDto getStatement(Long accountId, Instant from, Instant to, String cursor, int limit) {
+        Instant lowerBound = from != null ? from : Instant.EPOCH;
+        Instant beforeCreatedAt = to != null ? to : END_OF_TIME;
+        long beforeId = Long.MIN_VALUE;
+        if (cursor != null) {
+            Cursor position = Cursor.parse(cursor);
+            if (position.createdAt().isBefore(beforeCreatedAt)) {
+                beforeCreatedAt = position.createdAt();
+                beforeId = position.id();
+            }
+        }
+
+        PageRequest page = PageRequest.of(0, limit);
+        List<TransferDto> transfers = new ArrayList<>(2 * limit);
+        transfers.addAll(transferRepository.findDebits(accountId, lowerBound, beforeCreatedAt, beforeId, page));
+        transfers.addAll(transferRepository.findCredits(accountId, lowerBound, beforeCreatedAt, beforeId, page));
+        transfers.sort(NEWEST_FIRST);
+        if (transfers.size() > limit) {
+            transfers = transfers.subList(0, limit);
+        }
+        String nextCursor = transfers.size() < limit ? null : Cursor.of(transfers.get(transfers.size() - 1)).encode();
+        return new TransferPageDto(List.copyOf(transfers), nextCursor);
+    }
+
+    /**
+     * Moves the transfers of the months past the retention period to the archive table, in batches of
+     * {@code transfer.history.archiveBatchSize}, one transaction per batch.
+     * <p>
+     * The cutoff is always the start of a month, so whole monthly partitions are moved out and a
+     * database with declarative partitioning can detach them instead.
+     * </p>
+     *
+     * @return the number of archived transfers.
+     */
+    @Scheduled(cron = "${transfer.history.archiveCron}", zone = "UTC")
+    public int archive() {
+        Instant before = YearMonth.now(clock.withZone(ZoneOffset.UTC))
+                .minusMonths(retentionMonths)
+                .atDay(1)
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant();
+        int archived = 0;
+        List<Long> batch;
+        do {
+            batch = transferRepository.findIdsCreatedBefore(before, PageRequest.of(0, archiveBatchSize));
+            if (!batch.isEmpty()) {
+                List<Long> ids = batch;
+                transactionTemplate.executeWithoutResult(status -> {
+                    transferRepository.copyToArchive(ids);
+                    transferRepository.deleteAllByIdInBatch(ids);
+                });
+                archived += batch.size();
+            }
+        } while (batch.size() == archiveBatchSize);
+        return archived;
+    }
+
+    /**
+     * The position of a transfer in a statement, sent to clients as an opaque cursor made of its time in
+     * microseconds since the epoch and its ID.
+     */
+    private record Cursor(Instant createdAt, long id) {
+
+        static Cursor of(TransferDto transfer) {
+            return new Cursor(transfer.getCreatedAt(), transfer.getId());
+        }
+
+        static Cursor parse(String value) {
+            String[] parts = value.split("_", -1);
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Malformed cursor: " + value);
+            }
+            try {
+                return new Cursor(Instant.EPOCH.plus(Long.parseLong(parts[0]), ChronoUnit.MICROS), Long.parseLong(parts[1]));
+            } catch (NumberFormatException | DateTimeException | ArithmeticException e) {
+                throw new InvalidCursorException("Malformed cursor: " + value);
+            }
+        }
+
+        String encode() {
+            return ChronoUnit.MICROS.between(Instant.EPOCH, createdAt) + "_" + id;
+        }
+    }
+}
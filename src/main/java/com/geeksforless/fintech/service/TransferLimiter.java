@@ -0,0 +1,119 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.exception.DuplicateTransferException;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.exception.TransferRejectedException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.exception.UnsupportedIdempotencyKeyException;
+import com.geeksforless.fintech.util.GradientLimiter;
+import com.geeksforless.fintech.util.RetryExceptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admission control of the synchronous transfers.
+ * <p>
+ * A transfer is only started while fewer transfers than an adaptive limit are in flight, otherwise it is
+ * rejected right away with a {@link TransferRejectedException} instead of queueing for a database connection
+ * and failing once its retries are exhausted. The limit is a {@link GradientLimiter} between
+ * {@code transfer.limiter.minLimit} and {@code transfer.limiter.maxLimit}: it grows while the latency of the
+ * transfers stays flat and shrinks when it rises or transfers fail as overloaded, so it follows the capacity
+ * of the store, e.g. the size of the connection pool or the contention on hot accounts. Transfers failing for
+ * a reason of their own, such as insufficient funds, still count as completed work, also when they arrive wrapped
+ * by the retry interceptor.
+ * </p>
+ * <p>
+ * The limit and the transfers in flight are published as the {@code transfer.limiter.limit} and
+ * {@code transfer.limiter.inflight} gauges, the shed transfers as the {@code transfer.limiter.rejected} counter.
+ * With {@code transfer.limiter.enabled=false} every transfer is admitted.
+ * </p>
+ */
+@Component
+public class TransferLimiter {
+
+    private final boolean enabled;
+    private final GradientLimiter limiter;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+
+    public TransferLimiter(MeterRegistry meterRegistry,
+                           @Value("${transfer.limiter.enabled}") boolean enabled,
+                           @Value("${transfer.limiter.initialLimit}") int initialLimit,
+                           @Value("${transfer.limiter.minLimit}") int minLimit,
+                           @Value("${transfer.limiter.maxLimit}") int maxLimit,
+                           @Value("${transfer.limiter.retryAfterSeconds}") long retryAfterSeconds) {
+        this.enabled = enabled;
+        this.limiter = new GradientLimiter(initialLimit, minLimit, maxLimit);
+        this.retryAfterSeconds = retryAfterSeconds;
+        Gauge.builder("transfer.limiter.limit", limiter, GradientLimiter::getLimit)
+                .description("Transfers allowed in flight")
+                .register(meterRegistry);
+        Gauge.builder("transfer.limiter.inflight", limiter, GradientLimiter::getInflight)
+                .description("Transfers in flight")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("transfer.limiter.rejected")
+                .description("Transfers shed on admission")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a transfer if the limit allows it.
+     *
+     * @param transfer applies the transfer.
+     * @throws TransferRejectedException If the limit of transfers in flight is reached.
+     */
+    public void execute(Runnable transfer) {
+        if (!enabled) {
+            transfer.run();
+            return;
+        }
+        GradientLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            rejected.increment();
+            throw new TransferRejectedException("Too many transfers in progress. Please try again later.", retryAfterSeconds);
+        }
+        try {
+            transfer.run();
+        } catch (RuntimeException e) {
+            RuntimeException failure = RetryExceptions.unwrap(e);
+            if (failure instanceof ServerIsOverloadedException) {
+                permit.dropped();
+            } else if (isFailureOfItsOwn(failure)) {
+                permit.success();
+            } else {
+                permit.ignore();
+            }
+            throw failure;
+        } catch (Error e) {
+            permit.ignore();
+            throw e;
+        }
+        permit.success();
+    }
+
+    /**
+     * Whether the transfer failed for a reason of its own rather than because of the store, so it still
+     * tells how long the store took to answer.
+     */
+    private static boolean isFailureOfItsOwn(RuntimeException failure) {
+        return failure instanceof InvalidTransferAmountException
+                || failure instanceof NotFoundException
+                || failure instanceof InsufficientFundsException
+                || failure instanceof UnsupportedCurrencyException
+                || failure instanceof UnsupportedIdempotencyKeyException
+                || failure instanceof DuplicateTransferException;
+    }
+
+    /**
+     * Returns the current limit of transfers in flight.
+     */
+    public int getLimit() {
+        return limiter.getLimit();
+    }
+}
@@ -0,0 +1,42 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.exception.DuplicateTransferException;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.money.Money;
+
+/**
+ * Applies a money transfer between two accounts.
+ * <p>
+ * Implementations differ in how they deal with concurrent transfers touching the same accounts
+ * (isolation level, locking and retry policy). Exactly one implementation is active and it is
+ * selected with the {@code transfer.mode} property.
+ * </p>
+ * <p>
+ * The amount is debited in the currency of the source account. If the destination account is in another
+ * currency, it is credited with the amount converted at the current rates of the {@link FxRateProvider}.
+ * </p>
+ */
+public interface TransferStrategy {
+
+    /**
+     * Moves the specified amount from one account to another within a single transaction.
+     *
+     * @param fromAccountId  The ID of the account from which the amount will be debited.
+     * @param toAccountId    The ID of the account to which the amount will be credited.
+     * @param amount         The amount to be transferred, in the currency of the source account. Already validated
+     *                       to be positive.
+     * @param idempotencyKey The idempotency key of the transfer, recorded in the same transaction, or {@code null}.
+     * @throws NotFoundException              If either the source or destination account does not exist.
+     * @throws InsufficientFundsException     If the source account does not have enough funds for the transfer.
+     * @throws UnsupportedCurrencyException   If the accounts are in different currencies and one of them has no rate.
+     * @throws InvalidTransferAmountException If the amount is too small to be converted to the destination currency.
+     * @throws ServerIsOverloadedException    If the transfer kept conflicting with concurrent transfers.
+     * @throws DuplicateTransferException     If a transfer with the same idempotency key was already applied.
+     */
+    void transfer(Long fromAccountId, Long toAccountId, Money amount, String idempotencyKey);
+}
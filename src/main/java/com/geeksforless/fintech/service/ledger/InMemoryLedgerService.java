@@ -0,0 +1,269 @@
+package com.geeksforless.fintech.service.ledger;
+
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.exception.UnsupportedIdempotencyKeyException;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import com.geeksforless.fintech.service.AccountService;
+import com.geeksforless.fintech.service.BatchTransferService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory implementation of the account services for the low-latency tier ({@code account.store=in-memory}).
+ * <p>
+ * Accounts are partitioned by ID across {@code ledger.shards} {@link LedgerShard single-writer shards}
+ * holding balances as {@code long} minor units with {@code ledger.scale} decimal places. A transfer
+ * within one shard is a single command. A cross-shard transfer follows a fixed protocol: the
+ * destination shard confirms the destination account exists, the source shard debits the source
+ * account, then the destination shard credits the destination account. Accounts are never removed,
+ * and the credit waits for room in a full queue rather than being refused for overload, so once the debit
+ * succeeded the credit cannot fail unless the destination shard itself fails; if the process dies in between,
+ * recovery finds the debit without its credit in the journals and rolls the transfer forward.
+ * </p>
+ * <p>
+ * Durability comes from the per-shard append-only journals in {@code ledger.journal.dir}. When the
+ * journals are empty, the ledger is seeded from the accounts stored in the database.
+ * </p>
+ * <p>
+ * All the accounts of the ledger are in {@link Account#DEFAULT_CURRENCY}, cross-currency transfers are only
+ * supported by the database store. So are idempotency keys: a transfer carrying one is refused, and reported as
+ * {@link TransferStatus#UNSUPPORTED_IDEMPOTENCY_KEY} within a batch.
+ * </p>
+ */
+@Service
+@ConditionalOnProperty(name = "account.store", havingValue = "in-memory")
+public class InMemoryLedgerService implements AccountService, BatchTransferService, SmartInitializingSingleton {
+
+    private final AccountRepository accountRepository;
+    private final LedgerShard[] shards;
+    private final int scale;
+    private final AtomicLong accountSequence = new AtomicLong();
+    private final AtomicLong transferSequence = new AtomicLong();
+
+    public InMemoryLedgerService(AccountRepository accountRepository,
+                                 @Value("${ledger.shards}") int shardCount,
+                                 @Value("${ledger.scale}") int scale,
+                                 @Value("${ledger.queueCapacity}") int queueCapacity,
+                                 @Value("${ledger.journal.dir}") String journalDir,
+                                 @Value("${ledger.journal.fsync}") boolean fsync) throws IOException {
+        this.accountRepository = accountRepository;
+        this.scale = scale;
+        Path journalPath = Files.createDirectories(Path.of(journalDir));
+        this.shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i, journalPath.resolve("shard-" + i + ".journal"), fsync, queueCapacity);
+        }
+    }
+
+    /**
+     * Rolls incomplete transfers forward, or seeds an empty ledger from the database, then starts the
+     * shard writers. Runs once all singletons, including the test data configuration, are initialized.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        boolean empty = true;
+        for (LedgerShard shard : shards) {
+            empty &= shard.isEmpty();
+            accountSequence.accumulateAndGet(shard.maxAccountId(), Math::max);
+            transferSequence.accumulateAndGet(shard.maxTransferId(), Math::max);
+        }
+
+        if (empty) {
+            accountRepository.findAll().forEach(account -> {
+                if (!Account.DEFAULT_CURRENCY.equals(account.getCurrency())) {
+                    throw new IllegalStateException("The in-memory ledger keeps balances in " + Account.DEFAULT_CURRENCY
+                            + " only, account " + account.getId() + " is in " + account.getCurrency());
+                }
+                shardOf(account.getId()).open(account.getId(), toMinorUnits(account.getBalance()));
+                accountSequence.accumulateAndGet(account.getId(), Math::max);
+            });
+        } else {
+            rollForwardIncompleteTransfers();
+        }
+
+        for (LedgerShard shard : shards) {
+            shard.commitJournal();
+            shard.start();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        for (LedgerShard shard : shards) {
+            shard.close();
+        }
+    }
+
+    /**
+     * Opens a new account in the ledger.
+     *
+     * @param balance The initial balance of the account.
+     * @return The opened account.
+     */
+    public Account open(Money balance) {
+        long minorUnits = toMinorUnits(balance);
+        long accountId = accountSequence.incrementAndGet();
+        await(shardOf(accountId).submit(shard -> shard.open(accountId, minorUnits)));
+        return new Account(accountId, toMoney(minorUnits));
+    }
+
+    @Override
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount) {
+
+        if (!amount.isPositive()) {
+            throw new InvalidTransferAmountException("Amount of the transfer must be positive.");
+        }
+
+        long minorUnits = toMinorUnits(amount);
+        long transferId = transferSequence.incrementAndGet();
+        LedgerShard fromShard = shardOf(fromAccountId);
+        LedgerShard toShard = shardOf(toAccountId);
+
+        if (fromShard == toShard) {
+            await(fromShard.submit(shard -> shard.transfer(fromAccountId, toAccountId, minorUnits, transferId)));
+            return;
+        }
+
+        await(toShard.submit(shard -> shard.requireAccount(toAccountId)));
+        await(fromShard.submit(shard -> shard.debit(fromAccountId, toAccountId, minorUnits, transferId)));
+        await(toShard.submitAwaitingCapacity(shard -> shard.credit(toAccountId, fromAccountId, minorUnits, transferId)));
+    }
+
+    @Override
+    public List<TransferStatus> transfer(List<MoneyTransferDto> transfers) {
+        List<TransferStatus> statuses = new ArrayList<>(transfers.size());
+        for (MoneyTransferDto transfer : transfers) {
+            statuses.add(transferWithStatus(transfer));
+        }
+        return statuses;
+    }
+
+    @Override
+    public Optional<Account> get(Long accountId) {
+        long balance = await(shardOf(accountId).submit(shard -> shard.balance(accountId)));
+        return balance < 0 ? Optional.empty() : Optional.of(new Account(accountId, toMoney(balance)));
+    }
+
+    @Override
+    public List<Account> getAll() {
+        return getPage(Long.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves a page of accounts using keyset pagination. Every shard contributes its first
+     * {@code limit} accounts after {@code afterId} and the results are merged by ID.
+     */
+    @Override
+    public List<Account> getPage(long afterId, int limit) {
+        List<CompletableFuture<long[]>> snapshots = new ArrayList<>(shards.length);
+        for (LedgerShard shard : shards) {
+            snapshots.add(shard.submit(s -> s.snapshot(afterId, limit)));
+        }
+
+        List<Account> accounts = new ArrayList<>();
+        for (CompletableFuture<long[]> snapshot : snapshots) {
+            long[] pairs = await(snapshot);
+            for (int i = 0; i < pairs.length; i += 2) {
+                accounts.add(new Account(pairs[i], toMoney(pairs[i + 1])));
+            }
+        }
+        accounts.sort((first, second) -> Long.compare(first.getId(), second.getId()));
+        return accounts.size() > limit ? accounts.subList(0, limit) : accounts;
+    }
+
+    @Override
+    public void forEachAccount(Consumer<Account> action) {
+        getAll().forEach(action);
+    }
+
+    private TransferStatus transferWithStatus(MoneyTransferDto transfer) {
+        try {
+            transfer(transfer.getFromAccountId(), transfer.getToAccountId(), transfer.getAmount(),
+                    transfer.getIdempotencyKey());
+            return TransferStatus.OK;
+        } catch (InvalidTransferAmountException e) {
+            return TransferStatus.INVALID_AMOUNT;
+        } catch (NotFoundException e) {
+            return TransferStatus.NOT_FOUND;
+        } catch (InsufficientFundsException e) {
+            return TransferStatus.INSUFFICIENT_FUNDS;
+        } catch (ServerIsOverloadedException e) {
+            return TransferStatus.OVERLOADED;
+        } catch (UnsupportedIdempotencyKeyException e) {
+            return TransferStatus.UNSUPPORTED_IDEMPOTENCY_KEY;
+        }
+    }
+
+    /**
+     * Completes the transfers whose debit was journaled but whose credit was not.
+     */
+    private void rollForwardIncompleteTransfers() {
+        for (LedgerShard shard : shards) {
+            for (Map.Entry<Long, long[]> debit : shard.unmatchedDebits().entrySet()) {
+                long transferId = debit.getKey();
+                long toAccountId = debit.getValue()[0];
+                long amount = debit.getValue()[1];
+                LedgerShard toShard = shardOf(toAccountId);
+                if (!toShard.hasReplayedCredit(transferId)) {
+                    toShard.credit(toAccountId, 0, amount, transferId);
+                }
+            }
+        }
+        for (LedgerShard shard : shards) {
+            shard.recovered();
+        }
+    }
+
+    private LedgerShard shardOf(long accountId) {
+        return shards[(int) Math.floorMod(accountId, (long) shards.length)];
+    }
+
+    private long toMinorUnits(Money amount) {
+        try {
+            return amount.toMinorUnits(scale);
+        } catch (ArithmeticException e) {
+            throw new InvalidTransferAmountException(
+                    "Amount must have at most " + scale + " decimal places and fit the ledger range.");
+        }
+    }
+
+    private Money toMoney(long minorUnits) {
+        return new Money(minorUnits, scale);
+    }
+
+    /**
+     * Waits for a shard command and rethrows its failure unwrapped.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
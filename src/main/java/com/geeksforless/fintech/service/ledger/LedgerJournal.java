@@ -0,0 +1,140 @@
+package com.geeksforless.fintech.service.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only journal of a single {@link LedgerShard}.
+ * <p>
+ * Every balance change is one fixed-size binary record. Records are staged in a direct buffer and
+ * written, then forced to disk, by {@link #commit()}; the shard commits once per batch of commands
+ * (group commit) and acknowledges the commands only afterwards. On startup the shard state is
+ * rebuilt with {@link #replay(Path, RecordConsumer)}; a torn record at the end of the file is dropped.
+ * </p>
+ */
+final class LedgerJournal implements Closeable {
+
+    /** An account was opened with the amount as its initial balance. */
+    static final byte OPEN = 1;
+
+    /** The amount was debited from the account as the first half of a transfer. */
+    static final byte DEBIT = 2;
+
+    /** The amount was credited to the account as the second half of a transfer. */
+    static final byte CREDIT = 3;
+
+    /**
+     * type (1) + padding (7) + account ID (8) + counterparty account ID (8) + amount (8) + transfer ID (8).
+     */
+    static final int RECORD_SIZE = 40;
+
+    private static final int BUFFERED_RECORDS = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFERED_RECORDS);
+    private final boolean fsync;
+    private boolean dirty;
+
+    private LedgerJournal(FileChannel channel, boolean fsync) {
+        this.channel = channel;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Opens the journal for appending, dropping a torn record left at its end by a crash.
+     *
+     * @param file  the journal file, created if missing.
+     * @param fsync whether {@link #commit()} forces the written records to disk.
+     */
+    static LedgerJournal open(Path file, boolean fsync) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        long size = channel.size();
+        channel.truncate(size - size % RECORD_SIZE);
+        channel.position(channel.size());
+        return new LedgerJournal(channel, fsync);
+    }
+
+    /**
+     * Reads all complete records of the journal in append order.
+     *
+     * @param file     the journal file; a missing file has no records.
+     * @param consumer receives every record.
+     */
+    static void replay(Path file, RecordConsumer consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer readBuffer = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFERED_RECORDS);
+            while (channel.read(readBuffer) > 0) {
+                readBuffer.flip();
+                while (readBuffer.remaining() >= RECORD_SIZE) {
+                    byte type = readBuffer.get();
+                    readBuffer.position(readBuffer.position() + 7);
+                    consumer.accept(type, readBuffer.getLong(), readBuffer.getLong(), readBuffer.getLong(), readBuffer.getLong());
+                }
+                readBuffer.compact();
+            }
+        }
+    }
+
+    /**
+     * Stages a record. It is durable only after the next {@link #commit()}.
+     */
+    void append(byte type, long accountId, long counterpartyId, long amount, long transferId) throws IOException {
+        if (buffer.remaining() < RECORD_SIZE) {
+            write();
+        }
+        buffer.put(type)
+                .position(buffer.position() + 7);
+        buffer.putLong(accountId)
+                .putLong(counterpartyId)
+                .putLong(amount)
+                .putLong(transferId);
+        dirty = true;
+    }
+
+    /**
+     * Writes the staged records and, unless disabled, forces them to disk.
+     */
+    void commit() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        write();
+        if (fsync) {
+            channel.force(false);
+        }
+        dirty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Receives the records of a journal.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(byte type, long accountId, long counterpartyId, long amount, long transferId);
+    }
+}
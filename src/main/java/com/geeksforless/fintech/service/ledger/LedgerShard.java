@@ -0,0 +1,392 @@
+package com.geeksforless.fintech.service.ledger;
+
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.util.LongLongHashMap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A partition of the in-memory ledger owned by a single writer thread.
+ * <p>
+ * Balances are {@code long} minor units kept in a {@link LongLongHashMap}. All reads and writes of the
+ * shard are commands executed one after another by its writer thread, so the shard needs no locks.
+ * The writer drains commands in batches, applies a whole batch, commits the journal records of the
+ * batch with a single fsync and only then completes the callers' futures.
+ * </p>
+ * <p>
+ * If the journal cannot be committed, the balances in memory hold changes that may not be durable. The shard
+ * then fails: the commands of the batch and all queued commands fail, and every later command is refused, so
+ * the diverged balances are never read or changed again. Only a restart, replaying the journal, revives it.
+ * </p>
+ */
+final class LedgerShard implements Closeable {
+
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final int index;
+    private final LongLongHashMap balances = new LongLongHashMap(1024);
+    private final BlockingQueue<Command<?>> commands;
+    private final LedgerJournal journal;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile IllegalStateException failure;
+
+    /**
+     * Debits replayed from the journal whose credit was not found, by transfer ID. Recovery only.
+     */
+    private final Map<Long, long[]> replayedDebits = new HashMap<>();
+
+    /**
+     * Transfer IDs of the credits replayed from the journal. Recovery only.
+     */
+    private final Set<Long> replayedCredits = new HashSet<>();
+
+    private long maxAccountId;
+    private long maxTransferId;
+
+    LedgerShard(int index, Path journalFile, boolean fsync, int queueCapacity) throws IOException {
+        this.index = index;
+        this.commands = new ArrayBlockingQueue<>(queueCapacity);
+        LedgerJournal.replay(journalFile, this::replay);
+        this.journal = LedgerJournal.open(journalFile, fsync);
+        this.writer = new Thread(this::run, "ledger-shard-" + index);
+        this.writer.setDaemon(true);
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Queues an operation for the writer thread.
+     *
+     * @return a future completed once the operation has been applied and journaled.
+     * @throws ServerIsOverloadedException if the command queue of the shard is full.
+     * @throws IllegalStateException       if the shard has failed.
+     */
+    <T> CompletableFuture<T> submit(Function<LedgerShard, T> operation) {
+        throwIfFailed();
+        Command<T> command = new Command<>(operation);
+        if (!commands.offer(command)) {
+            throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+        }
+        return queued(command);
+    }
+
+    /**
+     * Queues an operation that must not be refused for overload, such as the credit of a transfer whose debit
+     * has been applied: it waits for room in the queue instead, however long that takes.
+     *
+     * @return a future completed once the operation has been applied and journaled.
+     * @throws IllegalStateException if the shard has failed.
+     */
+    <T> CompletableFuture<T> submitAwaitingCapacity(Function<LedgerShard, T> operation) {
+        Command<T> command = new Command<>(operation);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                throwIfFailed();
+                try {
+                    if (commands.offer(command, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return queued(command);
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Operations below run on the writer thread, or before it is started.
+
+    Void open(long accountId, long balance) {
+        if (balances.containsKey(accountId)) {
+            throw new IllegalStateException("Account with ID " + accountId + " already exists");
+        }
+        balances.put(accountId, balance);
+        maxAccountId = Math.max(maxAccountId, accountId);
+        append(LedgerJournal.OPEN, accountId, 0, balance, 0);
+        return null;
+    }
+
+    Void requireAccount(long accountId) {
+        if (!balances.containsKey(accountId)) {
+            throw new NotFoundException("Account with ID " + accountId + " not found");
+        }
+        return null;
+    }
+
+    /**
+     * Both accounts live in this shard: the transfer is applied at once.
+     */
+    Void transfer(long fromAccountId, long toAccountId, long amount, long transferId) {
+        requireAccount(fromAccountId);
+        requireAccount(toAccountId);
+        debit(fromAccountId, toAccountId, amount, transferId);
+        credit(toAccountId, fromAccountId, amount, transferId);
+        return null;
+    }
+
+    /**
+     * First half of a transfer: the source account must exist and cover the amount.
+     */
+    Void debit(long fromAccountId, long toAccountId, long amount, long transferId) {
+        long balance = balances.get(fromAccountId, -1);
+        if (balance < 0) {
+            throw new NotFoundException("Account with ID " + fromAccountId + " not found");
+        }
+        if (balance < amount) {
+            throw new InsufficientFundsException("Not enough funds in the account to transfer");
+        }
+        balances.put(fromAccountId, balance - amount);
+        append(LedgerJournal.DEBIT, fromAccountId, toAccountId, amount, transferId);
+        return null;
+    }
+
+    /**
+     * Second half of a transfer: the destination account was checked to exist before the debit.
+     */
+    Void credit(long toAccountId, long fromAccountId, long amount, long transferId) {
+        balances.addTo(toAccountId, amount);
+        append(LedgerJournal.CREDIT, toAccountId, fromAccountId, amount, transferId);
+        return null;
+    }
+
+    /**
+     * Returns the balance of the account, or {@code -1} if it does not exist.
+     */
+    Long balance(long accountId) {
+        return balances.get(accountId, -1);
+    }
+
+    /**
+     * Returns up to {@code limit} (account ID, balance) pairs with an ID greater than {@code afterId},
+     * ordered by ID, flattened into one array.
+     */
+    long[] snapshot(long afterId, int limit) {
+        long[] ids = new long[balances.size()];
+        int[] count = {0};
+        balances.forEach((accountId, balance) -> {
+            if (accountId > afterId) {
+                ids[count[0]++] = accountId;
+            }
+        });
+        Arrays.sort(ids, 0, count[0]);
+        int size = Math.min(count[0], limit);
+        long[] pairs = new long[size * 2];
+        for (int i = 0; i < size; i++) {
+            pairs[2 * i] = ids[i];
+            pairs[2 * i + 1] = balances.get(ids[i], -1);
+        }
+        return pairs;
+    }
+
+    int index() {
+        return index;
+    }
+
+    long maxAccountId() {
+        return maxAccountId;
+    }
+
+    long maxTransferId() {
+        return maxTransferId;
+    }
+
+    boolean isEmpty() {
+        return balances.size() == 0;
+    }
+
+    /**
+     * Returns the debits replayed from the journal without a matching credit in this shard,
+     * as {@code transfer ID -> (to account ID, amount)}.
+     */
+    Map<Long, long[]> unmatchedDebits() {
+        return replayedDebits;
+    }
+
+    boolean hasReplayedCredit(long transferId) {
+        return replayedCredits.contains(transferId);
+    }
+
+    /**
+     * Drops the recovery bookkeeping once the ledger has rolled forward incomplete transfers.
+     */
+    void recovered() {
+        replayedDebits.clear();
+        replayedCredits.clear();
+    }
+
+    /**
+     * Writes staged records of the operations applied before the writer thread was started.
+     */
+    void commitJournal() {
+        try {
+            journal.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        // wakes the writer up instead of waiting for its poll to time out
+        commands.offer(new Command<Void>(shard -> null));
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    private void replay(byte type, long accountId, long counterpartyId, long amount, long transferId) {
+        maxTransferId = Math.max(maxTransferId, transferId);
+        switch (type) {
+            case LedgerJournal.OPEN -> {
+                balances.put(accountId, amount);
+                maxAccountId = Math.max(maxAccountId, accountId);
+            }
+            case LedgerJournal.DEBIT -> {
+                balances.addTo(accountId, -amount);
+                replayedDebits.put(transferId, new long[]{counterpartyId, amount});
+            }
+            case LedgerJournal.CREDIT -> {
+                balances.addTo(accountId, amount);
+                replayedCredits.add(transferId);
+                replayedDebits.remove(transferId);
+            }
+            default -> throw new IllegalStateException("Unknown journal record type " + type + " in shard " + index);
+        }
+    }
+
+    private void append(byte type, long accountId, long counterpartyId, long amount, long transferId) {
+        try {
+            journal.append(type, accountId, counterpartyId, amount, transferId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void run() {
+        List<Command<?>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running || !commands.isEmpty()) {
+            try {
+                Command<?> first = commands.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            commands.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+            for (Command<?> command : batch) {
+                command.execute(this);
+                if (command.failure instanceof UncheckedIOException e) {
+                    // A record could not be staged after its change was applied in memory.
+                    fail(e, batch);
+                    return;
+                }
+            }
+            try {
+                journal.commit();
+            } catch (IOException | RuntimeException e) {
+                fail(e, batch);
+                return;
+            }
+            batch.forEach(Command::complete);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Stops the shard after its journal could not be committed. The outcome of the batch is unknown: its
+     * changes are applied in memory but may or may not be in the journal the shard is recovered from.
+     */
+    private void fail(Exception cause, List<Command<?>> batch) {
+        failure = new IllegalStateException("Ledger shard " + index
+                + " stopped as its journal could not be written, the outcome of the operation is unknown", cause);
+        batch.forEach(command -> command.future.completeExceptionally(failure));
+        failQueued();
+    }
+
+    /**
+     * Fails the commands still queued on a failed shard. Also called by submitters that queued a command
+     * while the shard was failing, so that no command is left waiting for a writer that has stopped.
+     */
+    private void failQueued() {
+        List<Command<?>> queued = new ArrayList<>();
+        commands.drainTo(queued);
+        queued.forEach(command -> command.future.completeExceptionally(failure));
+    }
+
+    private <T> CompletableFuture<T> queued(Command<T> command) {
+        if (failure != null) {
+            failQueued();
+        }
+        return command.future;
+    }
+
+    private void throwIfFailed() {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * An operation queued for the writer thread together with its outcome.
+     */
+    private static final class Command<T> {
+
+        private final Function<LedgerShard, T> operation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private RuntimeException failure;
+
+        private Command(Function<LedgerShard, T> operation) {
+            this.operation = operation;
+        }
+
+        private void execute(LedgerShard shard) {
+            try {
+                result = operation.apply(shard);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        private void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.geeksforless.fintech.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit of the number of requests in flight, in the style of the gradient algorithm of TCP Vegas.
+ * <p>
+ * Every completed request reports its latency. The limiter keeps a long-term average of the latency, the
+ * latency of the system without queueing, and compares every new sample with it: while samples stay within
+ * {@code 1.5} times the average the limit grows by its square root, the number of requests allowed to queue,
+ * and once they rise above it requests are queueing somewhere downstream and the limit shrinks in proportion.
+ * A request that failed because the system is overloaded shrinks the limit by a tenth. Requests beyond the
+ * limit are rejected on admission, before they queue for a thread or a database connection.
+ * </p>
+ * <p>
+ * Admission is lock-free, the samples update the limit under the limiter's monitor. The limiter is thread-safe.
+ * </p>
+ */
+public final class GradientLimiter {
+
+    /**
+     * How much slower than the long-term average a sample may be before the limit shrinks.
+     */
+    private static final double TOLERANCE = 1.5;
+
+    /**
+     * Weight of a new limit against the current one, damping the oscillation of the limit.
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * Factor applied to the limit when a request failed because of overload.
+     */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * Number of samples the long-term average latency is taken over.
+     */
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Admits a request if fewer requests than the limit are in flight.
+     *
+     * @return the permit of the admitted request, to be released exactly once when it completes,
+     * or {@code null} if the request is rejected.
+     */
+    public Permit tryAcquire() {
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= limit) {
+                return null;
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        return new Permit(System.nanoTime(), current + 1);
+    }
+
+    /**
+     * Returns the current limit of requests in flight.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /**
+     * Updates the limit with the outcome of a request.
+     *
+     * @param rttNanos        the latency of the request.
+     * @param inflightAtStart the number of requests in flight when it was admitted, itself included.
+     * @param dropped         whether the request failed because the system is overloaded.
+     */
+    synchronized void onSample(long rttNanos, int inflightAtStart, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF_RATIO);
+            limit = (int) estimatedLimit;
+            return;
+        }
+
+        // A cumulative average until the window is full, an exponential moving average afterwards.
+        samples++;
+        longRttNanos += (rttNanos - longRttNanos) / Math.min(samples, LONG_WINDOW);
+        // Let the average come down quickly once the latency has dropped, e.g. after a slow warm-up.
+        if (longRttNanos > 2.0 * rttNanos) {
+            longRttNanos *= 0.95;
+        }
+        // A request admitted far below the limit says nothing about whether the limit is too high.
+        if (inflightAtStart < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / Math.max(rttNanos, 1)));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * The admission of a request in flight.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inflightAtStart;
+
+        private Permit(long startNanos, int inflightAtStart) {
+            this.startNanos = startNanos;
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        /**
+         * Releases the permit of a request that completed, successfully or with a failure of its own.
+         */
+        public void success() {
+            release(false);
+        }
+
+        /**
+         * Releases the permit of a request that failed because the system is overloaded.
+         */
+        public void dropped() {
+            release(true);
+        }
+
+        /**
+         * Releases the permit without taking its latency into account, e.g. of a request that failed unexpectedly.
+         */
+        public void ignore() {
+            inflight.decrementAndGet();
+        }
+
+        private void release(boolean dropped) {
+            inflight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inflightAtStart, dropped);
+        }
+    }
+}
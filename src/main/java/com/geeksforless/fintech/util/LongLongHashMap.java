@@ -0,0 +1,138 @@
+package com.geeksforless.fintech.util;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from {@code long} keys to {@code long} values.
+ * <p>
+ * Keys and values are kept in two primitive arrays, so neither lookups nor updates allocate.
+ * Entries cannot be removed. The map is not thread-safe, each instance must be confined to one thread at a time.
+ * </p>
+ */
+public final class LongLongHashMap {
+
+    /**
+     * Marks a free slot; it is therefore not a valid key.
+     */
+    public static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(tableSizeFor(Math.max(16, expectedSize * 2)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value of the key, or {@code defaultValue} if the key is absent.
+     */
+    public long get(long key, long defaultValue) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    public void put(long key, long value) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        int index = indexOf(key);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+        index = -index - 1;
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the value of a present key.
+     *
+     * @throws IllegalStateException if the key is absent.
+     * @throws ArithmeticException   if the value overflows.
+     */
+    public void addTo(long key, long delta) {
+        int index = indexOf(key);
+        if (index < 0) {
+            throw new IllegalStateException("Key " + key + " is absent");
+        }
+        values[index] = Math.addExact(values[index], delta);
+    }
+
+    public void forEach(LongLongConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY_KEY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the key or, if absent, {@code -(insertion index) - 1}.
+     */
+    private int indexOf(long key) {
+        int index = slot(key);
+        while (true) {
+            long current = keys[index];
+            if (current == key) {
+                return index;
+            }
+            if (current == EMPTY_KEY) {
+                return -index - 1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private int slot(long key) {
+        long hash = key * HASH_MULTIPLIER;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int index = -indexOf(oldKeys[i]) - 1;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * Receives the entries of the map.
+     */
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,27 @@
+package com.geeksforless.fintech.util;
+
+import org.springframework.retry.ExhaustedRetryException;
+
+/**
+ * Access to the failures of {@code @Retryable} methods.
+ * <p>
+ * The retry interceptor wraps an exception into an {@link ExhaustedRetryException} when the method has no
+ * {@code @Recover} method for it. The transfer strategies recover every exception, but callers classifying
+ * the failure of a transfer unwrap it anyway, so that a business failure is never mistaken for an error.
+ * </p>
+ */
+public final class RetryExceptions {
+
+    private RetryExceptions() {
+    }
+
+    /**
+     * Returns the failure wrapped by the retry interceptor, or the exception itself if it is not such a wrapper.
+     */
+    public static RuntimeException unwrap(RuntimeException e) {
+        if (e instanceof ExhaustedRetryException && e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return e;
+    }
+}
@@ -0,0 +1,151 @@
+package com.geeksforless.fintech.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded sketch of the most frequent {@code long} keys (the Space-Saving algorithm).
+ * <p>
+ * Keeps at most {@code capacity} keys with their estimated counts. A key that is not tracked while the
+ * sketch is full replaces the key with the lowest count and inherits that count, so counts are
+ * overestimated by at most the count of the replaced key, and every key occurring more often than
+ * {@code 1 / capacity} of the time is guaranteed to be tracked. Updates scan the tracked keys, which is
+ * cheap for the small capacities a top-K report needs.
+ * </p>
+ * <p>
+ * The sketch is thread-safe. Updates are spread over independent stripes by the updating thread, like
+ * {@link java.util.concurrent.atomic.LongAdder} spreads its cells, so concurrent threads rarely contend for the
+ * same lock. {@link #drain()} merges the stripes by adding up the counts of every key; a key is guaranteed to be
+ * tracked if it is frequent within a stripe, and its count is overestimated by at most the sum of the counts it
+ * inherited in every stripe.
+ * </p>
+ */
+public final class TopKSketch {
+
+    private final int capacity;
+    private final Stripe[] stripes;
+
+    /**
+     * Creates a sketch with a stripe per available processor, rounded up to a power of two.
+     */
+    public TopKSketch(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripes the minimum number of stripes, rounded up to a power of two.
+     */
+    public TopKSketch(int capacity, int stripes) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes must be positive");
+        }
+        this.capacity = capacity;
+        int stripeCount = 1;
+        while (stripeCount < stripes) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * Counts one occurrence of the key.
+     */
+    public void offer(long key) {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            stripe.offer(key);
+        }
+    }
+
+    /**
+     * Counts one occurrence of each of the two keys, taking the lock of the stripe once.
+     */
+    public void offer(long first, long second) {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            stripe.offer(first);
+            stripe.offer(second);
+        }
+    }
+
+    /**
+     * Returns the tracked keys by descending estimated count and starts counting from scratch.
+     * At most {@code capacity} keys are returned.
+     */
+    public List<Entry> drain() {
+        Map<Long, Long> merged = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.drainTo(merged);
+            }
+        }
+        List<Entry> entries = new ArrayList<>(merged.size());
+        merged.forEach((key, count) -> entries.add(new Entry(key, count)));
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        return entries.size() > capacity ? new ArrayList<>(entries.subList(0, capacity)) : entries;
+    }
+
+    private Stripe stripe() {
+        // Fibonacci hashing spreads consecutive thread IDs over the stripes.
+        long hash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+    }
+
+    /**
+     * A tracked key with its estimated count.
+     */
+    public record Entry(long key, long count) {
+    }
+
+    /**
+     * The Space-Saving counters of one stripe, guarded by the stripe itself.
+     */
+    private static final class Stripe {
+
+        private final long[] keys;
+        private final long[] counts;
+        private int size;
+
+        private Stripe(int capacity) {
+            this.keys = new long[capacity];
+            this.counts = new long[capacity];
+        }
+
+        private void offer(long key) {
+            int min = 0;
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    counts[i]++;
+                    return;
+                }
+                if (counts[i] < counts[min]) {
+                    min = i;
+                }
+            }
+            if (size < keys.length) {
+                keys[size] = key;
+                counts[size] = 1;
+                size++;
+                return;
+            }
+            keys[min] = key;
+            counts[min]++;
+        }
+
+        private void drainTo(Map<Long, Long> merged) {
+            for (int i = 0; i < size; i++) {
+                merged.merge(keys[i], counts[i], Long::sum);
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.geeksforless.fintech.reactive;
+
+import com.geeksforless.fintech.exception.handler.GlobalExceptionHandler;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Non-blocking variant of the account API on WebFlux and R2DBC.
+ * <p>
+ * It is built from the {@code reactive} source set and only shares the DTOs and exceptions of the servlet
+ * application, including its {@link GlobalExceptionHandler}, so both variants answer with the same payloads
+ * and status codes.
+ * </p>
+ */
+@SpringBootApplication
+@Import(GlobalExceptionHandler.class)
+public class ReactiveFintechApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveFintechApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.run(args);
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.geeksforless.fintech.reactive.controller;
+
+import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.reactive.model.Account;
+import com.geeksforless.fintech.reactive.service.ReactiveAccountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+/**
+ * A reactive RESTful controller mirroring the account operations of the servlet application.
+ */
+@RestController
+@RequestMapping("/api/accounts")
+@RequiredArgsConstructor
+public class ReactiveAccountController {
+
+    private final ReactiveAccountService accountService;
+
+    /**
+     * Transfers money between accounts.
+     *
+     * @param transferDto the data transfer object containing transfer details
+     * @return a Mono of the ResponseEntity indicating the result of the operation
+     */
+    @PostMapping("/transfer")
+    public Mono<ResponseEntity<Void>> transferMoney(@RequestBody @Valid MoneyTransferDto transferDto) {
+        return accountService.transfer(transferDto.getFromAccountId(), transferDto.getToAccountId(),
+                        transferDto.getAmount().toBigDecimal())
+                .then(Mono.just(ResponseEntity.ok().build()));
+    }
+
+    /**
+     * Retrieves the details of a specific account by its ID.
+     *
+     * @param id the ID of the account to retrieve
+     * @return a Mono of the ResponseEntity containing the account details or a not-found status
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<AccountDetailsDto>> getAccount(@PathVariable Long id) {
+        return accountService.get(id)
+                .map(account -> ResponseEntity.ok(toDto(account)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams the details of all available accounts as they are read from the database,
+     * as a JSON array or, when requested, as newline-delimited JSON.
+     *
+     * @return a Flux of account details
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<AccountDetailsDto> getAccounts() {
+        return accountService.getAll().map(ReactiveAccountController::toDto);
+    }
+
+    private static AccountDetailsDto toDto(Account account) {
+        AccountDetailsDto dto = new AccountDetailsDto();
+        dto.setId(account.getId());
+        dto.setBalance(Money.of(account.getBalance()));
+        return dto;
+    }
+}
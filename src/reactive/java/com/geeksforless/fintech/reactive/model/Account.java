@@ -0,0 +1,32 @@
+package com.geeksforless.fintech.reactive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents a financial account row of the reactive API.
+ * It maps to the same {@code account} table as the JPA entity of the servlet application.
+ */
+@Table("account")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Account {
+
+    /** The unique identifier of the account. */
+    @Id
+    private Long id;
+
+    /** The current balance of the account. */
+    private BigDecimal balance;
+
+    /** The optimistic locking version of the account, incremented on every update. */
+    @Version
+    private long version;
+}
@@ -0,0 +1,37 @@
+package com.geeksforless.fintech.reactive.repository;
+
+import com.geeksforless.fintech.reactive.model.Account;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface ReactiveAccountRepository extends R2dbcRepository<Account, Long> {
+
+    /**
+     * Debits the account in a single statement, provided it has enough funds.
+     *
+     * @param id     the ID of the account to debit.
+     * @param amount the amount to debit.
+     * @return {@code 1} if the account was debited, {@code 0} if it does not exist or has insufficient funds.
+     */
+    @Modifying
+    @Query("UPDATE account SET balance = balance - :amount, version = version + 1 WHERE id = :id AND balance >= :amount")
+    Mono<Integer> debit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Credits the account in a single statement.
+     *
+     * @param id     the ID of the account to credit.
+     * @param amount the amount to credit.
+     * @return {@code 1} if the account was credited, {@code 0} if it does not exist.
+     */
+    @Modifying
+    @Query("UPDATE account SET balance = balance + :amount, version = version + 1 WHERE id = :id")
+    Mono<Integer> credit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+}
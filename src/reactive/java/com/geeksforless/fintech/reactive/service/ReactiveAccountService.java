@@ -0,0 +1,44 @@
+package com.geeksforless.fintech.reactive.service;
+
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.reactive.model.Account;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Non-blocking counterpart of the account service of the servlet application.
+ */
+public interface ReactiveAccountService {
+
+    /**
+     * Transfers a specified amount between two accounts in one reactive transaction.
+     *
+     * @param fromAccountId The ID of the account from which the amount will be debited.
+     * @param toAccountId   The ID of the account to which the amount will be credited.
+     * @param amount        The amount to be transferred. Must be positive.
+     * @return A {@link Mono} completing once the transfer is committed, or failing with
+     *         {@link InvalidTransferAmountException}, {@link NotFoundException}, {@link InsufficientFundsException}
+     *         or, once the retries are exhausted, {@link ServerIsOverloadedException}.
+     */
+    Mono<Void> transfer(Long fromAccountId, Long toAccountId, BigDecimal amount);
+
+    /**
+     * Retrieves an account by its ID.
+     *
+     * @param accountId The ID of the account to be retrieved.
+     * @return The account, or an empty {@link Mono} if no account is found.
+     */
+    Mono<Account> get(Long accountId);
+
+    /**
+     * Retrieves all the accounts ordered by ID, emitted as they are read.
+     *
+     * @return A {@link Flux} of all accounts.
+     */
+    Flux<Account> getAll();
+}
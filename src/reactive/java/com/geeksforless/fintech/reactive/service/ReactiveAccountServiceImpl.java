@@ -0,0 +1,95 @@
+package com.geeksforless.fintech.reactive.service;
+
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.reactive.model.Account;
+import com.geeksforless.fintech.reactive.repository.ReactiveAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Applies transfers as two single-statement updates, like the {@code atomic} transfer mode of the servlet
+ * application: a conditional debit and a credit in ascending ID order within one {@code READ_COMMITTED}
+ * reactive transaction. A transient failure, e.g. a lock wait timeout, retries the whole transaction up to
+ * {@code reactive.retry.maxAttempts} times with a jittered exponential backoff starting at
+ * {@code reactive.retry.delay} ms; the backoff waits on a timer instead of blocking a thread.
+ */
+@Service
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+
+    private final ReactiveAccountRepository accountRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final Retry retry;
+
+    public ReactiveAccountServiceImpl(ReactiveAccountRepository accountRepository,
+                                      ReactiveTransactionManager transactionManager,
+                                      @Value("${reactive.retry.maxAttempts}") int maxAttempts,
+                                      @Value("${reactive.retry.delay}") long delayMillis) {
+        this.accountRepository = accountRepository;
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.transactionalOperator = TransactionalOperator.create(transactionManager, definition);
+        this.retry = Retry.backoff(maxAttempts - 1, Duration.ofMillis(delayMillis))
+                .filter(TransientDataAccessException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) ->
+                        new ServerIsOverloadedException("Server is overloaded. Please try again later."));
+    }
+
+    @Override
+    public Mono<Void> transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        if (BigDecimal.ZERO.compareTo(amount) >= 0) {
+            return Mono.error(new InvalidTransferAmountException("Amount of the transfer must be positive."));
+        }
+        Mono<Void> updates = fromAccountId.compareTo(toAccountId) <= 0
+                ? debitOrError(fromAccountId, amount).then(creditOrError(toAccountId, amount))
+                : creditOrError(toAccountId, amount).then(debitOrError(fromAccountId, amount));
+        return Mono.defer(() -> transactionalOperator.transactional(updates))
+                .retryWhen(retry);
+    }
+
+    @Override
+    public Mono<Account> get(Long accountId) {
+        return accountRepository.findById(accountId);
+    }
+
+    @Override
+    public Flux<Account> getAll() {
+        return accountRepository.findAll(Sort.by("id"));
+    }
+
+    /**
+     * Debits the account. When no row was updated, one extra lookup tells a missing account apart from
+     * insufficient funds; the error rolls back an already applied credit.
+     */
+    private Mono<Void> debitOrError(Long accountId, BigDecimal amount) {
+        return accountRepository.debit(accountId, amount)
+                .flatMap(updated -> updated > 0 ? Mono.<Void>empty() : accountRepository.existsById(accountId)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new InsufficientFundsException("Not enough funds in the account to transfer")
+                                : new NotFoundException("Account with ID " + accountId + " not found"))));
+    }
+
+    /**
+     * Credits the account. When no row was updated the account does not exist; the error rolls back
+     * an already applied debit.
+     */
+    private Mono<Void> creditOrError(Long accountId, BigDecimal amount) {
+        return accountRepository.credit(accountId, amount)
+                .flatMap(updated -> updated > 0 ? Mono.<Void>empty()
+                        : Mono.error(new NotFoundException("Account with ID " + accountId + " not found")));
+    }
+}
@@ -0,0 +1,2 @@
+MERGE INTO account (id, balance, version) KEY (id) VALUES (1, 100.0, 0);
+MERGE INTO account (id, balance, version) KEY (id) VALUES (2, 200.0, 0);
@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS account (
+    id      BIGINT AUTO_INCREMENT PRIMARY KEY,
+    balance DECIMAL(19, 2) NOT NULL CHECK (balance >= 0),
+    version BIGINT         NOT NULL DEFAULT 0
+);
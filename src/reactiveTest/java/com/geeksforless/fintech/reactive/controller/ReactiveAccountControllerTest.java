@@ -0,0 +1,110 @@
+package com.geeksforless.fintech.reactive.controller;
+
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.handler.GlobalExceptionHandler;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.reactive.model.Account;
+import com.geeksforless.fintech.reactive.service.ReactiveAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAccountControllerTest {
+
+    @Mock
+    private ReactiveAccountService accountService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(new ReactiveAccountController(accountService))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testTransferMoney() {
+        // Given
+        when(accountService.transfer(1L, 2L, new BigDecimal("10.00"))).thenReturn(Mono.empty());
+
+        // When & Then
+        webTestClient.post().uri("/api/accounts/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(transfer(1L, 2L, Money.of("10")))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void testTransferWithInsufficientFunds() {
+        // Given
+        when(accountService.transfer(1L, 2L, new BigDecimal("10.00")))
+                .thenReturn(Mono.error(new InsufficientFundsException("Not enough funds in the account to transfer")));
+
+        // When & Then
+        webTestClient.post().uri("/api/accounts/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(transfer(1L, 2L, Money.of("10")))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Not enough funds in the account to transfer");
+    }
+
+    @Test
+    void testGetAccount() {
+        // Given
+        when(accountService.get(1L)).thenReturn(Mono.just(new Account(1L, BigDecimal.TEN, 0)));
+
+        // When & Then
+        webTestClient.get().uri("/api/accounts/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"id\":1,\"balance\":10.00}");
+    }
+
+    @Test
+    void testGetMissingAccount() {
+        // Given
+        when(accountService.get(3L)).thenReturn(Mono.empty());
+
+        // When & Then
+        webTestClient.get().uri("/api/accounts/3")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testStreamAccountsAsNdjson() {
+        // Given
+        when(accountService.getAll()).thenReturn(Flux.just(
+                new Account(1L, BigDecimal.ONE, 0), new Account(2L, BigDecimal.TEN, 0)));
+
+        // When & Then
+        webTestClient.get().uri("/api/accounts")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"id\":1,\"balance\":1.00}\n{\"id\":2,\"balance\":10.00}\n");
+    }
+
+    private static MoneyTransferDto transfer(Long fromAccountId, Long toAccountId, Money amount) {
+        MoneyTransferDto dto = new MoneyTransferDto();
+        dto.setFromAccountId(fromAccountId);
+        dto.setToAccountId(toAccountId);
+        dto.setAmount(amount);
+        return dto;
+    }
+}
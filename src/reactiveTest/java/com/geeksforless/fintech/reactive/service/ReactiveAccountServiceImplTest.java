@@ -0,0 +1,108 @@
+package com.geeksforless.fintech.reactive.service;
+
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.reactive.repository.ReactiveAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAccountServiceImplTest {
+
+    @Mock
+    private ReactiveAccountRepository accountRepository;
+
+    @Mock
+    private ReactiveTransactionManager transactionManager;
+
+    @Mock
+    private ReactiveTransaction transaction;
+
+    private ReactiveAccountServiceImpl accountService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getReactiveTransaction(any())).thenReturn(Mono.just(transaction));
+        lenient().when(transactionManager.commit(transaction)).thenReturn(Mono.empty());
+        lenient().when(transactionManager.rollback(transaction)).thenReturn(Mono.empty());
+        accountService = new ReactiveAccountServiceImpl(accountRepository, transactionManager, 3, 1);
+    }
+
+    @Test
+    void testSuccessfulTransferUpdatesInAscendingIdOrder() {
+        // Given
+        when(accountRepository.debit(2L, BigDecimal.TEN)).thenReturn(Mono.just(1));
+        when(accountRepository.credit(1L, BigDecimal.TEN)).thenReturn(Mono.just(1));
+
+        // When & Then
+        StepVerifier.create(accountService.transfer(2L, 1L, BigDecimal.TEN)).verifyComplete();
+        InOrder order = inOrder(accountRepository, transactionManager);
+        order.verify(accountRepository).credit(1L, BigDecimal.TEN);
+        order.verify(accountRepository).debit(2L, BigDecimal.TEN);
+        order.verify(transactionManager).commit(transaction);
+    }
+
+    @Test
+    void testTransferWithInsufficientFundsIsRolledBack() {
+        // Given
+        when(accountRepository.debit(1L, BigDecimal.TEN)).thenReturn(Mono.just(0));
+        when(accountRepository.existsById(1L)).thenReturn(Mono.just(true));
+        when(accountRepository.credit(2L, BigDecimal.TEN)).thenReturn(Mono.just(1));
+
+        // When & Then
+        StepVerifier.create(accountService.transfer(1L, 2L, BigDecimal.TEN))
+                .verifyError(InsufficientFundsException.class);
+        verify(transactionManager).rollback(transaction);
+    }
+
+    @Test
+    void testTransferToMissingAccountFails() {
+        // Given
+        when(accountRepository.debit(1L, BigDecimal.TEN)).thenReturn(Mono.just(1));
+        when(accountRepository.credit(2L, BigDecimal.TEN)).thenReturn(Mono.just(0));
+
+        // When & Then
+        StepVerifier.create(accountService.transfer(1L, 2L, BigDecimal.TEN))
+                .verifyError(NotFoundException.class);
+    }
+
+    @Test
+    void testTransferWithInvalidAmountFailsWithoutTransaction() {
+        StepVerifier.create(accountService.transfer(1L, 2L, BigDecimal.ZERO))
+                .verifyError(InvalidTransferAmountException.class);
+        verify(transactionManager, never()).getReactiveTransaction(any());
+    }
+
+    @Test
+    void testTransientFailureIsRetriedUntilExhausted() {
+        // Given
+        when(accountRepository.debit(1L, BigDecimal.TEN)).thenReturn(Mono.error(new QueryTimeoutException("lock timeout")));
+        when(accountRepository.credit(2L, BigDecimal.TEN)).thenReturn(Mono.just(1));
+
+        // When & Then
+        StepVerifier.create(accountService.transfer(1L, 2L, BigDecimal.TEN))
+                .verifyError(ServerIsOverloadedException.class);
+        verify(transactionManager, times(3)).rollback(transaction);
+    }
+}
@@ -0,0 +1,84 @@
+package com.geeksforless.fintech.configuration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(targetDataSource, 2, 10);
+    }
+
+    @Test
+    void testConnectionBeyondLimitTimesOut() throws SQLException {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // When & Then
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.availablePermits());
+    }
+
+    @Test
+    void testClosingConnectionReleasesPermitOnce() throws SQLException {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        Connection limited = dataSource.getConnection();
+
+        // When
+        limited.close();
+        limited.close();
+
+        // Then
+        assertEquals(2, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testFailedConnectionReleasesPermit() throws SQLException {
+        // Given
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("down"));
+
+        // When & Then
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void testCallsAreDelegatedToConnection() throws SQLException {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        // When
+        Connection limited = dataSource.getConnection();
+
+        // Then
+        assertTrue(limited.getAutoCommit());
+    }
+}
@@ -1,26 +1,49 @@
 package com.geeksforless.fintech.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geeksforless.fintech.dto.AccountBalanceDto;
 import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.dto.AccountImportResultDto;
+import com.geeksforless.fintech.dto.AccountPageDto;
+import com.geeksforless.fintech.dto.AsyncTransferDto;
+import com.geeksforless.fintech.dto.AsyncTransferState;
+import com.geeksforless.fintech.dto.BatchTransferResultDto;
 import com.geeksforless.fintech.dto.MoneyTransferDto;
-import com.geeksforless.fintech.mapper.AccountMapper;
+import com.geeksforless.fintech.dto.TransferPageDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.exception.TransferRejectedException;
+import com.geeksforless.fintech.mapper.AccountJsonWriter;
 import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.service.AccountImportService;
 import com.geeksforless.fintech.service.AccountService;
+import com.geeksforless.fintech.service.AsyncTransferService;
+import com.geeksforless.fintech.service.BalanceSnapshotService;
+import com.geeksforless.fintech.service.BatchTransferService;
+import com.geeksforless.fintech.service.TransferHistoryService;
+import com.geeksforless.fintech.service.TransferLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
-import java.math.BigDecimal;
-import java.util.Arrays;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @ExtendWith(MockitoExtension.class)
 class AccountControllerTest {
@@ -29,11 +52,35 @@ class AccountControllerTest {
     private AccountService accountService;
 
     @Mock
-    private AccountMapper accountMapper;
+    private BatchTransferService batchTransferService;
+
+    @Mock
+    private AsyncTransferService asyncTransferService;
+
+    @Mock
+    private TransferHistoryService transferHistoryService;
+
+    @Mock
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Mock
+    private AccountImportService accountImportService;
+
+    @Spy
+    private AccountJsonWriter accountJsonWriter = new AccountJsonWriter(new ObjectMapper());
+
+    @Spy
+    private TransferLimiter transferLimiter = new TransferLimiter(new SimpleMeterRegistry(), true, 10, 1, 100, 1);
 
-    @InjectMocks
     private AccountController accountController;
 
+    @BeforeEach
+    void setUp() {
+        accountController = new AccountController(accountService, batchTransferService, asyncTransferService,
+                Optional.of(transferHistoryService), Optional.of(balanceSnapshotService), transferLimiter,
+                accountImportService, accountJsonWriter);
+    }
+
 
     @Test
     void testTransferMoney() {
@@ -41,24 +88,57 @@ class AccountControllerTest {
         MoneyTransferDto dto = new MoneyTransferDto();
         dto.setFromAccountId(1L);
         dto.setToAccountId(2L);
-        dto.setAmount(BigDecimal.TEN);
-        doNothing().when(accountService).transfer(dto.getFromAccountId(), dto.getToAccountId(), dto.getAmount());
+        dto.setAmount(Money.of("10"));
+        doNothing().when(accountService).transfer(dto.getFromAccountId(), dto.getToAccountId(), dto.getAmount(), null);
 
         // When
-        ResponseEntity<Void> response = accountController.transferMoney(dto);
+        ResponseEntity<Void> response = accountController.transferMoney(dto, null);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(accountService).transfer(dto.getFromAccountId(), dto.getToAccountId(), dto.getAmount());
+        verify(accountService).transfer(dto.getFromAccountId(), dto.getToAccountId(), dto.getAmount(), null);
+    }
+
+    @Test
+    void testTransferMoneyPrefersIdempotencyKeyHeader() {
+        // Given
+        MoneyTransferDto dto = new MoneyTransferDto();
+        dto.setFromAccountId(1L);
+        dto.setToAccountId(2L);
+        dto.setAmount(Money.of("10"));
+        dto.setIdempotencyKey("from-body");
+
+        // When
+        accountController.transferMoney(dto, "from-header");
+
+        // Then
+        verify(accountService).transfer(1L, 2L, Money.of("10"), "from-header");
+    }
+
+    @Test
+    void testTransferMoneyInBatch() {
+        // Given
+        MoneyTransferDto first = new MoneyTransferDto();
+        MoneyTransferDto second = new MoneyTransferDto();
+        List<MoneyTransferDto> dtos = List.of(first, second);
+        when(batchTransferService.transfer(dtos)).thenReturn(List.of(TransferStatus.OK, TransferStatus.NOT_FOUND));
+
+        // When
+        ResponseEntity<List<BatchTransferResultDto>> response = accountController.transferMoneyInBatch(dtos);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(
+                List.of(new BatchTransferResultDto(0, TransferStatus.OK), new BatchTransferResultDto(1, TransferStatus.NOT_FOUND)),
+                response.getBody()
+        );
     }
 
     @Test
     void testGetAccountFound() {
         // Given
-        Account account = new Account();
-        AccountDetailsDto dto = new AccountDetailsDto();
-        when(accountService.get(1L)).thenReturn(Optional.of(account));
-        when(accountMapper.toDto(account)).thenReturn(dto);
+        AccountDetailsDto dto = new AccountDetailsDto(1L, Money.of("10"), "USD");
+        when(accountService.getDetails(1L)).thenReturn(Optional.of(dto));
 
         // When
         ResponseEntity<AccountDetailsDto> response = accountController.getAccount(1L);
@@ -71,7 +151,7 @@ class AccountControllerTest {
     @Test
     void testGetAccountNotFound() {
         // Given
-        when(accountService.get(1L)).thenReturn(Optional.empty());
+        when(accountService.getDetails(1L)).thenReturn(Optional.empty());
 
         // When
         ResponseEntity<AccountDetailsDto> response = accountController.getAccount(1L);
@@ -81,23 +161,216 @@ class AccountControllerTest {
     }
 
     @Test
-    void testGetAccounts() {
+    @SuppressWarnings("unchecked")
+    void testGetAccounts() throws IOException {
         // Given
-        Account account1 = new Account();
-        Account account2 = new Account();
-        AccountDetailsDto dto1 = new AccountDetailsDto();
-        AccountDetailsDto dto2 = new AccountDetailsDto();
-        when(accountService.getAll()).thenReturn(Arrays.asList(account1, account2));
-        when(accountMapper.toDto(account1)).thenReturn(dto1);
-        when(accountMapper.toDto(account2)).thenReturn(dto2);
+        Account account1 = new Account(1L, Money.of("1"));
+        Account account2 = new Account(2L, Money.of("0.5"), "EUR");
+        doAnswer(invocation -> {
+            Consumer<Account> action = invocation.getArgument(0);
+            action.accept(account1);
+            action.accept(account2);
+            return null;
+        }).when(accountService).forEachAccount(any(Consumer.class));
 
         // When
-        ResponseEntity<List<AccountDetailsDto>> response = accountController.getAccounts();
+        ResponseEntity<StreamingResponseBody> response = accountController.getAccounts();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertTrue(response.getBody().contains(dto1));
-        assertTrue(response.getBody().contains(dto2));
+        assertEquals(
+                "[{\"id\":1,\"balance\":1.00,\"currency\":\"USD\"},{\"id\":2,\"balance\":0.50,\"currency\":\"EUR\"}]",
+                outputStream.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void testGetNoAccounts() throws IOException {
+        // Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // When
+        accountController.getAccounts().getBody().writeTo(outputStream);
+
+        // Then
+        assertEquals("[]", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testGetAccountsPage() {
+        // Given
+        AccountDetailsDto dto1 = new AccountDetailsDto(3L, Money.of("1"), "USD");
+        AccountDetailsDto dto2 = new AccountDetailsDto(4L, Money.of("10"), "EUR");
+        when(accountService.getDetailsPage(2L, 2)).thenReturn(List.of(dto1, dto2));
+
+        // When
+        ResponseEntity<AccountPageDto> response = accountController.getAccountsPage(2L, 2);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(dto1, dto2), response.getBody().getAccounts());
+        assertEquals(4L, response.getBody().getNextAfterId());
+    }
+
+    @Test
+    void testGetLastAccountsPage() {
+        // Given
+        when(accountService.getDetailsPage(4L, 2)).thenReturn(List.of());
+
+        // When
+        ResponseEntity<AccountPageDto> response = accountController.getAccountsPage(4L, 2);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().getAccounts().isEmpty());
+        assertNull(response.getBody().getNextAfterId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamAccounts() throws IOException {
+        // Given
+        Account account1 = new Account(1L, Money.of("1"));
+        Account account2 = new Account(2L, Money.of("10"));
+        doAnswer(invocation -> {
+            Consumer<Account> action = invocation.getArgument(0);
+            action.accept(account1);
+            action.accept(account2);
+            return null;
+        }).when(accountService).forEachAccount(any(Consumer.class));
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = accountController.streamAccounts();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(
+                "{\"id\":1,\"balance\":1.00,\"currency\":\"USD\"}\n{\"id\":2,\"balance\":10.00,\"currency\":\"USD\"}\n",
+                outputStream.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    void testTransferMoneyAsync() {
+        // Given
+        MoneyTransferDto dto = new MoneyTransferDto();
+        dto.setFromAccountId(1L);
+        dto.setToAccountId(2L);
+        dto.setAmount(Money.of("10"));
+        AsyncTransferDto queued = new AsyncTransferDto("id-1", AsyncTransferState.QUEUED, null, null);
+        when(asyncTransferService.submit(dto, "key-1")).thenReturn(queued);
+
+        // When
+        ResponseEntity<AsyncTransferDto> response = accountController.transferMoneyAsync(dto, "key-1");
+
+        // Then
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/accounts/transfers/id-1", response.getHeaders().getLocation().toString());
+        assertEquals(queued, response.getBody());
+    }
+
+    @Test
+    void testGetTransfer() {
+        // Given
+        AsyncTransferDto completed = new AsyncTransferDto("id-1", AsyncTransferState.COMPLETED, TransferStatus.OK, null);
+        when(asyncTransferService.get("id-1")).thenReturn(Optional.of(completed));
+
+        // When
+        ResponseEntity<AsyncTransferDto> response = accountController.getTransfer("id-1");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(completed, response.getBody());
+    }
+
+    @Test
+    void testGetUnknownTransfer() {
+        // Given
+        when(asyncTransferService.get("unknown")).thenReturn(Optional.empty());
+
+        // When
+        ResponseEntity<AsyncTransferDto> response = accountController.getTransfer("unknown");
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testGetTransfers() {
+        // Given
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        TransferPageDto page = new TransferPageDto(List.of(), null);
+        when(transferHistoryService.getStatement(1L, from, null, "cursor", 50)).thenReturn(page);
+
+        // When
+        ResponseEntity<TransferPageDto> response = accountController.getTransfers(1L, from, null, "cursor", 50);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void testGetBalanceAt() {
+        // Given
+        Instant at = Instant.parse("2024-01-01T00:00:00Z");
+        AccountBalanceDto balance = new AccountBalanceDto(1L, Money.of("10"), at);
+        when(balanceSnapshotService.getBalanceAt(1L, at)).thenReturn(balance);
+
+        // When
+        ResponseEntity<AccountBalanceDto> response = accountController.getBalanceAt(1L, at);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(balance, response.getBody());
+    }
+
+    @Test
+    void testHistoryIsNotImplementedWithoutTheDatabaseStore() {
+        // Given
+        Instant at = Instant.parse("2024-01-01T00:00:00Z");
+        accountController = new AccountController(accountService, batchTransferService, asyncTransferService,
+                Optional.empty(), Optional.empty(), transferLimiter, accountImportService, accountJsonWriter);
+
+        // When
+        ResponseEntity<AccountBalanceDto> balance = accountController.getBalanceAt(1L, at);
+        ResponseEntity<TransferPageDto> transfers = accountController.getTransfers(1L, null, null, null, 50);
+
+        // Then
+        assertEquals(HttpStatus.NOT_IMPLEMENTED, balance.getStatusCode());
+        assertEquals(HttpStatus.NOT_IMPLEMENTED, transfers.getStatusCode());
     }
-}
 
+    @Test
+    void testRejectedTransferIsNotAttempted() {
+        // Given
+        MoneyTransferDto dto = new MoneyTransferDto();
+        dto.setFromAccountId(1L);
+        dto.setToAccountId(2L);
+        dto.setAmount(Money.of("10"));
+        doThrow(new TransferRejectedException("Too many transfers", 1)).when(transferLimiter).execute(any());
+
+        // When & Then
+        assertThrows(TransferRejectedException.class, () -> accountController.transferMoney(dto, null));
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void testImportAccountsCsv() throws IOException {
+        // Given
+        ByteArrayInputStream body = new ByteArrayInputStream("balance\n10.00\n".getBytes(StandardCharsets.UTF_8));
+        AccountImportResultDto result = new AccountImportResultDto(1, 5);
+        when(accountImportService.importCsv(body)).thenReturn(result);
+
+        // When
+        ResponseEntity<AccountImportResultDto> response = accountController.importAccountsCsv(body);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+}
@@ -0,0 +1,10 @@
+package com.geeksforless.fintech.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the checks of {@link TransferErrorsIntegrationTest} with {@code transfer.mode=atomic}.
+ */
+@SpringBootTest(properties = "transfer.mode=atomic")
+class AtomicTransferErrorsIntegrationTest extends TransferErrorsIntegrationTest {
+}
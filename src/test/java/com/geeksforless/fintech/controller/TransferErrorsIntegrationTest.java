@@ -0,0 +1,79 @@
+package com.geeksforless.fintech.controller;
+
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the status codes of rejected transfers through the whole stack, including the retry and transaction
+ * proxies of the transfer strategy of the default {@code transfer.mode}. Subclasses run the same checks in the
+ * other modes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransferErrorsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    /**
+     * Tests that a transfer from an account that does not exist is answered with 404 Not Found.
+     */
+    @Test
+    void transferFromUnknownAccountShouldBeNotFound() throws Exception {
+        Account toAccount = accountRepository.save(new Account(null, Money.ZERO, Account.DEFAULT_CURRENCY));
+
+        mockMvc.perform(transfer(Long.MAX_VALUE, toAccount.getId(), "10"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests that a transfer to an account that does not exist is answered with 404 Not Found and debits nothing.
+     */
+    @Test
+    void transferToUnknownAccountShouldBeNotFound() throws Exception {
+        Account fromAccount = accountRepository.save(new Account(null, Money.of("100"), Account.DEFAULT_CURRENCY));
+
+        mockMvc.perform(transfer(fromAccount.getId(), Long.MAX_VALUE, "10"))
+                .andExpect(status().isNotFound());
+
+        assertEquals(Money.of("100"), accountRepository.findById(fromAccount.getId()).get().getBalance());
+    }
+
+    /**
+     * Tests that a transfer exceeding the balance of the source account is answered with 400 Bad Request
+     * and leaves both balances unchanged.
+     */
+    @Test
+    void transferWithInsufficientFundsShouldBeBadRequest() throws Exception {
+        Account fromAccount = accountRepository.save(new Account(null, Money.of("5"), Account.DEFAULT_CURRENCY));
+        Account toAccount = accountRepository.save(new Account(null, Money.ZERO, Account.DEFAULT_CURRENCY));
+
+        mockMvc.perform(transfer(fromAccount.getId(), toAccount.getId(), "10"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(Money.of("5"), accountRepository.findById(fromAccount.getId()).get().getBalance());
+        assertEquals(Money.ZERO, accountRepository.findById(toAccount.getId()).get().getBalance());
+    }
+
+    private static RequestBuilder transfer(Long fromAccountId, Long toAccountId, String amount) {
+        return post("/api/accounts/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountId\":" + fromAccountId + ",\"toAccountId\":" + toAccountId
+                        + ",\"amount\":" + amount + "}");
+    }
+}
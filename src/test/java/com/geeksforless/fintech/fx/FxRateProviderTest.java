@@ -0,0 +1,112 @@
+package com.geeksforless.fintech.fx;
+
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.money.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxRateProviderTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRatesAreLoadedOnStartup() throws IOException {
+        // Given
+        Path table = write("USD=1\nEUR = 0.92\n", 0);
+
+        // When
+        FxRateProvider provider = provider(table);
+
+        // Then
+        assertEquals(new BigDecimal("0.92"), provider.current().getRate("EUR"));
+        assertEquals(Money.of("9.20"), provider.convert(Money.of("10"), "USD", "EUR"));
+        assertEquals(0.0, meterRegistry.get("fx.rates.age").gauge().value());
+    }
+
+    @Test
+    void testModifiedRatesAreSwappedIn() throws IOException {
+        // Given
+        Path table = write("USD=1\nEUR=0.92\n", 0);
+        FxRateProvider provider = provider(table);
+        FxRates loaded = provider.current();
+
+        // When
+        provider.refresh();
+        FxRates unmodified = provider.current();
+        write("USD=1\nEUR=0.5\n", 10);
+        provider.refresh();
+
+        // Then
+        assertSame(loaded, unmodified);
+        assertEquals(Money.of("5"), provider.convert(Money.of("10"), "USD", "EUR"));
+    }
+
+    @Test
+    void testMalformedRatesKeepThePreviousRates() throws IOException {
+        // Given
+        Path table = write("USD=1\nEUR=0.92\n", 0);
+        FxRateProvider provider = provider(table);
+        FxRates loaded = provider.current();
+
+        // When
+        write("USD=1\nEUR=0,5\n", 10);
+        provider.refresh();
+        write("USD=1\nEUR=-1\n", 20);
+        provider.refresh();
+
+        // Then
+        assertSame(loaded, provider.current());
+    }
+
+    @Test
+    void testMissingRatesOnlyConvertWithinOneCurrency() {
+        // Given
+        FxRateProvider provider = provider(directory.resolve("missing.properties"));
+
+        // When & Then
+        assertSame(FxRates.EMPTY, provider.current());
+        assertEquals(Money.of("10"), provider.convert(Money.of("10"), "USD", "USD"));
+    }
+
+    @Test
+    void testConvertRejectsAmountsThatRoundToZero() throws IOException {
+        // Given
+        FxRateProvider provider = provider(write("USD=1\nEUR=0.4\n", 0));
+
+        // When & Then
+        assertThrows(InvalidTransferAmountException.class, () -> provider.convert(Money.of("0.01"), "USD", "EUR"));
+        assertThrows(InvalidTransferAmountException.class,
+                () -> provider.convert(Money.ofMinorUnits(Long.MAX_VALUE), "EUR", "USD"));
+    }
+
+    private FxRateProvider provider(Path table) {
+        return new FxRateProvider(new DefaultResourceLoader(), Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry,
+                table.toUri().toString());
+    }
+
+    private Path write(String rates, int secondsLater) throws IOException {
+        Path table = directory.resolve("fx-rates.properties");
+        Files.writeString(table, rates);
+        Files.setLastModifiedTime(table, FileTime.from(NOW.plusSeconds(secondsLater)));
+        return table;
+    }
+}
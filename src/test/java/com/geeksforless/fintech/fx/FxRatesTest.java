@@ -0,0 +1,76 @@
+package com.geeksforless.fintech.fx;
+
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.money.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxRatesTest {
+
+    private final FxRates rates = new FxRates(Map.of(
+            "USD", BigDecimal.ONE,
+            "EUR", new BigDecimal("0.92"),
+            "GBP", new BigDecimal("0.5")
+    ), Instant.EPOCH);
+
+    @Test
+    void testSameCurrencyIsNotConverted() {
+        // Given
+        Money amount = Money.of("10");
+
+        // When & Then
+        assertSame(amount, rates.convert(amount, "USD", "USD"));
+        assertSame(amount, FxRates.EMPTY.convert(amount, "JPY", "JPY"));
+    }
+
+    @Test
+    void testConvertWithCrossRates() {
+        // Given, When & Then
+        assertEquals(Money.of("9.20"), rates.convert(Money.of("10"), "USD", "EUR"));
+        assertEquals(Money.of("10.87"), rates.convert(Money.of("10"), "EUR", "USD"));
+        assertEquals(Money.of("5.43"), rates.convert(Money.of("10"), "EUR", "GBP"));
+    }
+
+    @Test
+    void testConvertRoundsHalfEven() {
+        // Given, When & Then
+        assertEquals(Money.of("0.02"), rates.convert(Money.of("0.05"), "USD", "GBP"));
+        assertEquals(Money.of("0.04"), rates.convert(Money.of("0.07"), "USD", "GBP"));
+        assertEquals(Money.of("0.00"), rates.convert(Money.of("0.01"), "USD", "GBP"));
+        assertEquals(Money.of("-0.02"), rates.convert(Money.of("-0.05"), "USD", "GBP"));
+    }
+
+    @Test
+    void testLargeAmountsConvertLikeBigDecimal() {
+        // Given
+        long minorUnits = Long.MAX_VALUE / 10;
+        long expected = BigDecimal.valueOf(minorUnits)
+                .multiply(new BigDecimal("0.92"))
+                .setScale(0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+
+        // When & Then
+        assertEquals(expected, rates.convert(Money.ofMinorUnits(minorUnits), "USD", "EUR").minorUnits());
+        assertThrows(ArithmeticException.class, () -> rates.convert(Money.ofMinorUnits(Long.MAX_VALUE), "EUR", "USD"));
+    }
+
+    @Test
+    void testConvertRejectsCurrenciesWithoutRate() {
+        // Given, When & Then
+        assertThrows(UnsupportedCurrencyException.class, () -> rates.convert(Money.of("10"), "USD", "JPY"));
+        assertThrows(UnsupportedCurrencyException.class, () -> FxRates.EMPTY.convert(Money.of("10"), "USD", "EUR"));
+    }
+
+    @Test
+    void testInvalidRatesAreRejected() {
+        // Given, When & Then
+        assertThrows(IllegalArgumentException.class, () -> new FxRates(Map.of("DOLLAR", BigDecimal.ONE), Instant.EPOCH));
+        assertThrows(IllegalArgumentException.class, () -> new FxRates(Map.of("EUR", BigDecimal.ZERO), Instant.EPOCH));
+    }
+}
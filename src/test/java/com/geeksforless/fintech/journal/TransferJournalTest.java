@@ -0,0 +1,303 @@
+package com.geeksforless.fintech.journal;
+
+import com.geeksforless.fintech.util.LongLongHashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferJournalTest {
+
+    private static final int SEGMENT_RECORDS = 16;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void testEmptyJournalHasNothingToRecover() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+
+            // When
+            TransferJournal.Recovery recovery = journal.recover();
+
+            // Then
+            assertFalse(recovery.present());
+            assertEquals(0, recovery.balances().size());
+        }
+    }
+
+    @Test
+    void testRecoverCommittedTransfers() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            commit(journal, 1L, 2L, 200);
+            commit(journal, 2L, 1L, 50);
+        }
+
+        // When
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            TransferJournal.Recovery recovery = journal.recover();
+
+            // Then
+            assertTrue(recovery.present());
+            assertEquals(2, recovery.replayedRecords());
+            assertEquals(850, recovery.balances().get(1L, -1));
+            assertEquals(650, recovery.balances().get(2L, -1));
+        }
+    }
+
+    @Test
+    void testAbortedTransferIsNotRecovered() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            long sequence = journal.append(1L, 2L, 200);
+            journal.complete(sequence, false);
+            commit(journal, 1L, 2L, 100);
+        }
+
+        // When
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            TransferJournal.Recovery recovery = journal.recover();
+
+            // Then
+            assertEquals(1, recovery.replayedRecords());
+            assertEquals(900, recovery.balances().get(1L, -1));
+            assertEquals(600, recovery.balances().get(2L, -1));
+        }
+    }
+
+    @Test
+    void testAccountsOpenedAfterTheSnapshotAreRecoveredFromTheirOpeningBalance() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            long opened = journal.appendOpening(3L, 100_000);
+            journal.awaitDurable(opened);
+            journal.complete(opened, true);
+            long rolledBack = journal.appendOpening(4L, 700);
+            journal.complete(rolledBack, false);
+            commit(journal, 3L, 1L, 1000);
+        }
+
+        // When
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            TransferJournal.Recovery recovery = journal.recover();
+
+            // Then
+            assertEquals(1, recovery.replayedRecords());
+            assertEquals(99_000, recovery.balances().get(3L, -1));
+            assertEquals(2000, recovery.balances().get(1L, -1));
+            assertFalse(recovery.balances().containsKey(4L));
+        }
+    }
+
+    @Test
+    void testOpeningsAreFoldedIntoSnapshot() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            long opened = journal.appendOpening(3L, 300);
+            journal.awaitDurable(opened);
+            journal.complete(opened, true);
+            for (int i = 0; i < SEGMENT_RECORDS; i++) {
+                commit(journal, 3L, 2L, 1);
+            }
+
+            // When
+            journal.snapshot();
+        }
+
+        // Then
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            TransferJournal.Recovery recovery = journal.recover();
+            assertEquals(300 - SEGMENT_RECORDS, recovery.balances().get(3L, -1));
+            assertEquals(500 + SEGMENT_RECORDS, recovery.balances().get(2L, -1));
+        }
+    }
+
+    @Test
+    void testRecoverConvertedTransfers() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            long converted = journal.append(1L, 2L, 200, 184);
+            journal.awaitDurable(converted);
+            journal.complete(converted, true);
+            long aborted = journal.append(1L, 2L, 100, 92);
+            journal.complete(aborted, false);
+            commit(journal, 2L, 1L, 50);
+        }
+
+        // When
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            TransferJournal.Recovery recovery = journal.recover();
+
+            // Then
+            assertEquals(2, recovery.replayedRecords());
+            assertEquals(850, recovery.balances().get(1L, -1));
+            assertEquals(634, recovery.balances().get(2L, -1));
+        }
+    }
+
+    @Test
+    void testConvertedTransferAtTheEndOfASegmentIsFoldedWithItsCredit() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            for (int i = 0; i < SEGMENT_RECORDS - 1; i++) {
+                commit(journal, 1L, 2L, 1);
+            }
+            // The transfer is the last record of the first segment, its credit the first of the second one.
+            long converted = journal.append(1L, 2L, 10, 9);
+            journal.awaitDurable(converted);
+            journal.complete(converted, true);
+
+            // When
+            long snapshotSequence = journal.snapshot();
+
+            // Then
+            assertEquals(SEGMENT_RECORDS, snapshotSequence);
+        }
+
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            TransferJournal.Recovery recovery = journal.recover();
+            assertEquals(0, recovery.replayedRecords());
+            assertEquals(1000 - (SEGMENT_RECORDS - 1) - 10, recovery.balances().get(1L, -1));
+            assertEquals(500 + (SEGMENT_RECORDS - 1) + 9, recovery.balances().get(2L, -1));
+        }
+    }
+
+    @Test
+    void testSequenceContinuesAfterReopen() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            commit(journal, 1L, 2L, 1);
+        }
+
+        // When
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            long sequence = journal.append(1L, 2L, 1);
+
+            // Then
+            assertEquals(2, sequence);
+        }
+    }
+
+    @Test
+    void testFullSegmentsAreFoldedIntoSnapshot() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            for (int i = 0; i < SEGMENT_RECORDS * 3 + 5; i++) {
+                commit(journal, 1L, 2L, 1);
+            }
+
+            // When
+            long snapshotSequence = journal.snapshot();
+
+            // Then
+            assertEquals(SEGMENT_RECORDS * 3, snapshotSequence);
+            assertEquals(1, files("transfers-").size());
+            assertEquals(1, files("snapshot-").size());
+        }
+
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            TransferJournal.Recovery recovery = journal.recover();
+            assertEquals(SEGMENT_RECORDS * 3, recovery.snapshotSequence());
+            assertEquals(5, recovery.replayedRecords());
+            assertEquals(1000 - SEGMENT_RECORDS * 3 - 5, recovery.balances().get(1L, -1));
+            assertEquals(500 + SEGMENT_RECORDS * 3 + 5, recovery.balances().get(2L, -1));
+        }
+    }
+
+    @Test
+    void testSnapshotStopsBeforeTransferInFlight() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            commit(journal, 1L, 2L, 1);
+            long inFlight = journal.append(1L, 2L, 100);
+            for (int i = 0; i < SEGMENT_RECORDS * 2; i++) {
+                commit(journal, 1L, 2L, 1);
+            }
+
+            // When
+            long snapshotSequence = journal.snapshot();
+
+            // Then
+            assertEquals(inFlight - 1, snapshotSequence);
+            journal.complete(inFlight, false);
+        }
+
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            TransferJournal.Recovery recovery = journal.recover();
+            assertEquals(1000 - 1 - SEGMENT_RECORDS * 2, recovery.balances().get(1L, -1));
+        }
+    }
+
+    @Test
+    void testTornRecordIsIgnored() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            journal.writeInitialSnapshot(balances(1000, 500));
+            commit(journal, 1L, 2L, 200);
+            commit(journal, 1L, 2L, 300);
+        }
+        try (FileChannel channel = FileChannel.open(files("transfers-").get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), TransferJournal.RECORD_SIZE + 20);
+        }
+
+        // When
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            TransferJournal.Recovery recovery = journal.recover();
+
+            // Then
+            assertEquals(1, recovery.replayedRecords());
+            assertEquals(800, recovery.balances().get(1L, -1));
+            assertEquals(2, journal.append(1L, 2L, 1));
+        }
+    }
+
+    @Test
+    void testInitialSnapshotRequiresEmptyJournal() throws IOException {
+        // Given
+        try (TransferJournal journal = TransferJournal.open(journalDir, SEGMENT_RECORDS, true)) {
+            commit(journal, 1L, 2L, 1);
+
+            // When & Then
+            assertThrows(IllegalStateException.class, () -> journal.writeInitialSnapshot(balances(1000, 500)));
+        }
+    }
+
+    private static void commit(TransferJournal journal, long fromAccountId, long toAccountId, long amount) {
+        long sequence = journal.append(fromAccountId, toAccountId, amount);
+        journal.awaitDurable(sequence);
+        journal.complete(sequence, true);
+    }
+
+    private static LongLongHashMap balances(long first, long second) {
+        LongLongHashMap balances = new LongLongHashMap(2);
+        balances.put(1L, first);
+        balances.put(2L, second);
+        return balances;
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.geeksforless.fintech.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class AccountJsonWriterTest {
+
+    private ObjectMapper objectMapper;
+    private AccountJsonWriter accountJsonWriter;
+    private AccountMapper accountMapper;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        accountJsonWriter = new AccountJsonWriter(objectMapper);
+        accountMapper = new AccountMapper();
+    }
+
+    @Test
+    void testWriteArray_givenNoAccounts_writesEmptyArray() throws IOException {
+        // Given
+        List<Account> accounts = List.of();
+
+        // When
+        String json = writeArray(accounts);
+
+        // Then
+        assertEquals("[]", json);
+        assertEquals(objectMapper.writeValueAsString(toDtos(accounts)), json);
+    }
+
+    @Test
+    void testWriteArray_givenAccounts_writesSameJsonAsDtos() throws IOException {
+        // Given
+        List<Account> accounts = List.of(
+                account(1L, Money.of("10"), Account.DEFAULT_CURRENCY),
+                account(2L, Money.of("1234567.89"), Account.DEFAULT_CURRENCY));
+
+        // When
+        String json = writeArray(accounts);
+
+        // Then
+        assertEquals(objectMapper.writeValueAsString(toDtos(accounts)), json);
+    }
+
+    @Test
+    void testWriteArray_givenScalesAndNegativeBalances_writesSameNumbersAsDtos() throws IOException {
+        // Given
+        List<Account> accounts = List.of(
+                account(1L, Money.of("0"), Account.DEFAULT_CURRENCY),
+                account(2L, Money.of("-0.05"), Account.DEFAULT_CURRENCY),
+                account(3L, Money.of("-12.50"), Account.DEFAULT_CURRENCY),
+                account(4L, new Money(5, 3), Account.DEFAULT_CURRENCY),
+                account(5L, new Money(-123_456_789, 4), Account.DEFAULT_CURRENCY),
+                account(6L, new Money(42, 0), Account.DEFAULT_CURRENCY),
+                account(7L, new Money(Long.MIN_VALUE, Money.MAX_SCALE), Account.DEFAULT_CURRENCY));
+
+        // When
+        String json = writeArray(accounts);
+
+        // Then
+        assertEquals(objectMapper.writeValueAsString(toDtos(accounts)), json);
+    }
+
+    @Test
+    void testWriteArray_givenCurrencies_writesCurrencyOfEveryAccount() throws IOException {
+        // Given
+        List<Account> accounts = List.of(
+                account(1L, Money.of("10"), "EUR"),
+                account(2L, Money.of("20"), "GBP"));
+
+        // When
+        String json = writeArray(accounts);
+
+        // Then
+        assertEquals(objectMapper.writeValueAsString(toDtos(accounts)), json);
+        assertEquals("EUR", objectMapper.readTree(json).get(0).get("currency").asText());
+    }
+
+    @Test
+    void testWriteLines_givenAccounts_writesOneDtoPerLine() throws IOException {
+        // Given
+        List<Account> accounts = List.of(
+                account(1L, Money.of("10"), "EUR"),
+                account(2L, Money.of("-0.05"), Account.DEFAULT_CURRENCY),
+                account(3L, new Money(5, 3), "GBP"));
+
+        // When
+        String lines = writeLines(accounts);
+
+        // Then
+        StringBuilder expected = new StringBuilder();
+        for (AccountDetailsDto dto : toDtos(accounts)) {
+            expected.append(objectMapper.writeValueAsString(dto)).append('\n');
+        }
+        assertEquals(expected.toString(), lines);
+    }
+
+    private String writeArray(List<Account> accounts) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        accountJsonWriter.writeArray(outputStream, accounts::forEach);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private String writeLines(List<Account> accounts) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        accountJsonWriter.writeLines(outputStream, accounts::forEach);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<AccountDetailsDto> toDtos(List<Account> accounts) {
+        return accounts.stream().map(accountMapper::toDto).collect(Collectors.toList());
+    }
+
+    private static Account account(Long id, Money balance, String currency) {
+        Account account = new Account();
+        account.setId(id);
+        account.setBalance(balance);
+        account.setCurrency(currency);
+        return account;
+    }
+}
@@ -5,11 +5,10 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 
 import com.geeksforless.fintech.dto.AccountDetailsDto;
 import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
-
 class AccountMapperTest {
 
     private AccountMapper accountMapper;
@@ -24,7 +23,8 @@ class AccountMapperTest {
         // Given
         AccountDetailsDto dto = new AccountDetailsDto();
         dto.setId(1L);
-        dto.setBalance(BigDecimal.TEN);
+        dto.setBalance(Money.of("10"));
+        dto.setCurrency("EUR");
 
         // When
         Account account = accountMapper.toEntity(dto);
@@ -32,6 +32,7 @@ class AccountMapperTest {
         // Then
         assertEquals(dto.getId(), account.getId());
         assertEquals(dto.getBalance(), account.getBalance());
+        assertEquals(dto.getCurrency(), account.getCurrency());
     }
 
     @Test
@@ -51,7 +52,8 @@ class AccountMapperTest {
         // Given
         Account account = new Account();
         account.setId(1L);
-        account.setBalance(BigDecimal.TEN);
+        account.setBalance(Money.of("10"));
+        account.setCurrency("EUR");
 
         // When
         AccountDetailsDto dto = accountMapper.toDto(account);
@@ -59,6 +61,7 @@ class AccountMapperTest {
         // Then
         assertEquals(account.getId(), dto.getId());
         assertEquals(account.getBalance(), dto.getBalance());
+        assertEquals(account.getCurrency(), dto.getCurrency());
     }
 
     @Test
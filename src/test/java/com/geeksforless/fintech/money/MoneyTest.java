@@ -0,0 +1,108 @@
+package com.geeksforless.fintech.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testParseNormalizesToDefaultScale() {
+        // Given, When & Then
+        assertEquals(Money.ofMinorUnits(1250), Money.of("12.5"));
+        assertEquals(Money.ofMinorUnits(-1), Money.of("-0.01"));
+        assertEquals(Money.ofMinorUnits(100), Money.of(new BigDecimal("1.000")));
+    }
+
+    @Test
+    void testParseRejectsExtraDecimalPlaces() {
+        // Given, When & Then
+        assertThrows(ArithmeticException.class, () -> Money.of("0.001"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void testParseRejectsMalformedAmounts() {
+        // Given, When & Then
+        assertThrows(ArithmeticException.class, () -> Money.of(""));
+        assertThrows(ArithmeticException.class, () -> Money.of("1e3"));
+        assertThrows(ArithmeticException.class, () -> Money.of("1."));
+        assertThrows(ArithmeticException.class, () -> Money.of("99999999999999999999"));
+    }
+
+    @Test
+    void testArithmetic() {
+        // Given
+        Money balance = Money.of("1000");
+
+        // When & Then
+        assertEquals(Money.of("800"), balance.minus(Money.of("200")));
+        assertEquals(Money.of("1200.50"), balance.plus(Money.of("200.50")));
+        assertEquals(Money.of("3000"), balance.times(3));
+        assertTrue(Money.of("100").isLessThan(Money.of("200")));
+        assertFalse(Money.of("200").isLessThan(Money.of("200")));
+    }
+
+    @Test
+    void testArithmeticOverflowIsDetected() {
+        // Given
+        Money max = Money.ofMinorUnits(Long.MAX_VALUE);
+
+        // When & Then
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.of("0.01")));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+    }
+
+    @Test
+    void testMixedScalesAreRejected() {
+        // Given, When & Then
+        assertThrows(ArithmeticException.class, () -> Money.of("1").plus(new Money(1, 3)));
+    }
+
+    @Test
+    void testToMinorUnitsRescales() {
+        // Given
+        Money amount = Money.of("12.50");
+
+        // When & Then
+        assertEquals(125_000, amount.toMinorUnits(4));
+        assertEquals(125, amount.toMinorUnits(1));
+        assertThrows(ArithmeticException.class, () -> Money.of("12.55").toMinorUnits(1));
+    }
+
+    @Test
+    void testFormatKeepsAllDecimalPlaces() {
+        // Given, When & Then
+        assertEquals("12.50", Money.of("12.5").toString());
+        assertEquals("-0.05", Money.of("-0.05").toString());
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("-92233720368547758.08", Money.ofMinorUnits(Long.MIN_VALUE).toString());
+    }
+
+    @Test
+    void testJsonRoundTrip() throws Exception {
+        // Given
+        Money amount = Money.of("12.5");
+
+        // When
+        String json = objectMapper.writeValueAsString(amount);
+
+        // Then
+        assertEquals("12.50", json);
+        assertEquals(amount, objectMapper.readValue(json, Money.class));
+        assertEquals(amount, objectMapper.readValue("\"12.5\"", Money.class));
+    }
+
+    @Test
+    void testJsonRejectsExtraDecimalPlaces() {
+        // Given, When & Then
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("0.001", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("1e2", Money.class));
+    }
+}
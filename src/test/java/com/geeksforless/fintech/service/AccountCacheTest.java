@@ -0,0 +1,124 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTest {
+
+    private final Map<Long, Money> balances = new HashMap<>();
+    private int loads;
+    private MeterRegistry meterRegistry;
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountCache = new AccountCache(meterRegistry, 100, 60_000);
+        balances.put(1L, Money.of("1000"));
+        balances.put(2L, Money.of("500"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRepeatedReadIsServedFromCache() {
+        // Given
+        get(1L);
+
+        // When
+        Optional<Account> account = get(1L);
+
+        // Then
+        assertEquals(Money.of("1000"), account.orElseThrow().getBalance());
+        assertEquals(1, loads);
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "accounts").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testReturnedAccountDoesNotChangeCache() {
+        // Given
+        get(1L).orElseThrow().setBalance(Money.ZERO);
+
+        // When
+        Optional<Account> account = get(1L);
+
+        // Then
+        assertEquals(Money.of("1000"), account.orElseThrow().getBalance());
+    }
+
+    @Test
+    void testMissingAccountIsNotCached() {
+        // Given
+        get(3L);
+        balances.put(3L, Money.of("10"));
+
+        // When
+        Optional<Account> account = get(3L);
+
+        // Then
+        assertEquals(Money.of("10"), account.orElseThrow().getBalance());
+        assertEquals(2, loads);
+    }
+
+    @Test
+    void testTransferInvalidatesAccountsOnlyAfterCommit() {
+        // Given
+        get(1L);
+        get(2L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        accountCache.onTransferApplied(new TransferAppliedEvent(1L, 2L, Money.of("200"), null));
+        balances.put(1L, Money.of("800"));
+        balances.put(2L, Money.of("700"));
+
+        // Then
+        assertEquals(Money.of("1000"), get(1L).orElseThrow().getBalance());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(Money.of("800"), get(1L).orElseThrow().getBalance());
+        assertEquals(Money.of("700"), get(2L).orElseThrow().getBalance());
+    }
+
+    @Test
+    void testRolledBackTransferKeepsAccounts() {
+        // Given
+        get(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        accountCache.onTransferApplied(new TransferAppliedEvent(1L, 2L, Money.of("200"), null));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        get(1L);
+        assertEquals(1, loads);
+    }
+
+    private Optional<Account> get(Long accountId) {
+        return accountCache.get(accountId, id -> {
+            loads++;
+            return Optional.ofNullable(balances.get(id)).map(balance -> new Account(id, balance));
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.AccountImportResultDto;
+import com.geeksforless.fintech.exception.InvalidImportException;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "accounts.import.chunkSize=2")
+class AccountImportServiceIntegrationTest {
+
+    @Autowired
+    private AccountImportService accountImportService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void testCsvIsImportedInChunks() throws IOException {
+        // Given
+        long before = accountRepository.count();
+
+        // When
+        AccountImportResultDto result = accountImportService.importCsv(input("balance\n10.50\n\n0\n7\n"));
+
+        // Then
+        assertEquals(3, result.getImported());
+        assertEquals(List.of(Money.of("10.50"), Money.of("0"), Money.of("7")), lastBalances(before, 3));
+    }
+
+    @Test
+    void testNdjsonIsImported() throws IOException {
+        // Given
+        long before = accountRepository.count();
+
+        // When
+        AccountImportResultDto result = accountImportService.importNdjson(
+                input("{\"balance\":1.25}\n{\"name\":\"x\",\"balance\":\"3\"}\n"));
+
+        // Then
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(Money.of("1.25"), Money.of("3")), lastBalances(before, 2));
+    }
+
+    @Test
+    void testAccountsAreImportedInTheirCurrency() throws IOException {
+        // Given
+        long before = accountRepository.count();
+
+        // When
+        accountImportService.importCsv(input("balance,currency\n1,EUR\n2\n"));
+        accountImportService.importNdjson(input("{\"currency\":\"GBP\",\"balance\":3}\n"));
+
+        // Then
+        assertEquals(List.of("EUR", Account.DEFAULT_CURRENCY, "GBP"), lastAccounts(before, 3).stream()
+                .map(Account::getCurrency)
+                .toList());
+        assertThrows(InvalidImportException.class, () -> accountImportService.importCsv(input("1,XYZ\n")));
+    }
+
+    @Test
+    void testImportedAccountsDoNotCollideWithPersistedOnes() throws IOException {
+        // Given
+        accountImportService.importCsv(input("1\n"));
+
+        // When
+        Account saved = accountRepository.save(new Account(null, Money.of("2")));
+        accountImportService.importCsv(input("3\n"));
+
+        // Then
+        assertEquals(Money.of("2"), accountRepository.findById(saved.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void testMalformedRowStopsTheImport() {
+        // Given
+        long before = accountRepository.count();
+
+        // When
+        InvalidImportException e = assertThrows(InvalidImportException.class,
+                () -> accountImportService.importCsv(input("1\n2\n3\n-4\n")));
+
+        // Then
+        assertTrue(e.getMessage().startsWith("Line 4: Balance must not be negative"), e.getMessage());
+        assertEquals(before + 2, accountRepository.count());
+        assertThrows(InvalidImportException.class, () -> accountImportService.importCsv(input("1.001\n")));
+        assertThrows(InvalidImportException.class, () -> accountImportService.importNdjson(input("{\"id\":1}\n")));
+        assertThrows(InvalidImportException.class, () -> accountImportService.importNdjson(input("{\"balance\":")));
+    }
+
+    private List<Money> lastBalances(long before, int count) {
+        return lastAccounts(before, count).stream()
+                .map(Account::getBalance)
+                .toList();
+    }
+
+    private List<Account> lastAccounts(long before, int count) {
+        List<Account> accounts = accountRepository.findAll();
+        assertEquals(before + count, accounts.size());
+        return accounts.stream()
+                .sorted(Comparator.comparing(Account::getId))
+                .skip(accounts.size() - count)
+                .toList();
+    }
+
+    private static InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
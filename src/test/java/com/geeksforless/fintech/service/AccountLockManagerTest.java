@@ -0,0 +1,140 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLockManagerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testOpposingTransfersDoNotDeadlock() throws Exception {
+        // Given
+        AccountLockManager lockManager = new AccountLockManager(meterRegistry, 1024, 10_000);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        Runnable transfer = () -> {
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            inside.decrementAndGet();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            boolean forward = i % 2 == 0;
+            executor.submit(() -> {
+                for (int j = 0; j < 1_000; j++) {
+                    lockManager.runLocked(forward ? 1L : 2L, forward ? 2L : 1L, transfer);
+                }
+            });
+        }
+        executor.shutdown();
+
+        // Then
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, maxInside.get());
+        assertEquals(8_000, meterRegistry.get("transfer.lock.wait").timer().count());
+    }
+
+    @Test
+    void testAccountsOnTheSameStripeTakeItOnce() {
+        // Given
+        AccountLockManager lockManager = new AccountLockManager(meterRegistry, 1, 1_000);
+        AtomicInteger applied = new AtomicInteger();
+
+        // When
+        lockManager.runLocked(1L, 2L, applied::incrementAndGet);
+
+        // Then
+        assertEquals(1, applied.get());
+    }
+
+    @Test
+    void testTransfersOfUnrelatedAccountsRunInParallel() throws Exception {
+        // Given
+        AccountLockManager lockManager = new AccountLockManager(meterRegistry, 1024, 1_000);
+        long[] accounts = distinctStripes(lockManager, 4);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> first = executor.submit(() -> lockManager.runLocked(accounts[0], accounts[1], () -> {
+            holding.countDown();
+            await(release);
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // When
+        AtomicInteger applied = new AtomicInteger();
+        lockManager.runLocked(accounts[2], accounts[3], applied::incrementAndGet);
+
+        // Then
+        assertEquals(1, applied.get());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void testConflictingTransferGivesUpAfterTheTimeout() throws Exception {
+        // Given
+        AccountLockManager lockManager = new AccountLockManager(meterRegistry, 1024, 50);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> first = executor.submit(() -> lockManager.runLocked(1L, 2L, () -> {
+            holding.countDown();
+            await(release);
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // When & Then
+        assertThrows(ServerIsOverloadedException.class, () -> lockManager.runLocked(2L, 3L, () -> fail("Not locked")));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        AtomicInteger applied = new AtomicInteger();
+        lockManager.runLocked(2L, 3L, applied::incrementAndGet);
+        assertEquals(1, applied.get());
+    }
+
+    @Test
+    void testStripesMustBeAPowerOfTwo() {
+        // Given, When & Then
+        assertThrows(IllegalArgumentException.class, () -> new AccountLockManager(meterRegistry, 1000, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> new AccountLockManager(meterRegistry, 0, 1_000));
+    }
+
+    private static long[] distinctStripes(AccountLockManager lockManager, int count) {
+        long[] accounts = new long[count];
+        int found = 0;
+        for (long id = 1; found < count; id++) {
+            boolean distinct = true;
+            for (int i = 0; i < found; i++) {
+                distinct &= lockManager.stripeOf(accounts[i]) != lockManager.stripeOf(id);
+            }
+            if (distinct) {
+                accounts[found++] = id;
+            }
+        }
+        return accounts;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
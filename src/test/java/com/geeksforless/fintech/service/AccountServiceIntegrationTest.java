@@ -1,12 +1,12 @@
 package com.geeksforless.fintech.service;
 
 import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
 import com.geeksforless.fintech.repository.AccountRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-import java.math.BigDecimal;
 import java.util.concurrent.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,7 +26,7 @@ class AccountServiceIntegrationTest {
     /**
      * The amount transferred in each transaction in the concurrency test.
      */
-    private static final BigDecimal SINGLE_TRANSFER_AMOUNT = BigDecimal.valueOf(100);
+    private static final Money SINGLE_TRANSFER_AMOUNT = Money.of("100");
 
     @Autowired
     private AccountService accountService;
@@ -68,25 +68,40 @@ class AccountServiceIntegrationTest {
         );
     }
 
+    /**
+     * Tests that a transfer between accounts in different currencies credits the amount converted with the
+     * bundled exchange rates.
+     */
+    @Test
+    void crossCurrencyTransferShouldCreditTheConvertedAmount() {
+        Account fromAccount = accountRepository.save(new Account(null, Money.of("100"), "USD"));
+        Account toAccount = accountRepository.save(new Account(null, Money.ZERO, "EUR"));
+
+        accountService.transfer(fromAccount.getId(), toAccount.getId(), Money.of("10"));
+
+        assertEquals(Money.of("90"), accountRepository.findById(fromAccount.getId()).get().getBalance());
+        assertEquals(Money.of("9.20"), accountRepository.findById(toAccount.getId()).get().getBalance());
+    }
+
     private Account prepareFromAccount() {
         Account fromAccount = new Account();
-        fromAccount.setBalance(SINGLE_TRANSFER_AMOUNT.multiply(BigDecimal.valueOf(NUM_OF_THREADS)));
+        fromAccount.setBalance(SINGLE_TRANSFER_AMOUNT.times(NUM_OF_THREADS));
         return accountRepository.save(fromAccount);
     }
 
     private Account prepareToAccount() {
         Account toAccount = new Account();
-        toAccount.setBalance(BigDecimal.ZERO);
+        toAccount.setBalance(Money.ZERO);
         return accountRepository.save(toAccount);
     }
 
     private void validateBalances(Account fromAccount, Account toAccount) {
-        BigDecimal fromAccountBalance = fromAccount.getBalance();
-        BigDecimal toAccountBalance = toAccount.getBalance();
-        BigDecimal expectedToAccountAmount = SINGLE_TRANSFER_AMOUNT.multiply(BigDecimal.valueOf(NUM_OF_THREADS));
+        Money fromAccountBalance = fromAccount.getBalance();
+        Money toAccountBalance = toAccount.getBalance();
+        Money expectedToAccountAmount = SINGLE_TRANSFER_AMOUNT.times(NUM_OF_THREADS);
         assertEquals(
                 0,
-                BigDecimal.ZERO.compareTo(fromAccountBalance)
+                Money.ZERO.compareTo(fromAccountBalance)
         );
         assertEquals(
                 0,
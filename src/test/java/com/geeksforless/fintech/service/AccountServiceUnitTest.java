@@ -1,53 +1,96 @@
 package com.geeksforless.fintech.service;
 
+import com.geeksforless.fintech.dto.AccountDetailsDto;
 import com.geeksforless.fintech.exception.InsufficientFundsException;
 import com.geeksforless.fintech.exception.InvalidTransferAmountException;
 import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.metrics.TransferMetrics;
 import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
 import com.geeksforless.fintech.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.math.BigDecimal;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.retry.ExhaustedRetryException;
+
+import javax.persistence.EntityManager;
+import java.time.Clock;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
 @ExtendWith(MockitoExtension.class)
 class AccountServiceUnitTest {
 
-    @InjectMocks
     private AccountServiceImpl accountService;
 
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    private MeterRegistry meterRegistry;
+
+    private FxRateProvider fxRateProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fxRateProvider = new FxRateProvider(
+                new DefaultResourceLoader(), Clock.systemUTC(), meterRegistry, "classpath:fx-rates.properties");
+        accountService = new AccountServiceImpl(
+                accountRepository, new SerializableTransferStrategy(accountRepository, eventPublisher, fxRateProvider), entityManager,
+                new TransferMetrics(meterRegistry, 10), new AccountCache(meterRegistry, 100, 60_000),
+                idempotencyKeyStore, Optional.empty(), Optional.empty());
+    }
+
     @Test
     void testSuccessfulTransfer() {
         // Given
         Account fromAccount = new Account();
         fromAccount.setId(1L);
-        fromAccount.setBalance(new BigDecimal("1000"));
+        fromAccount.setBalance(Money.of("1000"));
 
         Account toAccount = new Account();
         toAccount.setId(2L);
-        toAccount.setBalance(new BigDecimal("500"));
+        toAccount.setBalance(Money.of("500"));
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
 
         // When
-        accountService.transfer(1L, 2L, new BigDecimal("200"));
+        accountService.transfer(1L, 2L, Money.of("200"));
 
         // Then
-        assertEquals(new BigDecimal("800"), fromAccount.getBalance());
-        assertEquals(new BigDecimal("700"), toAccount.getBalance());
+        assertEquals(Money.of("800"), fromAccount.getBalance());
+        assertEquals(Money.of("700"), toAccount.getBalance());
+        assertEquals(1, meterRegistry.get("transfer.latency").tag("outcome", "ok").timer().count());
     }
 
     @Test
@@ -57,8 +100,9 @@ class AccountServiceUnitTest {
 
         // When & Then
         assertThrows(NotFoundException.class, () -> {
-            accountService.transfer(1L, 2L, new BigDecimal("200"));
+            accountService.transfer(1L, 2L, Money.of("200"));
         });
+        assertEquals(1, meterRegistry.get("transfer.latency").tag("outcome", "not_found").timer().count());
     }
 
     @Test
@@ -66,14 +110,14 @@ class AccountServiceUnitTest {
         // Given
         Account fromAccount = new Account();
         fromAccount.setId(1L);
-        fromAccount.setBalance(new BigDecimal("1000"));
+        fromAccount.setBalance(Money.of("1000"));
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
         when(accountRepository.findById(2L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(NotFoundException.class, () -> {
-            accountService.transfer(1L, 2L, new BigDecimal("200"));
+            accountService.transfer(1L, 2L, Money.of("200"));
         });
     }
 
@@ -82,26 +126,43 @@ class AccountServiceUnitTest {
         // Given
         Account fromAccount = new Account();
         fromAccount.setId(1L);
-        fromAccount.setBalance(new BigDecimal("100"));
+        fromAccount.setBalance(Money.of("100"));
 
         Account toAccount = new Account();
         toAccount.setId(2L);
-        toAccount.setBalance(new BigDecimal("500"));
+        toAccount.setBalance(Money.of("500"));
 
         when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
         when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
 
         // When & Then
         assertThrows(InsufficientFundsException.class, () -> {
-            accountService.transfer(1L, 2L, new BigDecimal("200"));
+            accountService.transfer(1L, 2L, Money.of("200"));
         });
     }
 
+    @Test
+    void testFailureWrappedByTheRetryInterceptorIsRethrownUnwrapped() {
+        // Given
+        TransferStrategy transferStrategy = mock(TransferStrategy.class);
+        AccountServiceImpl proxiedService = new AccountServiceImpl(
+                accountRepository, transferStrategy, entityManager,
+                new TransferMetrics(meterRegistry, 10), new AccountCache(meterRegistry, 100, 60_000),
+                idempotencyKeyStore, Optional.empty(), Optional.empty());
+        doThrow(new ExhaustedRetryException("Cannot locate recovery method",
+                new NotFoundException("Account with ID 1 not found")))
+                .when(transferStrategy).transfer(1L, 2L, Money.of("200"), null);
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> proxiedService.transfer(1L, 2L, Money.of("200")));
+        assertEquals(1, meterRegistry.get("transfer.latency").tag("outcome", "not_found").timer().count());
+    }
+
     @Test
     void testTransferNegativeAmount() {
         // Given, When & Then
         assertThrows(InvalidTransferAmountException.class, () -> {
-            accountService.transfer(1L, 2L, new BigDecimal("-100"));
+            accountService.transfer(1L, 2L, Money.of("-100"));
         });
     }
 
@@ -109,10 +170,56 @@ class AccountServiceUnitTest {
     void testTransferZeroAmount() {
         // Given, When & Then
         assertThrows(InvalidTransferAmountException.class, () -> {
-            accountService.transfer(1L, 2L, new BigDecimal("0"));
+            accountService.transfer(1L, 2L, Money.of("0"));
         });
     }
 
+    @Test
+    void testTransferWithRecordedIdempotencyKeyIsNotAppliedAgain() {
+        // Given
+        when(idempotencyKeyStore.isRecorded("key")).thenReturn(true);
+
+        // When
+        accountService.transfer(1L, 2L, Money.of("200"), "key");
+
+        // Then
+        verify(accountRepository, never()).findById(any());
+        assertEquals(1, meterRegistry.get("transfer.latency").tag("outcome", "duplicate").timer().count());
+    }
+
+    @Test
+    void testConcurrentTransferWithSameIdempotencyKeyIsReportedAsDuplicate() {
+        // Given
+        Account fromAccount = new Account(1L, Money.of("1000"));
+        Account toAccount = new Account(2L, Money.of("500"));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
+        when(idempotencyKeyStore.isRecorded("key")).thenReturn(false, true);
+        doThrow(new DataIntegrityViolationException("Duplicate key"))
+                .when(eventPublisher).publishEvent(any(Object.class));
+
+        // When & Then
+        assertDoesNotThrow(() -> accountService.transfer(1L, 2L, Money.of("200"), "key"));
+    }
+
+    @Test
+    void testTransferRunsUnderTheAccountLocksWhenEnabled() {
+        // Given
+        AccountServiceImpl lockingService = new AccountServiceImpl(
+                accountRepository, new SerializableTransferStrategy(accountRepository, eventPublisher, fxRateProvider), entityManager,
+                new TransferMetrics(meterRegistry, 10), new AccountCache(meterRegistry, 100, 60_000),
+                idempotencyKeyStore, Optional.empty(), Optional.of(new AccountLockManager(meterRegistry, 16, 1000)));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(new Account(1L, Money.of("1000"))));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(new Account(2L, Money.of("500"))));
+
+        // When
+        lockingService.transfer(1L, 2L, Money.of("200"));
+
+        // Then
+        assertEquals(1, meterRegistry.get("transfer.lock.wait").timer().count());
+        assertEquals(1, meterRegistry.get("transfer.latency").tag("outcome", "ok").timer().count());
+    }
+
     @Test
     void getAccountDetailsForExistingAccount() {
 
@@ -152,4 +259,64 @@ class AccountServiceUnitTest {
         //Then
         assertEquals(List.of(acc1, acc2), accounts);
     }
+
+    @Test
+    void getPageOfAccounts() {
+
+        // Given
+        Account acc1 = new Account();
+        when(accountRepository.findByIdGreaterThanOrderById(5L, PageRequest.of(0, 10))).thenReturn(List.of(acc1));
+
+        //When
+        List<Account> accounts = accountService.getPage(5L, 10);
+
+        //Then
+        assertEquals(List.of(acc1), accounts);
+    }
+
+    @Test
+    void getAccountDetailsIsCached() {
+
+        // Given
+        AccountDetailsDto details = new AccountDetailsDto(1L, Money.of("1000"), "USD");
+        when(accountRepository.findDetailsById(1L)).thenReturn(Optional.of(details));
+
+        //When
+        Optional<AccountDetailsDto> first = accountService.getDetails(1L);
+        Optional<Account> second = accountService.get(1L);
+
+        //Then
+        assertEquals(Optional.of(details), first);
+        assertEquals(Optional.of(new Account(1L, Money.of("1000"))), second);
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    void getPageOfAccountDetails() {
+
+        // Given
+        List<AccountDetailsDto> details = List.of(new AccountDetailsDto(6L, Money.of("10"), "USD"));
+        when(accountRepository.findDetailsPage(5L, PageRequest.of(0, 10))).thenReturn(details);
+
+        //When & Then
+        assertEquals(details, accountService.getDetailsPage(5L, 10));
+    }
+
+    @Test
+    void forEachAccountDetachesConsumedAccounts() {
+
+        // Given
+        Account acc1 = new Account();
+        Account acc2 = new Account();
+        when(accountRepository.streamAll()).thenReturn(Stream.of(acc1, acc2));
+        List<Account> consumed = new ArrayList<>();
+
+        //When
+        accountService.forEachAccount(consumed::add);
+
+        //Then
+        assertEquals(List.of(acc1, acc2), consumed);
+        verify(entityManager).detach(acc1);
+        verify(entityManager).detach(acc2);
+    }
 }
@@ -0,0 +1,177 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.AsyncTransferDto;
+import com.geeksforless.fintech.dto.AsyncTransferState;
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.money.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.retry.ExhaustedRetryException;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTransferServiceTest {
+
+    @Mock
+    private AccountService accountService;
+
+    private MeterRegistry meterRegistry;
+
+    private AsyncTransferService asyncTransferService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        asyncTransferService = new AsyncTransferService(accountService, meterRegistry, 1, 1, 60_000, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncTransferService.shutdown();
+    }
+
+    @Test
+    void testSubmittedTransferIsCompleted() throws InterruptedException {
+        // When
+        AsyncTransferDto queued = asyncTransferService.submit(transfer(1L, 2L), "key-1");
+
+        // Then
+        assertEquals(AsyncTransferState.QUEUED, queued.getState());
+        AsyncTransferDto completed = awaitProcessed(queued.getId());
+        assertEquals(AsyncTransferState.COMPLETED, completed.getState());
+        assertEquals(TransferStatus.OK, completed.getStatus());
+        assertEquals(1, meterRegistry.get("transfer.async.wait").timer().count());
+    }
+
+    @Test
+    void testBusinessFailureIsReportedAsOutcome() throws InterruptedException {
+        // Given
+        doThrow(new InsufficientFundsException("Not enough funds in the account to transfer"))
+                .when(accountService).transfer(1L, 2L, Money.of("10"), null);
+
+        // When
+        AsyncTransferDto queued = asyncTransferService.submit(transfer(1L, 2L), null);
+
+        // Then
+        AsyncTransferDto completed = awaitProcessed(queued.getId());
+        assertEquals(AsyncTransferState.COMPLETED, completed.getState());
+        assertEquals(TransferStatus.INSUFFICIENT_FUNDS, completed.getStatus());
+    }
+
+    @Test
+    void testBusinessFailureWrappedByTheRetryInterceptorIsReportedAsOutcome() throws InterruptedException {
+        // Given
+        doThrow(new ExhaustedRetryException("Cannot locate recovery method",
+                new InsufficientFundsException("Not enough funds in the account to transfer")))
+                .when(accountService).transfer(1L, 2L, Money.of("10"), null);
+
+        // When
+        AsyncTransferDto queued = asyncTransferService.submit(transfer(1L, 2L), null);
+
+        // Then
+        AsyncTransferDto completed = awaitProcessed(queued.getId());
+        assertEquals(AsyncTransferState.COMPLETED, completed.getState());
+        assertEquals(TransferStatus.INSUFFICIENT_FUNDS, completed.getStatus());
+        assertEquals("Not enough funds in the account to transfer", completed.getMessage());
+    }
+
+    @Test
+    void testUnexpectedFailureIsReportedAsFailed() throws InterruptedException {
+        // Given
+        doThrow(new IllegalStateException("boom")).when(accountService).transfer(1L, 2L, Money.of("10"), null);
+
+        // When
+        AsyncTransferDto queued = asyncTransferService.submit(transfer(1L, 2L), null);
+
+        // Then
+        AsyncTransferDto failed = awaitProcessed(queued.getId());
+        assertEquals(AsyncTransferState.FAILED, failed.getState());
+        assertEquals("boom", failed.getMessage());
+    }
+
+    @Test
+    void testSubmissionIsRejectedWhenQueueIsFull() {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(accountService).transfer(1L, 2L, Money.of("10"), null);
+        asyncTransferService.submit(transfer(1L, 2L), null);
+        // Fills the queue once the only worker is busy with the first transfer.
+        assertDoesNotThrow(() -> {
+            while (meterRegistry.get("transfer.async.wait").timer().count() == 0) {
+                Thread.sleep(1);
+            }
+        });
+        asyncTransferService.submit(transfer(1L, 2L), null);
+
+        // When & Then
+        assertThrows(ServerIsOverloadedException.class, () -> asyncTransferService.submit(transfer(1L, 2L), null));
+        assertEquals(1.0, meterRegistry.get("transfer.async.queue.depth").gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void testTransfersInProgressAreTrackedBeyondMaxTracked() throws InterruptedException {
+        // Given
+        asyncTransferService.shutdown();
+        meterRegistry = new SimpleMeterRegistry();
+        asyncTransferService = new AsyncTransferService(accountService, meterRegistry, 1, 1, 60_000, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(accountService).transfer(1L, 2L, Money.of("10"), null);
+        AsyncTransferDto running = asyncTransferService.submit(transfer(1L, 2L), null);
+        while (asyncTransferService.get(running.getId()).orElseThrow().getState() != AsyncTransferState.RUNNING) {
+            Thread.sleep(1);
+        }
+
+        // When
+        AsyncTransferDto queued = asyncTransferService.submit(transfer(1L, 2L), null);
+
+        // Then
+        assertEquals(AsyncTransferState.RUNNING, asyncTransferService.get(running.getId()).orElseThrow().getState());
+        assertEquals(AsyncTransferState.QUEUED, asyncTransferService.get(queued.getId()).orElseThrow().getState());
+        release.countDown();
+        assertEquals(AsyncTransferState.COMPLETED, awaitProcessed(queued.getId()).getState());
+    }
+
+    @Test
+    void testUnknownTransferIsNotFound() {
+        assertTrue(asyncTransferService.get("unknown").isEmpty());
+    }
+
+    private AsyncTransferDto awaitProcessed(String id) throws InterruptedException {
+        while (true) {
+            AsyncTransferDto transfer = asyncTransferService.get(id).orElseThrow();
+            if (transfer.getState() == AsyncTransferState.COMPLETED || transfer.getState() == AsyncTransferState.FAILED) {
+                return transfer;
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static MoneyTransferDto transfer(Long fromAccountId, Long toAccountId) {
+        MoneyTransferDto dto = new MoneyTransferDto();
+        dto.setFromAccountId(fromAccountId);
+        dto.setToAccountId(toAccountId);
+        dto.setAmount(Money.of("10"));
+        return dto;
+    }
+}
@@ -0,0 +1,137 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AtomicTransferStrategyTest {
+
+    private static final Money AMOUNT = Money.of("200");
+    private static final long MINOR_UNITS = AMOUNT.toMinorUnits(Money.DEFAULT_SCALE);
+
+    @InjectMocks
+    private AtomicTransferStrategy transferStrategy;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private FxRateProvider fxRateProvider;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(accountCache.currencyOf(any(), any())).thenReturn(Optional.of("USD"));
+        lenient().when(fxRateProvider.convert(AMOUNT, "USD", "USD")).thenReturn(AMOUNT);
+    }
+
+    @Test
+    void testSuccessfulTransferUpdatesInAscendingIdOrder() {
+        // Given
+        when(accountRepository.credit(1L, MINOR_UNITS)).thenReturn(1);
+        when(accountRepository.debit(2L, MINOR_UNITS)).thenReturn(1);
+
+        // When
+        transferStrategy.transfer(2L, 1L, AMOUNT, null);
+
+        // Then
+        InOrder inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).credit(1L, MINOR_UNITS);
+        inOrder.verify(accountRepository).debit(2L, MINOR_UNITS);
+        verify(accountRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(new TransferAppliedEvent(2L, 1L, AMOUNT, null));
+    }
+
+    @Test
+    void testCrossCurrencyTransferCreditsTheConvertedAmount() {
+        // Given
+        Money credited = Money.of("184");
+        when(accountCache.currencyOf(eq(2L), any())).thenReturn(Optional.of("EUR"));
+        when(fxRateProvider.convert(AMOUNT, "USD", "EUR")).thenReturn(credited);
+        when(accountRepository.debit(1L, MINOR_UNITS)).thenReturn(1);
+        when(accountRepository.credit(2L, credited.toMinorUnits(Money.DEFAULT_SCALE))).thenReturn(1);
+
+        // When
+        transferStrategy.transfer(1L, 2L, AMOUNT, null);
+
+        // Then
+        verify(eventPublisher).publishEvent(new TransferAppliedEvent(1L, 2L, AMOUNT, credited, null));
+    }
+
+    @Test
+    void testUnsupportedCurrencyUpdatesNoAccount() {
+        // Given
+        when(accountCache.currencyOf(eq(2L), any())).thenReturn(Optional.of("JPY"));
+        when(fxRateProvider.convert(AMOUNT, "USD", "JPY")).thenThrow(new UnsupportedCurrencyException("No exchange rate for JPY"));
+
+        // When & Then
+        assertThrows(UnsupportedCurrencyException.class, () -> transferStrategy.transfer(1L, 2L, AMOUNT, null));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void testTransferFromAccountWithoutCurrency() {
+        // Given
+        when(accountCache.currencyOf(eq(1L), any())).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> transferStrategy.transfer(1L, 2L, AMOUNT, null));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void testTransferFromNonExistentAccount() {
+        // Given
+        when(accountRepository.debit(1L, MINOR_UNITS)).thenReturn(0);
+        when(accountRepository.existsById(1L)).thenReturn(false);
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> transferStrategy.transfer(1L, 2L, AMOUNT, null));
+        verify(accountRepository, never()).credit(any(), anyLong());
+    }
+
+    @Test
+    void testTransferToNonExistentAccount() {
+        // Given
+        when(accountRepository.debit(1L, MINOR_UNITS)).thenReturn(1);
+        when(accountRepository.credit(2L, MINOR_UNITS)).thenReturn(0);
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> transferStrategy.transfer(1L, 2L, AMOUNT, null));
+    }
+
+    @Test
+    void testTransferWithInsufficientFunds() {
+        // Given
+        when(accountRepository.debit(1L, MINOR_UNITS)).thenReturn(0);
+        when(accountRepository.existsById(1L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(InsufficientFundsException.class, () -> transferStrategy.transfer(1L, 2L, AMOUNT, null));
+    }
+}
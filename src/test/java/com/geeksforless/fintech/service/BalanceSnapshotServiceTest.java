@@ -0,0 +1,177 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.AccountBalanceDto;
+import com.geeksforless.fintech.dto.AccountDetailsDto;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.model.BalanceSnapshot;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import com.geeksforless.fintech.repository.BalanceSnapshotRepository;
+import com.geeksforless.fintech.repository.TransferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceSnapshotServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-15T12:01:00.123456789Z");
+    private static final Instant TAKEN_AT = Instant.parse("2024-03-15T12:00:00.123456Z");
+    private static final Instant PREVIOUS = Instant.parse("2024-03-15T11:55:00Z");
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        balanceSnapshotService = new BalanceSnapshotService(accountRepository, transferRepository,
+                balanceSnapshotRepository, Clock.fixed(NOW, ZoneOffset.UTC), transactionManager, 60_000, 2);
+    }
+
+    @Test
+    void testFirstSnapshotCoversAllAccountsAsOfTheCheckpointTime() {
+        // Given
+        when(balanceSnapshotRepository.findLatestTakenAt()).thenReturn(Optional.empty());
+        when(accountRepository.findDetailsPage(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(details(1L, "100"), details(2L, "50")));
+        when(accountRepository.findDetailsPage(2L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(details(3L, "7")));
+        when(transferRepository.sumCreditsAfter(List.of(1L, 2L), TAKEN_AT)).thenReturn(List.of(amount(2L, 1000)));
+        when(transferRepository.sumDebitsAfter(List.of(1L, 2L), TAKEN_AT)).thenReturn(List.of(amount(1L, 250)));
+        when(transferRepository.sumCreditsAfter(List.of(3L), TAKEN_AT)).thenReturn(List.of());
+        when(transferRepository.sumDebitsAfter(List.of(3L), TAKEN_AT)).thenReturn(List.of());
+
+        // When
+        int written = balanceSnapshotService.takeSnapshot();
+
+        // Then
+        assertEquals(3, written);
+        verify(balanceSnapshotRepository).saveAll(List.of(
+                new BalanceSnapshot(1L, TAKEN_AT, Money.of("102.50")),
+                new BalanceSnapshot(2L, TAKEN_AT, Money.of("40"))));
+        verify(balanceSnapshotRepository).saveAll(List.of(new BalanceSnapshot(3L, TAKEN_AT, Money.of("7"))));
+    }
+
+    @Test
+    void testLaterSnapshotCoversOnlyChangedAccounts() {
+        // Given
+        when(balanceSnapshotRepository.findLatestTakenAt()).thenReturn(Optional.of(PREVIOUS));
+        when(transferRepository.findAccountsChangedBetween(PREVIOUS, TAKEN_AT)).thenReturn(List.of(4L));
+        when(accountRepository.findDetailsByIdIn(List.of(4L))).thenReturn(List.of(details(4L, "20")));
+        when(transferRepository.sumCreditsAfter(List.of(4L), TAKEN_AT)).thenReturn(List.of());
+        when(transferRepository.sumDebitsAfter(List.of(4L), TAKEN_AT)).thenReturn(List.of());
+
+        // When
+        int written = balanceSnapshotService.takeSnapshot();
+
+        // Then
+        assertEquals(1, written);
+        verify(balanceSnapshotRepository).saveAll(List.of(new BalanceSnapshot(4L, TAKEN_AT, Money.of("20"))));
+        verify(accountRepository, never()).findDetailsPage(any(), any());
+    }
+
+    @Test
+    void testSnapshotIsSkippedWhenNotBehindThePreviousOne() {
+        // Given
+        when(balanceSnapshotRepository.findLatestTakenAt()).thenReturn(Optional.of(TAKEN_AT));
+
+        // When
+        int written = balanceSnapshotService.takeSnapshot();
+
+        // Then
+        assertEquals(0, written);
+        verify(transferRepository, never()).findAccountsChangedBetween(any(), any());
+        verify(balanceSnapshotRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testBalanceAtIsTheLatestSnapshotPlusLaterTransfers() {
+        // Given
+        Instant at = Instant.parse("2024-03-15T11:58:00Z");
+        when(balanceSnapshotRepository.findFirstByAccountIdAndTakenAtLessThanEqualOrderByTakenAtDesc(1L, at))
+                .thenReturn(Optional.of(new BalanceSnapshot(1L, PREVIOUS, Money.of("100"))));
+        when(transferRepository.sumCredits(1L, PREVIOUS, at)).thenReturn(500L);
+        when(transferRepository.sumDebits(1L, PREVIOUS, at)).thenReturn(1500L);
+
+        // When
+        AccountBalanceDto balance = balanceSnapshotService.getBalanceAt(1L, at);
+
+        // Then
+        assertEquals(new AccountBalanceDto(1L, Money.of("90"), at), balance);
+        verify(accountRepository, never()).findDetailsById(any());
+    }
+
+    @Test
+    void testBalanceAtWithoutSnapshotIsTheCurrentBalanceLessLaterTransfers() {
+        // Given
+        Instant at = Instant.parse("2024-03-15T11:58:00Z");
+        when(balanceSnapshotRepository.findFirstByAccountIdAndTakenAtLessThanEqualOrderByTakenAtDesc(1L, at))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findDetailsById(1L)).thenReturn(Optional.of(details(1L, "100")));
+        when(transferRepository.sumCredits(1L, at, TransferHistoryService.END_OF_TIME)).thenReturn(2000L);
+        when(transferRepository.sumDebits(1L, at, TransferHistoryService.END_OF_TIME)).thenReturn(0L);
+
+        // When
+        AccountBalanceDto balance = balanceSnapshotService.getBalanceAt(1L, at);
+
+        // Then
+        assertEquals(new AccountBalanceDto(1L, Money.of("80"), at), balance);
+    }
+
+    @Test
+    void testBalanceAtOfUnknownAccountThrows() {
+        // Given
+        Instant at = Instant.parse("2024-03-15T11:58:00Z");
+        when(balanceSnapshotRepository.findFirstByAccountIdAndTakenAtLessThanEqualOrderByTakenAtDesc(9L, at))
+                .thenReturn(Optional.empty());
+        when(accountRepository.findDetailsById(9L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> balanceSnapshotService.getBalanceAt(9L, at));
+    }
+
+    private static AccountDetailsDto details(Long id, String balance) {
+        return new AccountDetailsDto(id, Money.of(balance), "USD");
+    }
+
+    private static TransferRepository.AccountAmount amount(Long accountId, long amount) {
+        return new TransferRepository.AccountAmount() {
+            @Override
+            public Long getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public long getAmount() {
+                return amount;
+            }
+        };
+    }
+}
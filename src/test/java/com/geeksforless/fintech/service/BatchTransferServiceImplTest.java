@@ -0,0 +1,205 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransferServiceImplTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final int LOCK_MAX_ATTEMPTS = 2;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BatchTransferServiceImpl batchTransferService;
+
+    @BeforeEach
+    void setUp() {
+        batchTransferService = new BatchTransferServiceImpl(
+                accountRepository, eventPublisher, idempotencyKeyStore, new FxRateProvider(new DefaultResourceLoader(),
+                Clock.systemUTC(), new SimpleMeterRegistry(), "classpath:fx-rates.properties"),
+                transactionManager, CHUNK_SIZE, LOCK_MAX_ATTEMPTS, 0);
+    }
+
+    @Test
+    void testFailedTransfersDoNotAffectTheRestOfTheChunk() {
+        // Given
+        Account firstAccount = new Account(1L, Money.of("100"));
+        Account secondAccount = new Account(2L, Money.of("50"));
+        when(accountRepository.findAllByIdForUpdate(Set.of(1L, 2L))).thenReturn(List.of(firstAccount, secondAccount));
+        when(accountRepository.findAllByIdForUpdate(Set.of(1L, 2L, 3L))).thenReturn(List.of(firstAccount, secondAccount));
+
+        // When
+        List<TransferStatus> statuses = batchTransferService.transfer(List.of(
+                transfer(1L, 2L, "80"),
+                transfer(1L, 2L, "80"),
+                transfer(2L, 3L, "10"),
+                transfer(2L, 1L, "0")
+        ));
+
+        // Then
+        assertEquals(List.of(
+                TransferStatus.OK,
+                TransferStatus.INSUFFICIENT_FUNDS,
+                TransferStatus.NOT_FOUND,
+                TransferStatus.INVALID_AMOUNT
+        ), statuses);
+        assertEquals(Money.of("20"), firstAccount.getBalance());
+        assertEquals(Money.of("130"), secondAccount.getBalance());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testCrossCurrencyTransfersAreCreditedConverted() {
+        // Given
+        Account usdAccount = new Account(1L, Money.of("100"), "USD");
+        Account eurAccount = new Account(2L, Money.of("50"), "EUR");
+        Account jpyAccount = new Account(3L, Money.of("0"), "JPY");
+        when(accountRepository.findAllByIdForUpdate(Set.of(1L, 2L, 3L)))
+                .thenReturn(List.of(usdAccount, eurAccount, jpyAccount));
+
+        // When
+        List<TransferStatus> statuses = batchTransferService.transfer(List.of(
+                transfer(1L, 2L, "10"),
+                transfer(1L, 3L, "10")
+        ));
+
+        // Then
+        assertEquals(List.of(TransferStatus.OK, TransferStatus.UNSUPPORTED_CURRENCY), statuses);
+        assertEquals(Money.of("90"), usdAccount.getBalance());
+        assertEquals(Money.of("59.20"), eurAccount.getBalance());
+        assertEquals(Money.of("0"), jpyAccount.getBalance());
+    }
+
+    @Test
+    void testChunkThatCannotBeLockedIsReportedAsOverloaded() {
+        // Given
+        when(accountRepository.findAllByIdForUpdate(Set.of(1L, 2L)))
+                .thenThrow(new PessimisticLockingFailureException("Lock wait timeout"));
+
+        // When
+        List<TransferStatus> statuses = batchTransferService.transfer(List.of(transfer(1L, 2L, "10"), transfer(2L, 1L, "10")));
+
+        // Then
+        assertEquals(List.of(TransferStatus.OVERLOADED, TransferStatus.OVERLOADED), statuses);
+        verify(transactionManager, times(LOCK_MAX_ATTEMPTS)).rollback(any());
+    }
+
+    @Test
+    void testChunkIsAppliedAgainAfterLockTimeout() {
+        // Given
+        when(accountRepository.findAllByIdForUpdate(Set.of(1L, 2L)))
+                .thenThrow(new PessimisticLockingFailureException("Lock wait timeout"))
+                .thenReturn(List.of(new Account(1L, Money.of("100")), new Account(2L, Money.of("50"))));
+
+        // When
+        List<TransferStatus> statuses = batchTransferService.transfer(List.of(transfer(1L, 2L, "10"), transfer(2L, 1L, "10")));
+
+        // Then
+        assertEquals(List.of(TransferStatus.OK, TransferStatus.OK), statuses);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testKeyCommittedConcurrentlyIsReportedAsDuplicateAndTheRestOfTheChunkApplied() {
+        // Given
+        Account firstAccount = new Account(1L, Money.of("100"));
+        Account secondAccount = new Account(2L, Money.of("50"));
+        when(accountRepository.findAllByIdForUpdate(Set.of(1L, 2L)))
+                .thenReturn(List.of(new Account(1L, Money.of("100")), new Account(2L, Money.of("50"))))
+                .thenReturn(List.of(firstAccount, secondAccount));
+        when(idempotencyKeyStore.isRecorded("concurrent")).thenReturn(false, true);
+        when(idempotencyKeyStore.isRecorded("other")).thenReturn(false);
+        doThrow(new DataIntegrityViolationException("Unique index or primary key violation"))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        // When
+        List<TransferStatus> statuses = batchTransferService.transfer(List.of(
+                transfer(1L, 2L, "10", "concurrent"),
+                transfer(1L, 2L, "20", "other")
+        ));
+
+        // Then
+        assertEquals(List.of(TransferStatus.DUPLICATE, TransferStatus.OK), statuses);
+        assertEquals(Money.of("80"), firstAccount.getBalance());
+        assertEquals(Money.of("70"), secondAccount.getBalance());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testTransfersWithRecordedIdempotencyKeysAreNotAppliedAgain() {
+        // Given
+        Account firstAccount = new Account(1L, Money.of("100"));
+        Account secondAccount = new Account(2L, Money.of("50"));
+        when(accountRepository.findAllByIdForUpdate(Set.of(1L, 2L))).thenReturn(List.of(firstAccount, secondAccount));
+        when(idempotencyKeyStore.isRecorded("applied-before")).thenReturn(true);
+        when(idempotencyKeyStore.isRecorded("first")).thenReturn(false);
+        when(idempotencyKeyStore.isRecorded("second")).thenReturn(false);
+
+        // When
+        List<TransferStatus> statuses = batchTransferService.transfer(List.of(
+                transfer(1L, 2L, "10", "applied-before"),
+                transfer(1L, 2L, "10", "first"),
+                transfer(1L, 2L, "10", "second"),
+                transfer(1L, 2L, "10", "second")
+        ));
+
+        // Then
+        assertEquals(List.of(
+                TransferStatus.DUPLICATE,
+                TransferStatus.OK,
+                TransferStatus.OK,
+                TransferStatus.DUPLICATE
+        ), statuses);
+        assertEquals(Money.of("80"), firstAccount.getBalance());
+        assertEquals(Money.of("70"), secondAccount.getBalance());
+    }
+
+    private static MoneyTransferDto transfer(Long fromAccountId, Long toAccountId, String amount) {
+        MoneyTransferDto dto = new MoneyTransferDto();
+        dto.setFromAccountId(fromAccountId);
+        dto.setToAccountId(toAccountId);
+        dto.setAmount(Money.of(amount));
+        return dto;
+    }
+
+    private static MoneyTransferDto transfer(Long fromAccountId, Long toAccountId, String amount, String idempotencyKey) {
+        MoneyTransferDto dto = transfer(fromAccountId, toAccountId, amount);
+        dto.setIdempotencyKey(idempotencyKey);
+        return dto;
+    }
+}
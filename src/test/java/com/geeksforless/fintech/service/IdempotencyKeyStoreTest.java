@@ -0,0 +1,133 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.DuplicateTransferException;
+import com.geeksforless.fintech.model.IdempotencyKey;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyKeyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+    private static final long TTL_MILLIS = 60_000;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKeyStore = new IdempotencyKeyStore(
+                idempotencyKeyRepository, Clock.fixed(NOW, ZoneOffset.UTC), TTL_MILLIS, 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testKeyIsRecordedInTransferTransaction() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        idempotencyKeyStore.onTransferApplied(event("key"));
+
+        // Then
+        verify(idempotencyKeyRepository).save(new IdempotencyKey("key", NOW));
+    }
+
+    @Test
+    void testCommittedKeyIsAnsweredFromMemory() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        idempotencyKeyStore.onTransferApplied(event("key"));
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertTrue(idempotencyKeyStore.isRecorded("key"));
+        verify(idempotencyKeyRepository, times(1)).findById("key");
+    }
+
+    @Test
+    void testUnknownKeyIsLookedUpInDatabase() {
+        // Given
+        when(idempotencyKeyRepository.findById("key")).thenReturn(Optional.of(new IdempotencyKey("key", NOW)));
+
+        // When
+        boolean recorded = idempotencyKeyStore.isRecorded("key");
+
+        // Then
+        assertTrue(recorded);
+        assertTrue(idempotencyKeyStore.isRecorded("key"));
+        verify(idempotencyKeyRepository, times(1)).findById("key");
+    }
+
+    @Test
+    void testKeyCommittedInTheMeantimeIsRejected() {
+        // Given
+        when(idempotencyKeyRepository.findById("key")).thenReturn(Optional.of(new IdempotencyKey("key", NOW)));
+
+        // When & Then
+        assertThrows(DuplicateTransferException.class, () -> idempotencyKeyStore.onTransferApplied(event("key")));
+        verify(idempotencyKeyRepository, never()).save(any());
+    }
+
+    @Test
+    void testTransferWithoutKeyIsIgnored() {
+        // When
+        idempotencyKeyStore.onTransferApplied(event(null));
+
+        // Then
+        verify(idempotencyKeyRepository, never()).save(any());
+    }
+
+    @Test
+    void testSweepDeletesExpiredKeysInBatches() {
+        // Given
+        Instant before = NOW.minusMillis(TTL_MILLIS);
+        when(idempotencyKeyRepository.findKeysCreatedBefore(before, PageRequest.of(0, 2)))
+                .thenReturn(List.of("a", "b"), List.of("c"));
+
+        // When
+        int deleted = idempotencyKeyStore.sweep();
+
+        // Then
+        assertEquals(3, deleted);
+        verify(idempotencyKeyRepository).deleteAllByIdInBatch(List.of("a", "b"));
+        verify(idempotencyKeyRepository).deleteAllByIdInBatch(List.of("c"));
+    }
+
+    private static TransferAppliedEvent event(String idempotencyKey) {
+        return new TransferAppliedEvent(1L, 2L, Money.of("10"), idempotencyKey);
+    }
+}
@@ -0,0 +1,97 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticTransferStrategyTest {
+
+    @InjectMocks
+    private OptimisticTransferStrategy transferStrategy;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FxRateProvider fxRateProvider;
+
+    @Test
+    void testSuccessfulTransferIsFlushed() {
+        // Given
+        Account fromAccount = new Account(1L, Money.of("1000"));
+        Account toAccount = new Account(2L, Money.of("500"));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
+        when(fxRateProvider.convert(Money.of("200"), "USD", "USD")).thenReturn(Money.of("200"));
+
+        // When
+        transferStrategy.transfer(1L, 2L, Money.of("200"), null);
+
+        // Then
+        assertEquals(Money.of("800"), fromAccount.getBalance());
+        assertEquals(Money.of("700"), toAccount.getBalance());
+        verify(accountRepository).saveAllAndFlush(List.of(fromAccount, toAccount));
+    }
+
+    @Test
+    void testCrossCurrencyTransferCreditsTheConvertedAmount() {
+        // Given
+        Account fromAccount = new Account(1L, Money.of("1000"), "USD");
+        Account toAccount = new Account(2L, Money.of("500"), "EUR");
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
+        when(fxRateProvider.convert(Money.of("200"), "USD", "EUR")).thenReturn(Money.of("184"));
+
+        // When
+        transferStrategy.transfer(1L, 2L, Money.of("200"), null);
+
+        // Then
+        assertEquals(Money.of("800"), fromAccount.getBalance());
+        assertEquals(Money.of("684"), toAccount.getBalance());
+        verify(eventPublisher).publishEvent(
+                new TransferAppliedEvent(1L, 2L, Money.of("200"), Money.of("184"), null));
+    }
+
+    @Test
+    void testTransferToNonExistentAccount() {
+        // Given
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(new Account(1L, Money.of("1000"))));
+        when(accountRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> transferStrategy.transfer(1L, 2L, Money.of("200"), null));
+        verify(accountRepository, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    void testTransferWithInsufficientFunds() {
+        // Given
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(new Account(1L, Money.of("100"))));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(new Account(2L, Money.of("500"))));
+
+        // When & Then
+        assertThrows(InsufficientFundsException.class, () -> transferStrategy.transfer(1L, 2L, Money.of("200"), null));
+        verify(accountRepository, never()).saveAllAndFlush(any());
+    }
+}
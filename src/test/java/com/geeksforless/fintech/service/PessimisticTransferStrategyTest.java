@@ -0,0 +1,71 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.fx.FxRateProvider;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PessimisticTransferStrategyTest {
+
+    @InjectMocks
+    private PessimisticTransferStrategy transferStrategy;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FxRateProvider fxRateProvider;
+
+    @Test
+    void testSuccessfulTransferInReverseIdOrder() {
+        // Given
+        Account firstAccount = new Account(1L, Money.of("500"));
+        Account secondAccount = new Account(2L, Money.of("1000"));
+        when(accountRepository.findAllByIdForUpdate(List.of(2L, 1L))).thenReturn(List.of(firstAccount, secondAccount));
+        when(fxRateProvider.convert(Money.of("200"), "USD", "USD")).thenReturn(Money.of("200"));
+
+        // When
+        transferStrategy.transfer(2L, 1L, Money.of("200"), null);
+
+        // Then
+        assertEquals(Money.of("700"), firstAccount.getBalance());
+        assertEquals(Money.of("800"), secondAccount.getBalance());
+    }
+
+    @Test
+    void testTransferToNonExistentAccount() {
+        // Given
+        when(accountRepository.findAllByIdForUpdate(List.of(1L, 2L)))
+                .thenReturn(List.of(new Account(1L, Money.of("1000"))));
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> transferStrategy.transfer(1L, 2L, Money.of("200"), null));
+    }
+
+    @Test
+    void testTransferWithInsufficientFunds() {
+        // Given
+        when(accountRepository.findAllByIdForUpdate(List.of(1L, 2L)))
+                .thenReturn(List.of(new Account(1L, Money.of("100")), new Account(2L, Money.of("500"))));
+
+        // When & Then
+        assertThrows(InsufficientFundsException.class, () -> transferStrategy.transfer(1L, 2L, Money.of("200"), null));
+    }
+}
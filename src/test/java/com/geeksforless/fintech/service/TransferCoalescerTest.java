@@ -0,0 +1,164 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferCoalescerTest {
+
+    @Mock
+    private BatchTransferService batchTransferService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentTransfersToSameAccountAreAppliedAsOneGroup() throws Exception {
+        // Given
+        TransferCoalescer coalescer = new TransferCoalescer(batchTransferService, "destination", 200_000, 500);
+        when(batchTransferService.transfer(any())).thenAnswer(invocation ->
+                Collections.nCopies(invocation.<List<MoneyTransferDto>>getArgument(0).size(), TransferStatus.OK));
+
+        // When
+        Future<?> first = executor.submit(() -> coalescer.transfer(1L, 3L, Money.of("10")));
+        Thread.sleep(20);
+        Future<?> second = executor.submit(() -> coalescer.transfer(2L, 3L, Money.of("20")));
+        first.get();
+        second.get();
+
+        // Then
+        ArgumentCaptor<List<MoneyTransferDto>> group = ArgumentCaptor.forClass(List.class);
+        verify(batchTransferService).transfer(group.capture());
+        assertEquals(List.of(1L, 2L), group.getValue().stream().map(MoneyTransferDto::getFromAccountId).toList());
+    }
+
+    @Test
+    void testEveryCallerGetsItsOwnOutcome() throws Exception {
+        // Given
+        TransferCoalescer coalescer = new TransferCoalescer(batchTransferService, "destination", 200_000, 500);
+        when(batchTransferService.transfer(any()))
+                .thenReturn(List.of(TransferStatus.OK, TransferStatus.INSUFFICIENT_FUNDS));
+
+        // When
+        Future<?> first = executor.submit(() -> coalescer.transfer(1L, 3L, Money.of("10")));
+        Thread.sleep(20);
+        Future<?> second = executor.submit(() -> coalescer.transfer(2L, 3L, Money.of("20")));
+
+        // Then
+        assertNull(first.get());
+        ExecutionException exception = assertThrows(ExecutionException.class, second::get);
+        assertInstanceOf(InsufficientFundsException.class, exception.getCause());
+    }
+
+    @Test
+    void testTransfersToDifferentAccountsAreNotGrouped() {
+        // Given
+        TransferCoalescer coalescer = new TransferCoalescer(batchTransferService, "destination", 0, 500);
+        List<Integer> groupSizes = Collections.synchronizedList(new ArrayList<>());
+        when(batchTransferService.transfer(any())).thenAnswer(invocation -> {
+            List<MoneyTransferDto> transfers = invocation.getArgument(0);
+            groupSizes.add(transfers.size());
+            return Collections.nCopies(transfers.size(), TransferStatus.OK);
+        });
+
+        // When
+        coalescer.transfer(1L, 3L, Money.of("10"));
+        coalescer.transfer(1L, 4L, Money.of("10"));
+
+        // Then
+        verify(batchTransferService, times(2)).transfer(any());
+        assertEquals(List.of(1, 1), groupSizes);
+    }
+
+    @Test
+    void testGroupIsKeyedBySourceAccount() throws Exception {
+        // Given
+        TransferCoalescer coalescer = new TransferCoalescer(batchTransferService, "source", 200_000, 500);
+        when(batchTransferService.transfer(any())).thenAnswer(invocation ->
+                Collections.nCopies(invocation.<List<MoneyTransferDto>>getArgument(0).size(), TransferStatus.OK));
+
+        // When
+        Future<?> first = executor.submit(() -> coalescer.transfer(1L, 2L, Money.of("10")));
+        Thread.sleep(20);
+        Future<?> second = executor.submit(() -> coalescer.transfer(1L, 3L, Money.of("20")));
+        first.get();
+        second.get();
+
+        // Then
+        verify(batchTransferService).transfer(any());
+    }
+
+    @Test
+    void testOverloadedGroupFailsWithServerIsOverloaded() {
+        // Given
+        TransferCoalescer coalescer = new TransferCoalescer(batchTransferService, "destination", 0, 500);
+        when(batchTransferService.transfer(any())).thenReturn(List.of(TransferStatus.OVERLOADED));
+
+        // When & Then
+        assertThrows(ServerIsOverloadedException.class, () -> coalescer.transfer(1L, 2L, Money.of("10")));
+    }
+
+    @Test
+    void testUnexpectedFailureIsPropagatedToCaller() {
+        // Given
+        TransferCoalescer coalescer = new TransferCoalescer(batchTransferService, "destination", 0, 500);
+        when(batchTransferService.transfer(any())).thenThrow(new CannotAcquireLockException("lock"));
+
+        // When & Then
+        assertThrows(CannotAcquireLockException.class, () -> coalescer.transfer(1L, 2L, Money.of("10")));
+    }
+
+    @Test
+    void testErrorOfTheGroupIsPropagatedToEveryCaller() throws Exception {
+        // Given
+        TransferCoalescer coalescer = new TransferCoalescer(batchTransferService, "destination", 200_000, 500);
+        when(batchTransferService.transfer(any())).thenThrow(new StackOverflowError());
+
+        // When
+        Future<?> first = executor.submit(() -> coalescer.transfer(1L, 3L, Money.of("10")));
+        Thread.sleep(20);
+        Future<?> second = executor.submit(() -> coalescer.transfer(2L, 3L, Money.of("20")));
+
+        // Then
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, leaderFailure.getCause());
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, followerFailure.getCause());
+        verify(batchTransferService).transfer(any());
+    }
+
+    @Test
+    void testUnknownGroupKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransferCoalescer(batchTransferService, "amount", 200, 500));
+    }
+}
@@ -0,0 +1,155 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.dto.TransferDto;
+import com.geeksforless.fintech.dto.TransferPageDto;
+import com.geeksforless.fintech.event.TransferAppliedEvent;
+import com.geeksforless.fintech.exception.InvalidCursorException;
+import com.geeksforless.fintech.model.Transfer;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.TransferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferHistoryServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-15T12:00:00.123456789Z");
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransferHistoryService transferHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        transferHistoryService = new TransferHistoryService(
+                transferRepository, Clock.fixed(NOW, ZoneOffset.UTC), transactionManager, 2, 2);
+    }
+
+    @Test
+    void testAppliedTransferIsRecordedWithMicrosecondPrecision() {
+        // When
+        transferHistoryService.onTransferApplied(new TransferAppliedEvent(1L, 2L, Money.of("10"), null));
+
+        // Then
+        verify(transferRepository).save(
+                new Transfer(1L, 2L, Money.of("10"), Money.of("10"), Instant.parse("2024-03-15T12:00:00.123456Z")));
+    }
+
+    @Test
+    void testCrossCurrencyTransferIsRecordedWithItsCreditedAmount() {
+        // When
+        transferHistoryService.onTransferApplied(new TransferAppliedEvent(1L, 2L, Money.of("10"), Money.of("9.2"), null));
+
+        // Then
+        verify(transferRepository).save(
+                new Transfer(1L, 2L, Money.of("10"), Money.of("9.2"), Instant.parse("2024-03-15T12:00:00.123456Z")));
+    }
+
+    @Test
+    void testStatementMergesDebitsAndCreditsNewestFirst() {
+        // Given
+        TransferDto debit = transfer(3L, 1L, 2L, "2024-03-15T10:00:00Z");
+        TransferDto olderCredit = transfer(2L, 5L, 1L, "2024-03-15T09:00:00Z");
+        TransferDto newerCredit = transfer(4L, 5L, 1L, "2024-03-15T11:00:00Z");
+        when(transferRepository.findDebits(1L, Instant.EPOCH, END_OF_TIME, Long.MIN_VALUE, PageRequest.of(0, 10)))
+                .thenReturn(List.of(debit));
+        when(transferRepository.findCredits(1L, Instant.EPOCH, END_OF_TIME, Long.MIN_VALUE, PageRequest.of(0, 10)))
+                .thenReturn(List.of(newerCredit, olderCredit));
+
+        // When
+        TransferPageDto page = transferHistoryService.getStatement(1L, null, null, null, 10);
+
+        // Then
+        assertEquals(List.of(newerCredit, debit, olderCredit), page.getTransfers());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testFullPageReturnsCursorOfItsLastTransfer() {
+        // Given
+        TransferDto newer = transfer(8L, 1L, 2L, "2024-03-15T10:00:00.000002Z");
+        TransferDto older = transfer(7L, 1L, 2L, "2024-03-15T10:00:00.000001Z");
+        TransferDto oldest = transfer(6L, 3L, 1L, "2024-03-15T10:00:00Z");
+        when(transferRepository.findDebits(eq(1L), any(), any(), anyLong(), any())).thenReturn(List.of(newer, older));
+        when(transferRepository.findCredits(eq(1L), any(), any(), anyLong(), any())).thenReturn(List.of(oldest));
+
+        // When
+        TransferPageDto page = transferHistoryService.getStatement(1L, null, null, null, 2);
+
+        // Then
+        assertEquals(List.of(newer, older), page.getTransfers());
+        assertEquals("1710496800000001_7", page.getNextCursor());
+    }
+
+    @Test
+    void testCursorBoundsTheNextPage() {
+        // Given
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-04-01T00:00:00Z");
+        Instant cursorCreatedAt = Instant.parse("2024-03-15T10:00:00.000001Z");
+        when(transferRepository.findDebits(1L, from, cursorCreatedAt, 7L, PageRequest.of(0, 2))).thenReturn(List.of());
+        when(transferRepository.findCredits(1L, from, cursorCreatedAt, 7L, PageRequest.of(0, 2))).thenReturn(List.of());
+
+        // When
+        TransferPageDto page = transferHistoryService.getStatement(1L, from, to, "1710496800000001_7", 2);
+
+        // Then
+        assertTrue(page.getTransfers().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testMalformedCursorIsRejected() {
+        // Given, When & Then
+        assertThrows(InvalidCursorException.class, () -> transferHistoryService.getStatement(1L, null, null, "abc", 2));
+        assertThrows(InvalidCursorException.class, () -> transferHistoryService.getStatement(1L, null, null, "1_x", 2));
+        assertThrows(InvalidCursorException.class, () -> transferHistoryService.getStatement(1L, null, null, "1_2_3", 2));
+        verify(transferRepository, never()).findDebits(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void testArchiveMovesWholeMonthsInBatches() {
+        // Given
+        Instant cutoff = Instant.parse("2024-01-01T00:00:00Z");
+        when(transferRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, 2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        // When
+        int archived = transferHistoryService.archive();
+
+        // Then
+        assertEquals(3, archived);
+        verify(transferRepository).copyToArchive(List.of(1L, 2L));
+        verify(transferRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(transferRepository).copyToArchive(List.of(3L));
+        verify(transferRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    private static TransferDto transfer(Long id, Long fromAccountId, Long toAccountId, String createdAt) {
+        return new TransferDto(id, fromAccountId, toAccountId, Money.of("1"), Money.of("1"), Instant.parse(createdAt));
+    }
+}
@@ -0,0 +1,110 @@
+package com.geeksforless.fintech.service;
+
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import com.geeksforless.fintech.exception.TransferRejectedException;
+import com.geeksforless.fintech.exception.UnsupportedCurrencyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.ExhaustedRetryException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testTransferBeyondTheLimitIsRejected() {
+        // Given
+        TransferLimiter limiter = new TransferLimiter(meterRegistry, true, 1, 1, 10, 3);
+        AtomicInteger applied = new AtomicInteger();
+
+        // When
+        TransferRejectedException rejected = assertThrows(TransferRejectedException.class,
+                () -> limiter.execute(() -> limiter.execute(applied::incrementAndGet)));
+
+        // Then
+        assertEquals(0, applied.get());
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("transfer.limiter.rejected").counter().count());
+        assertEquals(0.0, meterRegistry.get("transfer.limiter.inflight").gauge().value());
+    }
+
+    @Test
+    void testOverloadedTransferShrinksTheLimit() {
+        // Given
+        TransferLimiter limiter = new TransferLimiter(meterRegistry, true, 10, 1, 100, 1);
+
+        // When
+        assertThrows(ServerIsOverloadedException.class, () -> limiter.execute(() -> {
+            throw new ServerIsOverloadedException("Server is overloaded. Please try again later.");
+        }));
+
+        // Then
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    void testOverloadedTransferWrappedByTheRetryInterceptorShrinksTheLimit() {
+        // Given
+        TransferLimiter limiter = new TransferLimiter(meterRegistry, true, 10, 1, 100, 1);
+
+        // When
+        assertThrows(ServerIsOverloadedException.class, () -> limiter.execute(() -> {
+            throw new ExhaustedRetryException("Cannot locate recovery method",
+                    new ServerIsOverloadedException("Server is overloaded. Please try again later."));
+        }));
+
+        // Then
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    void testBusinessFailureWrappedByTheRetryInterceptorIsRethrownUnwrapped() {
+        // Given
+        TransferLimiter limiter = new TransferLimiter(meterRegistry, true, 1, 1, 10, 1);
+
+        // When & Then
+        assertThrows(UnsupportedCurrencyException.class, () -> limiter.execute(() -> {
+            throw new ExhaustedRetryException("Cannot locate recovery method",
+                    new UnsupportedCurrencyException("No exchange rate for XYZ"));
+        }));
+        assertEquals(0.0, meterRegistry.get("transfer.limiter.inflight").gauge().value());
+    }
+
+    @Test
+    void testFailedTransferReleasesItsPermit() {
+        // Given
+        TransferLimiter limiter = new TransferLimiter(meterRegistry, true, 1, 1, 10, 1);
+
+        // When
+        assertThrows(InsufficientFundsException.class, () -> limiter.execute(() -> {
+            throw new InsufficientFundsException("Insufficient funds");
+        }));
+        assertThrows(IllegalStateException.class, () -> limiter.execute(() -> {
+            throw new IllegalStateException();
+        }));
+
+        // Then
+        AtomicInteger applied = new AtomicInteger();
+        limiter.execute(applied::incrementAndGet);
+        assertEquals(1, applied.get());
+    }
+
+    @Test
+    void testDisabledLimiterAdmitsEveryTransfer() {
+        // Given
+        TransferLimiter limiter = new TransferLimiter(meterRegistry, false, 1, 1, 10, 1);
+        AtomicInteger applied = new AtomicInteger();
+
+        // When
+        limiter.execute(() -> limiter.execute(applied::incrementAndGet));
+
+        // Then
+        assertEquals(1, applied.get());
+    }
+}
@@ -0,0 +1,90 @@
+package com.geeksforless.fintech.service.ledger;
+
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.service.AccountService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "account.store=in-memory",
+        "ledger.journal.dir=${java.io.tmpdir}/fintech-ledger-test-${random.uuid}"
+})
+class InMemoryLedgerIntegrationTest {
+
+    /**
+     * The number of threads used in the concurrency test.
+     */
+    private static final int NUM_OF_THREADS = 10;
+
+    /**
+     * The executor service responsible for handling concurrent tasks.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(NUM_OF_THREADS);
+
+    /**
+     * The amount transferred in each transaction in the concurrency test.
+     */
+    private static final Money SINGLE_TRANSFER_AMOUNT = Money.of("100");
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private InMemoryLedgerService ledger;
+
+    @Test
+    void ledgerIsTheActiveAccountService() {
+        assertSame(ledger, accountService);
+    }
+
+    @Test
+    void ledgerIsSeededWithTestData() {
+        assertTrue(accountService.get(1L).isPresent());
+        assertTrue(accountService.get(2L).isPresent());
+    }
+
+    /**
+     * Tests the concurrent transfer of funds and verifies that the balances are updated correctly.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    void concurrentTransferShouldUpdateBalancesCorrectly() throws InterruptedException {
+        Account fromAccount = ledger.open(SINGLE_TRANSFER_AMOUNT.times(NUM_OF_THREADS));
+        Account toAccount = ledger.open(Money.ZERO);
+
+        CyclicBarrier cyclicBarrier = new CyclicBarrier(NUM_OF_THREADS);
+        CountDownLatch latch = new CountDownLatch(NUM_OF_THREADS);
+
+        for (int i = 0; i < NUM_OF_THREADS; i++) {
+            EXECUTOR.submit(() -> {
+                try {
+                    cyclicBarrier.await();
+                    accountService.transfer(fromAccount.getId(), toAccount.getId(), SINGLE_TRANSFER_AMOUNT);
+                } catch (Exception e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await(15, TimeUnit.SECONDS);
+
+        assertEquals(0, Money.ZERO.compareTo(accountService.get(fromAccount.getId()).get().getBalance()));
+        assertEquals(0, SINGLE_TRANSFER_AMOUNT.times(NUM_OF_THREADS)
+                .compareTo(accountService.get(toAccount.getId()).get().getBalance()));
+    }
+
+    @AfterAll
+    public static void destroy() {
+        EXECUTOR.shutdown();
+    }
+}
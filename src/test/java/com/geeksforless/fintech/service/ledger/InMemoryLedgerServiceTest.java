@@ -0,0 +1,261 @@
+package com.geeksforless.fintech.service.ledger;
+
+import com.geeksforless.fintech.dto.MoneyTransferDto;
+import com.geeksforless.fintech.dto.TransferStatus;
+import com.geeksforless.fintech.exception.InsufficientFundsException;
+import com.geeksforless.fintech.exception.InvalidTransferAmountException;
+import com.geeksforless.fintech.exception.NotFoundException;
+import com.geeksforless.fintech.exception.UnsupportedIdempotencyKeyException;
+import com.geeksforless.fintech.model.Account;
+import com.geeksforless.fintech.money.Money;
+import com.geeksforless.fintech.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryLedgerServiceTest {
+
+    private static final int SHARDS = 4;
+
+    @TempDir
+    Path journalDir;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private InMemoryLedgerService ledger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ledger = start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        ledger.close();
+    }
+
+    @Test
+    void testSuccessfulTransferWithinShard() {
+        // Given
+        Account fromAccount = ledger.open(Money.of("1000"));
+        openUntilShardOf(fromAccount.getId() + SHARDS);
+        Account toAccount = ledger.open(Money.of("500"));
+        assertEquals(fromAccount.getId() + SHARDS, toAccount.getId());
+
+        // When
+        ledger.transfer(fromAccount.getId(), toAccount.getId(), Money.of("200"));
+
+        // Then
+        assertBalance("800.00", fromAccount.getId());
+        assertBalance("700.00", toAccount.getId());
+    }
+
+    @Test
+    void testSuccessfulTransferAcrossShards() {
+        // Given
+        Account fromAccount = ledger.open(Money.of("1000"));
+        Account toAccount = ledger.open(Money.of("500"));
+
+        // When
+        ledger.transfer(fromAccount.getId(), toAccount.getId(), Money.of("200.50"));
+
+        // Then
+        assertBalance("799.50", fromAccount.getId());
+        assertBalance("700.50", toAccount.getId());
+    }
+
+    @Test
+    void testTransferFromNonExistentAccount() {
+        // Given
+        Account toAccount = ledger.open(Money.of("500"));
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> ledger.transfer(100L, toAccount.getId(), Money.of("200")));
+    }
+
+    @Test
+    void testTransferToNonExistentAccount() {
+        // Given
+        Account fromAccount = ledger.open(Money.of("1000"));
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> ledger.transfer(fromAccount.getId(), 100L, Money.of("200")));
+        assertBalance("1000.00", fromAccount.getId());
+    }
+
+    @Test
+    void testTransferWithInsufficientFunds() {
+        // Given
+        Account fromAccount = ledger.open(Money.of("100"));
+        Account toAccount = ledger.open(Money.of("500"));
+
+        // When & Then
+        assertThrows(InsufficientFundsException.class,
+                () -> ledger.transfer(fromAccount.getId(), toAccount.getId(), Money.of("200")));
+    }
+
+    @Test
+    void testTransferNegativeAmount() {
+        // Given, When & Then
+        assertThrows(InvalidTransferAmountException.class, () -> ledger.transfer(1L, 2L, Money.of("-100")));
+    }
+
+    @Test
+    void testTransferZeroAmount() {
+        // Given, When & Then
+        assertThrows(InvalidTransferAmountException.class, () -> ledger.transfer(1L, 2L, Money.of("0")));
+    }
+
+    @Test
+    void testTransferAmountBelowMinorUnit() {
+        // Given, When & Then
+        assertThrows(InvalidTransferAmountException.class, () -> ledger.transfer(1L, 2L, new Money(1, 3)));
+    }
+
+    @Test
+    void testTransferWithIdempotencyKeyIsRefused() {
+        // Given
+        Account fromAccount = ledger.open(Money.of("1000"));
+        Account toAccount = ledger.open(Money.of("500"));
+
+        // When & Then
+        assertThrows(UnsupportedIdempotencyKeyException.class,
+                () -> ledger.transfer(fromAccount.getId(), toAccount.getId(), Money.of("200"), "key-1"));
+        assertBalance("1000.00", fromAccount.getId());
+    }
+
+    @Test
+    void testBatchRefusesTransfersWithIdempotencyKey() {
+        // Given
+        Account fromAccount = ledger.open(Money.of("1000"));
+        Account toAccount = ledger.open(Money.of("500"));
+        MoneyTransferDto keyed = transferDto(fromAccount.getId(), toAccount.getId(), "200");
+        keyed.setIdempotencyKey("key-1");
+        MoneyTransferDto unkeyed = transferDto(fromAccount.getId(), toAccount.getId(), "100");
+
+        // When
+        List<TransferStatus> statuses = ledger.transfer(List.of(keyed, unkeyed));
+
+        // Then
+        assertEquals(List.of(TransferStatus.UNSUPPORTED_IDEMPOTENCY_KEY, TransferStatus.OK), statuses);
+        assertBalance("900.00", fromAccount.getId());
+        assertBalance("600.00", toAccount.getId());
+    }
+
+    @Test
+    void getAccountDetailsForNotExistingAccount() {
+        //Given & When
+        Optional<Account> account = ledger.get(1L);
+
+        //Then
+        assertFalse(account.isPresent());
+    }
+
+    @Test
+    void getAllAccountsOrderedById() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            ledger.open(Money.ofMinorUnits(i * 100L));
+        }
+
+        //When
+        List<Account> accounts = ledger.getAll();
+
+        //Then
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), accounts.stream().map(Account::getId).toList());
+        assertEquals(List.of(4L, 5L, 6L), ledger.getPage(3L, 3).stream().map(Account::getId).toList());
+    }
+
+    @Test
+    void balancesAreRecoveredFromJournal() throws IOException {
+        // Given
+        Account fromAccount = ledger.open(Money.of("1000"));
+        Account toAccount = ledger.open(Money.of("500"));
+        ledger.transfer(fromAccount.getId(), toAccount.getId(), Money.of("200"));
+
+        // When
+        ledger.close();
+        ledger = start();
+
+        // Then
+        assertBalance("800.00", fromAccount.getId());
+        assertBalance("700.00", toAccount.getId());
+        assertEquals(toAccount.getId() + 1, ledger.open(Money.of("1")).getId());
+    }
+
+    @Test
+    void debitWithoutCreditIsRolledForwardOnRecovery() throws IOException {
+        // Given
+        ledger.close();
+        try (LedgerJournal fromJournal = LedgerJournal.open(journalDir.resolve("shard-1.journal"), false);
+             LedgerJournal toJournal = LedgerJournal.open(journalDir.resolve("shard-2.journal"), false)) {
+            fromJournal.append(LedgerJournal.OPEN, 1L, 0, 100_000, 0);
+            toJournal.append(LedgerJournal.OPEN, 2L, 0, 50_000, 0);
+            fromJournal.append(LedgerJournal.DEBIT, 1L, 2L, 20_000, 7L);
+        }
+
+        // When
+        ledger = start();
+
+        // Then
+        assertBalance("800.00", 1L);
+        assertBalance("700.00", 2L);
+    }
+
+    @Test
+    void emptyLedgerIsSeededFromDatabase() throws IOException {
+        // Given
+        ledger.close();
+        Path seededDir = journalDir.resolve("seeded");
+        when(accountRepository.findAll()).thenReturn(List.of(new Account(5L, Money.of("12.5"))));
+
+        // When
+        ledger = new InMemoryLedgerService(accountRepository, SHARDS, 2, 1024, seededDir.toString(), false);
+        ledger.afterSingletonsInstantiated();
+
+        // Then
+        assertBalance("12.50", 5L);
+        assertEquals(6L, ledger.open(Money.of("1")).getId());
+    }
+
+    private InMemoryLedgerService start() throws IOException {
+        InMemoryLedgerService service = new InMemoryLedgerService(accountRepository, SHARDS, 2, 1024, journalDir.toString(), false);
+        service.afterSingletonsInstantiated();
+        return service;
+    }
+
+    /**
+     * Opens accounts until the next one gets the given ID.
+     */
+    private void openUntilShardOf(long accountId) {
+        while (ledger.open(Money.ZERO).getId() < accountId - 1) {
+            // accounts in between only advance the ID sequence
+        }
+    }
+
+    private static MoneyTransferDto transferDto(Long fromAccountId, Long toAccountId, String amount) {
+        MoneyTransferDto transfer = new MoneyTransferDto();
+        transfer.setFromAccountId(fromAccountId);
+        transfer.setToAccountId(toAccountId);
+        transfer.setAmount(Money.of(amount));
+        return transfer;
+    }
+
+    private void assertBalance(String expected, Long accountId) {
+        assertEquals(Money.of(expected), ledger.get(accountId).orElseThrow().getBalance());
+    }
+}
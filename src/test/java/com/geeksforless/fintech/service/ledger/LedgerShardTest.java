@@ -0,0 +1,37 @@
+package com.geeksforless.fintech.service.ledger;
+
+import com.geeksforless.fintech.exception.ServerIsOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerShardTest {
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void testCreditWaitsForRoomInsteadOfBeingRejected() throws IOException {
+        // Given
+        try (LedgerShard shard = new LedgerShard(0, journalDir.resolve("shard-0.journal"), false, 1)) {
+            shard.open(1L, 100);
+            CompletableFuture<Long> queued = shard.submit(s -> s.balance(1L));
+            assertThrows(ServerIsOverloadedException.class, () -> shard.submit(s -> s.balance(1L)));
+
+            // When
+            CompletableFuture<CompletableFuture<Void>> credit = CompletableFuture.supplyAsync(
+                    () -> shard.submitAwaitingCapacity(s -> s.credit(1L, 2L, 50, 1L)));
+            shard.start();
+
+            // Then
+            assertEquals(100, queued.join());
+            credit.join().join();
+            assertEquals(150, shard.submit(s -> s.balance(1L)).join());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.geeksforless.fintech.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimiterTest {
+
+    private static final long RTT = 1_000_000;
+
+    @Test
+    void testRequestsBeyondTheLimitAreRejected() {
+        // Given
+        GradientLimiter limiter = new GradientLimiter(2, 1, 10);
+
+        // When
+        GradientLimiter.Permit first = limiter.tryAcquire();
+        GradientLimiter.Permit second = limiter.tryAcquire();
+        GradientLimiter.Permit third = limiter.tryAcquire();
+
+        // Then
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(third);
+        assertEquals(2, limiter.getInflight());
+        first.ignore();
+        assertNotNull(limiter.tryAcquire());
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyStaysFlat() {
+        // Given
+        GradientLimiter limiter = new GradientLimiter(10, 1, 100);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(RTT, limiter.getLimit(), false);
+        }
+
+        // Then
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() {
+        // Given
+        GradientLimiter limiter = new GradientLimiter(50, 1, 100);
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(RTT, 1, false);
+        }
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(10 * RTT, limiter.getLimit(), false);
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() < 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void testLimitIsKeptWhenFarBelowIt() {
+        // Given
+        GradientLimiter limiter = new GradientLimiter(50, 1, 100);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(RTT, 1, false);
+        }
+
+        // Then
+        assertEquals(50, limiter.getLimit());
+    }
+
+    @Test
+    void testDroppedRequestShrinksTheLimitDownToTheMinimum() {
+        // Given
+        GradientLimiter limiter = new GradientLimiter(10, 5, 100);
+
+        // When
+        limiter.onSample(RTT, 10, true);
+        int afterOneDrop = limiter.getLimit();
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(RTT, 10, true);
+        }
+
+        // Then
+        assertEquals(9, afterOneDrop);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void testInvalidLimitsAreRejected() {
+        // Given, When & Then
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimiter(1, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimiter(20, 1, 10));
+    }
+}
@@ -0,0 +1,112 @@
+package com.geeksforless.fintech.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKSketchTest {
+
+    @Test
+    void testDrainReturnsKeysByDescendingCount() {
+        // Given
+        TopKSketch sketch = new TopKSketch(3);
+        offer(sketch, 1L, 2);
+        offer(sketch, 2L, 5);
+        offer(sketch, 3L, 1);
+
+        // When
+        List<TopKSketch.Entry> entries = sketch.drain();
+
+        // Then
+        assertEquals(List.of(new TopKSketch.Entry(2L, 5), new TopKSketch.Entry(1L, 2), new TopKSketch.Entry(3L, 1)),
+                entries);
+    }
+
+    @Test
+    void testFrequentKeyIsKeptWhenFull() {
+        // Given
+        TopKSketch sketch = new TopKSketch(2);
+
+        // When
+        for (long key = 100; key < 200; key++) {
+            sketch.offer(key);
+            sketch.offer(7L);
+            sketch.offer(7L);
+        }
+
+        // Then
+        TopKSketch.Entry top = sketch.drain().get(0);
+        assertEquals(7L, top.key());
+        assertTrue(top.count() >= 200);
+    }
+
+    @Test
+    void testDrainStartsNewPeriod() {
+        // Given
+        TopKSketch sketch = new TopKSketch(2);
+        sketch.offer(1L);
+
+        // When
+        sketch.drain();
+
+        // Then
+        assertTrue(sketch.drain().isEmpty());
+    }
+
+    @Test
+    void testPairOfKeysIsCountedOnce() {
+        // Given
+        TopKSketch sketch = new TopKSketch(2);
+
+        // When
+        sketch.offer(1L, 2L);
+        sketch.offer(1L, 3L);
+
+        // Then
+        assertEquals(new TopKSketch.Entry(1L, 2), sketch.drain().get(0));
+    }
+
+    @Test
+    void testDrainMergesCountsOfAllThreads() throws InterruptedException {
+        // Given
+        TopKSketch sketch = new TopKSketch(2, 4);
+        int threadCount = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            long otherKey = 100 + t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    sketch.offer(7L, otherKey);
+                }
+            });
+            threads[t].start();
+        }
+
+        // When
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        List<TopKSketch.Entry> entries = sketch.drain();
+
+        // Then
+        assertEquals(new TopKSketch.Entry(7L, threadCount * 1000), entries.get(0));
+        assertEquals(2, entries.size());
+    }
+
+    private static void offer(TopKSketch sketch, long key, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.offer(key);
+        }
+    }
+}